@@ -0,0 +1,507 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import model.Entity;
+
+/**
+ * A doubly linked list stored in parallel arrays instead of node objects.
+ * <p>
+ * Each element lives in a slot identified by an int handle: {@code info[h]}
+ * holds the element and {@code next[h]} and {@code previous[h]} hold the
+ * handles of its neighbours, with {@link #NO_NODE} marking the ends. Deleted
+ * slots are chained into a free list and reused by later insertions, so once
+ * the arrays have grown to the working size, adding and deleting allocates
+ * nothing. Handles stay valid until their element is deleted.
+ * <p>
+ * Elements are also indexed by id in an open-addressing table of handles, so
+ * {@link #findNode(String)} takes constant time without boxing.
+ *
+ * @param <T> the type of elements in this list
+ */
+public class ArrayDoubleLinkedList<T extends Entity> implements Iterable<T> {
+
+    /**
+     * Handle that refers to no slot.
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * Initial number of slots.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /* Attribute that holds the element of every slot */
+    private Entity[] info;
+    /* Attribute that holds the handle of the next slot, or the next free slot */
+    private int[] next;
+    /* Attribute that holds the handle of the previous slot */
+    private int[] previous;
+    /* Attribute that holds the id index: handle plus one per bucket, 0 if empty */
+    private int[] table;
+    /* Attribute that makes reference to the first slot in the list */
+    private int head;
+    /* Attribute that makes reference to the last slot in the list */
+    private int last;
+    /* Attribute that makes reference to the first free slot */
+    private int free;
+    /* Attribute that holds the number of slots used so far, free or not */
+    private int used;
+    /* Attribute that holds the number of elements in the list */
+    private int size;
+    /* Attribute that counts the structural changes, to detect them while iterating */
+    private int modCount;
+
+    /**
+     * Initializes an empty list.
+     */
+    public ArrayDoubleLinkedList() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Initializes an empty list with room for a number of elements.
+     *
+     * @param capacity the number of elements to reserve slots for
+     */
+    public ArrayDoubleLinkedList(int capacity) {
+        int slots = Math.max(capacity, 1);
+        this.info = new Entity[slots];
+        this.next = new int[slots];
+        this.previous = new int[slots];
+        this.table = new int[tableCapacityFor(slots)];
+        this.head = NO_NODE;
+        this.last = NO_NODE;
+        this.free = NO_NODE;
+        this.used = 0;
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return true if the list has no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds an element at the beginning of the list.
+     *
+     * @param value the value to be added
+     * @return the handle of the new element
+     */
+    public int addNodeFirst(T value) {
+        return link(value, NO_NODE, head);
+    }
+
+    /**
+     * Adds an element at the end of the list.
+     *
+     * @param value the value to be added
+     * @return the handle of the new element
+     */
+    public int addNodeLast(T value) {
+        return link(value, last, NO_NODE);
+    }
+
+    /**
+     * Adds an element after the specified one.
+     *
+     * @param node  the handle of the element after which to add the new one
+     * @param value the value to be added
+     * @return the handle of the new element, or {@link #NO_NODE} if the given
+     *         handle is not valid
+     */
+    public int addNodeAfterTo(int node, T value) {
+        if (!isValid(node))
+            return NO_NODE; // Validate input
+        return link(value, node, next[node]);
+    }
+
+    /**
+     * Adds an element before the specified one.
+     *
+     * @param node  the handle of the element before which to add the new one
+     * @param value the value to be added
+     * @return the handle of the new element, or {@link #NO_NODE} if the given
+     *         handle is not valid
+     */
+    public int addNodeBeforeTo(int node, T value) {
+        if (!isValid(node))
+            return NO_NODE;
+        return link(value, previous[node], node);
+    }
+
+    /**
+     * Adds an element in sorted order, before the first element greater than
+     * it.
+     *
+     * @param value the value to be added
+     * @return the handle of the new element
+     */
+    public int addNodeSorted(T value) {
+        for (int current = head; current != NO_NODE; current = next[current]) {
+            if (value.compareTo(info[current]) < 0) {
+                return link(value, previous[current], current);
+            }
+        }
+        return addNodeLast(value);
+    }
+
+    /**
+     * Finds the element with the specified code.
+     *
+     * @param code the code to search for
+     * @return the handle of the element, or {@link #NO_NODE} if not found
+     */
+    public int findNode(String code) {
+        if (code == null) {
+            return NO_NODE;
+        }
+        int mask = table.length - 1;
+        for (int bucket = spread(code.hashCode()) & mask; table[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int node = table[bucket] - 1;
+            if (info[node].getId().equals(code)) {
+                return node;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Gets the element stored in a slot.
+     *
+     * @param node the handle of the element
+     * @return the element
+     */
+    @SuppressWarnings("unchecked")
+    public T getInfo(int node) {
+        return (T) info[node];
+    }
+
+    /**
+     * Replaces the element stored in a slot, keeping the id index consistent.
+     *
+     * @param node  the handle of the element
+     * @param value the new value to store in the slot
+     */
+    public void setInfo(int node, T value) {
+        unindex(node);
+        info[node] = value;
+        index(node);
+    }
+
+    /**
+     * Gets the handle of the element after the given one.
+     *
+     * @param node the handle of an element
+     * @return the handle of the next element, or {@link #NO_NODE} at the end
+     */
+    public int getNext(int node) {
+        return next[node];
+    }
+
+    /**
+     * Gets the handle of the element before the given one.
+     *
+     * @param node the handle of an element
+     * @return the handle of the previous element, or {@link #NO_NODE} at the
+     *         beginning
+     */
+    public int getPrevious(int node) {
+        return previous[node];
+    }
+
+    /**
+     * Gets the handle of the first element.
+     *
+     * @return the handle of the first element, or {@link #NO_NODE} if empty
+     */
+    public int getHead() {
+        return head;
+    }
+
+    /**
+     * Gets the handle of the last element.
+     *
+     * @return the handle of the last element, or {@link #NO_NODE} if empty
+     */
+    public int getTail() {
+        return last;
+    }
+
+    /**
+     * Gets the elements of the list in a specified order.
+     *
+     * @param asc true to get elements in ascending order, false for descending
+     *            order
+     * @return a list of elements in the specified order
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getLinkedList(boolean asc) {
+        List<T> elements = new ArrayList<>(size);
+        if (asc) {
+            for (int current = head; current != NO_NODE; current = next[current]) {
+                elements.add((T) info[current]);
+            }
+        } else {
+            for (int current = last; current != NO_NODE; current = previous[current]) {
+                elements.add((T) info[current]);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Deletes an element from the list and puts its slot on the free list.
+     *
+     * @param node the handle of the element to be deleted
+     * @return the deleted element
+     * @throws IllegalArgumentException if the handle is not valid
+     */
+    @SuppressWarnings("unchecked")
+    public T deleteNode(int node) {
+        if (!isValid(node)) {
+            throw new IllegalArgumentException("The handle does not refer to an element of the list.");
+        }
+        T removed = (T) info[node];
+        unindex(node);
+        int before = previous[node];
+        int after = next[node];
+        if (before != NO_NODE) {
+            next[before] = after;
+        } else {
+            head = after;
+        }
+        if (after != NO_NODE) {
+            previous[after] = before;
+        } else {
+            last = before;
+        }
+        info[node] = null;
+        previous[node] = NO_NODE;
+        next[node] = free;
+        free = node;
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Retrieves the size of the list.
+     *
+     * @return the number of elements in the list
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Retrieves the object at the specified position.
+     *
+     * @param pos the position to retrieve
+     * @return the object at the specified position, or null if out of bounds
+     */
+    @SuppressWarnings("unchecked")
+    public T getObject(int pos) {
+        if (pos < 0 || pos >= size) {
+            return null;
+        }
+        int current = head;
+        for (int index = 0; index < pos; index++) {
+            current = next[current];
+        }
+        return (T) info[current];
+    }
+
+    /**
+     * Retrieves the first element in the list.
+     *
+     * @return the first element, or null if the list is empty
+     */
+    public T getFirst() {
+        return head != NO_NODE ? getInfo(head) : null;
+    }
+
+    /**
+     * Retrieves the last element in the list.
+     *
+     * @return the last element, or null if the list is empty
+     */
+    public T getLast() {
+        return last != NO_NODE ? getInfo(last) : null;
+    }
+
+    /**
+     * Returns an iterator over the elements in ascending order. The iterator
+     * fails fast if the list is structurally modified while it is in use.
+     *
+     * @return an iterator over the elements of the list
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int current = head;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return current != NO_NODE;
+            }
+
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (current == NO_NODE) {
+                    throw new NoSuchElementException();
+                }
+                T value = getInfo(current);
+                current = next[current];
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Stores an element in a free slot and links it between two neighbours.
+     *
+     * @param value  the element to store
+     * @param before the handle of the element that goes before it
+     * @param after  the handle of the element that goes after it
+     * @return the handle of the new element
+     */
+    private int link(T value, int before, int after) {
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        int node = allocate();
+        info[node] = value;
+        previous[node] = before;
+        next[node] = after;
+        if (before != NO_NODE) {
+            next[before] = node;
+        } else {
+            head = node;
+        }
+        if (after != NO_NODE) {
+            previous[after] = node;
+        } else {
+            last = node;
+        }
+        size++;
+        modCount++;
+        index(node);
+        return node;
+    }
+
+    /**
+     * Takes a slot from the free list, or a fresh one, growing the arrays when
+     * every slot is in use.
+     *
+     * @return the handle of an unused slot
+     */
+    private int allocate() {
+        if (free != NO_NODE) {
+            int node = free;
+            free = next[node];
+            return node;
+        }
+        if (used == info.length) {
+            int capacity = info.length * 2;
+            info = Arrays.copyOf(info, capacity);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+        }
+        return used++;
+    }
+
+    /**
+     * Checks whether a handle refers to an element of the list.
+     *
+     * @param node the handle to check
+     * @return true if the handle is in range and its slot holds an element
+     */
+    private boolean isValid(int node) {
+        return node >= 0 && node < used && info[node] != null;
+    }
+
+    /**
+     * Adds a slot to the id index.
+     *
+     * @param node the handle of the slot
+     */
+    private void index(int node) {
+        int mask = table.length - 1;
+        int bucket = spread(info[node].getId().hashCode()) & mask;
+        while (table[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = node + 1;
+    }
+
+    /**
+     * Removes a slot from the id index, shifting back the entries that probed
+     * past it so that lookups never stop early.
+     *
+     * @param node the handle of the slot
+     */
+    private void unindex(int node) {
+        int mask = table.length - 1;
+        int bucket = spread(info[node].getId().hashCode()) & mask;
+        while (table[bucket] != node + 1) {
+            bucket = (bucket + 1) & mask;
+        }
+        int hole = bucket;
+        for (int probe = (hole + 1) & mask; table[probe] != 0; probe = (probe + 1) & mask) {
+            int home = spread(info[table[probe] - 1].getId().hashCode()) & mask;
+            if (((probe - home) & mask) >= ((probe - hole) & mask)) {
+                table[hole] = table[probe];
+                hole = probe;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    /**
+     * Rebuilds the id index with a new number of buckets.
+     *
+     * @param capacity the new number of buckets, a power of two
+     */
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        for (int current = head; current != NO_NODE; current = next[current]) {
+            index(current);
+        }
+    }
+
+    /**
+     * Computes the number of index buckets needed for a number of elements.
+     *
+     * @param elements the number of elements
+     * @return a power of two at least twice the number of elements
+     */
+    private static int tableCapacityFor(int elements) {
+        return Integer.highestOneBit(Math.max(elements, 2) * 2 - 1) << 1;
+    }
+
+    /**
+     * Mixes the bits of a hash code so that neighbouring codes spread out.
+     *
+     * @param hash the hash code
+     * @return the mixed hash code
+     */
+    private static int spread(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+}
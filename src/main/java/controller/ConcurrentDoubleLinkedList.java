@@ -0,0 +1,804 @@
+package controller;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import model.Entity;
+
+/**
+ * A doubly linked list that many threads can add to and delete from at both
+ * ends at the same time, without locks.
+ * <p>
+ * The links of the list are changed with compare-and-set operations through
+ * {@link VarHandle}s, following the algorithm of
+ * {@link java.util.concurrent.ConcurrentLinkedDeque}. An element is deleted in
+ * two steps: its link is first emptied with a compare-and-set, which is the
+ * point at which the element leaves the list, and the emptied link is then
+ * unlinked by whichever threads pass by it. Two threads can therefore never
+ * delete the same element, and a thread walking the list never gets lost on
+ * a link that was unlinked under it: an unlinked link points to itself, or to
+ * a terminator, and the walk starts again from the end of the list.
+ * <p>
+ * Traversals, the size and the iterators are weakly consistent: they reflect
+ * the list at some point at or since their start and never throw
+ * {@link java.util.ConcurrentModificationException}. Positional and sorted
+ * operations are not offered, as they have no meaning while other threads
+ * keep changing the list; use {@link DoubleLinkedList} for those.
+ * {@link StudentHandler} uses two of these lists as the intake that many
+ * threads prepend and append students to without its lock.
+ *
+ * @param <T> the type of elements in this list
+ */
+public class ConcurrentDoubleLinkedList<T extends Entity> implements Iterable<T> {
+
+    /**
+     * A link of the list. A link whose info is null has been deleted.
+     */
+    private static final class Link {
+
+        /**
+         * Previous link, the link itself once unlinked, or null for the first
+         * link.
+         */
+        volatile Link previous;
+
+        /**
+         * Element held by the link, or null once deleted.
+         */
+        volatile Entity info;
+
+        /**
+         * Next link, the link itself once unlinked, or null for the last link.
+         */
+        volatile Link next;
+    }
+
+    /**
+     * Handle for compare-and-set on {@link Link#previous}.
+     */
+    private static final VarHandle PREVIOUS;
+
+    /**
+     * Handle for compare-and-set on {@link Link#info}.
+     */
+    private static final VarHandle INFO;
+
+    /**
+     * Handle for compare-and-set on {@link Link#next}.
+     */
+    private static final VarHandle NEXT;
+
+    /**
+     * Handle for compare-and-set on {@link #head}.
+     */
+    private static final VarHandle HEAD;
+
+    /**
+     * Handle for compare-and-set on {@link #last}.
+     */
+    private static final VarHandle LAST;
+
+    /**
+     * Number of deleted links tolerated next to an end before they are
+     * unlinked.
+     */
+    private static final int HOPS = 2;
+
+    /**
+     * Terminator given as previous link to links unlinked from the front.
+     */
+    private static final Link PREVIOUS_TERMINATOR;
+
+    /**
+     * Terminator given as next link to links unlinked from the back.
+     */
+    private static final Link NEXT_TERMINATOR;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PREVIOUS = lookup.findVarHandle(Link.class, "previous", Link.class);
+            INFO = lookup.findVarHandle(Link.class, "info", Entity.class);
+            NEXT = lookup.findVarHandle(Link.class, "next", Link.class);
+            HEAD = lookup.findVarHandle(ConcurrentDoubleLinkedList.class, "head", Link.class);
+            LAST = lookup.findVarHandle(ConcurrentDoubleLinkedList.class, "last", Link.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        PREVIOUS_TERMINATOR = new Link();
+        PREVIOUS_TERMINATOR.next = PREVIOUS_TERMINATOR;
+        NEXT_TERMINATOR = new Link();
+        NEXT_TERMINATOR.previous = NEXT_TERMINATOR;
+    }
+
+    /* Attribute that makes reference to a link near the front of the list, from which the first one is found */
+    private volatile Link head;
+    /* Attribute that makes reference to a link near the back of the list, from which the last one is found */
+    private volatile Link last;
+
+    /**
+     * Creates an empty list.
+     */
+    public ConcurrentDoubleLinkedList() {
+        Link empty = new Link();
+        this.head = empty;
+        this.last = empty;
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return getFirst() == null;
+    }
+
+    /**
+     * Adds a new element to the beginning of the list.
+     *
+     * @param value the element to be added
+     * @throws IllegalArgumentException if the element is null
+     */
+    public void addNodeFirst(T value) {
+        Link link = newLink(value);
+        restart: for (;;) {
+            for (Link h = head, p = h, q;;) {
+                if ((q = p.previous) != null && (q = (p = q).previous) != null) {
+                    p = (h != (h = head)) ? h : q;
+                } else if (p.next == p) {
+                    continue restart;
+                } else {
+                    NEXT.set(link, p);
+                    if (PREVIOUS.compareAndSet(p, null, link)) {
+                        if (p != h) {
+                            HEAD.weakCompareAndSet(this, h, link);
+                        }
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a new element to the end of the list.
+     *
+     * @param value the element to be added
+     * @throws IllegalArgumentException if the element is null
+     */
+    public void addNodeLast(T value) {
+        Link link = newLink(value);
+        restart: for (;;) {
+            for (Link t = last, p = t, q;;) {
+                if ((q = p.next) != null && (q = (p = q).next) != null) {
+                    p = (t != (t = last)) ? t : q;
+                } else if (p.previous == p) {
+                    continue restart;
+                } else {
+                    PREVIOUS.set(link, p);
+                    if (NEXT.compareAndSet(p, null, link)) {
+                        if (p != t) {
+                            LAST.weakCompareAndSet(this, t, link);
+                        }
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds an element by its code, walking the list in linear time.
+     *
+     * @param code the code of the element to search for
+     * @return the element with the given code, or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public T find(String code) {
+        for (Link p = first(); p != null; p = successor(p)) {
+            Entity info = p.info;
+            if (info != null && info.getId().equals(code)) {
+                return (T) info;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves a list of all elements in ascending or descending order.
+     *
+     * @param asc true for ascending order, false for descending order
+     * @return a list of elements
+     */
+    public List<T> getLinkedList(boolean asc) {
+        List<T> elements = new ArrayList<>();
+        Iterator<T> iterator = asc ? iterator() : descendingIterator();
+        while (iterator.hasNext()) {
+            elements.add(iterator.next());
+        }
+        return elements;
+    }
+
+    /**
+     * Deletes the specified element from the list, walking the list in linear
+     * time to find it. When several threads delete the same element, only one
+     * of them succeeds.
+     *
+     * @param element the element to be deleted
+     * @return the deleted element, or null if it is not in the list
+     */
+    @SuppressWarnings("unchecked")
+    public T deleteNode(T element) {
+        if (element == null) {
+            return null;
+        }
+        for (Link p = first(); p != null; p = successor(p)) {
+            Entity info = p.info;
+            if (info == element && INFO.compareAndSet(p, info, null)) {
+                unlink(p);
+                return (T) info;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the first element of the list.
+     *
+     * @return the deleted element, or null if the list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T deleteFirst() {
+        restart: for (;;) {
+            for (Link first = first(), p = first;;) {
+                Entity info = p.info;
+                if (info != null) {
+                    if (first.previous != null) {
+                        continue restart;
+                    }
+                    if (INFO.compareAndSet(p, info, null)) {
+                        unlink(p);
+                        return (T) info;
+                    }
+                }
+                if (p == (p = p.next)) {
+                    continue restart;
+                }
+                if (p == null) {
+                    if (first.previous != null) {
+                        continue restart;
+                    }
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the last element of the list.
+     *
+     * @return the deleted element, or null if the list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T deleteLast() {
+        restart: for (;;) {
+            for (Link last = last(), p = last;;) {
+                Entity info = p.info;
+                if (info != null) {
+                    if (last.next != null) {
+                        continue restart;
+                    }
+                    if (INFO.compareAndSet(p, info, null)) {
+                        unlink(p);
+                        return (T) info;
+                    }
+                }
+                if (p == (p = p.previous)) {
+                    continue restart;
+                }
+                if (p == null) {
+                    if (last.next != null) {
+                        continue restart;
+                    }
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the size of the list. The list is walked to count its
+     * elements, so the result is only exact while no other thread changes it.
+     *
+     * @return the number of elements in the list
+     */
+    public int getSize() {
+        restart: for (;;) {
+            int count = 0;
+            for (Link p = first(); p != null;) {
+                if (p.info != null && ++count == Integer.MAX_VALUE) {
+                    break;
+                }
+                if (p == (p = p.next)) {
+                    continue restart;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Retrieves the first element in the list.
+     *
+     * @return the first element, or null if the list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T getFirst() {
+        restart: for (;;) {
+            Link first = first();
+            Link p = first;
+            Entity info;
+            while ((info = p.info) == null) {
+                if (p == (p = p.next)) {
+                    continue restart;
+                }
+                if (p == null) {
+                    break;
+                }
+            }
+            if (first.previous != null) {
+                continue restart;
+            }
+            return (T) info;
+        }
+    }
+
+    /**
+     * Retrieves the last element in the list.
+     *
+     * @return the last element, or null if the list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T getLast() {
+        restart: for (;;) {
+            Link last = last();
+            Link p = last;
+            Entity info;
+            while ((info = p.info) == null) {
+                if (p == (p = p.previous)) {
+                    continue restart;
+                }
+                if (p == null) {
+                    break;
+                }
+            }
+            if (last.next != null) {
+                continue restart;
+            }
+            return (T) info;
+        }
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements from the first to
+     * the last.
+     *
+     * @return an iterator over the elements of the list
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Walk(true);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements from the last to
+     * the first.
+     *
+     * @return an iterator over the elements of the list in reverse order
+     */
+    public Iterator<T> descendingIterator() {
+        return new Walk(false);
+    }
+
+    /**
+     * Iterator that walks the links in one direction and skips the deleted
+     * ones.
+     */
+    private final class Walk implements Iterator<T> {
+
+        /**
+         * Whether the walk goes from the first link to the last.
+         */
+        private final boolean forward;
+
+        /**
+         * Link of the next element to return, or null when done.
+         */
+        private Link nextLink;
+
+        /**
+         * Next element to return, kept in case its link is deleted meanwhile.
+         */
+        private T nextInfo;
+
+        /**
+         * Creates a walk positioned on the first element in its direction.
+         *
+         * @param forward whether to walk from the first link to the last
+         */
+        Walk(boolean forward) {
+            this.forward = forward;
+            advance(forward ? first() : last());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextInfo != null;
+        }
+
+        @Override
+        public T next() {
+            T info = nextInfo;
+            if (info == null) {
+                throw new NoSuchElementException();
+            }
+            advance(forward ? successor(nextLink) : predecessor(nextLink));
+            return info;
+        }
+
+        /**
+         * Moves to the first link holding an element, starting at a link.
+         *
+         * @param p the link to start at, or null
+         */
+        @SuppressWarnings("unchecked")
+        private void advance(Link p) {
+            while (p != null) {
+                Entity info = p.info;
+                if (info != null) {
+                    nextLink = p;
+                    nextInfo = (T) info;
+                    return;
+                }
+                p = forward ? successor(p) : predecessor(p);
+            }
+            nextLink = null;
+            nextInfo = null;
+        }
+    }
+
+    /**
+     * Creates a link for an element.
+     *
+     * @param value the element of the link
+     * @return the new link
+     * @throws IllegalArgumentException if the element is null
+     */
+    private static Link newLink(Entity value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The element cannot be null.");
+        }
+        Link link = new Link();
+        INFO.set(link, value);
+        return link;
+    }
+
+    /**
+     * Finds the first link of the list, moving the head to it on the way.
+     *
+     * @return the first link
+     */
+    private Link first() {
+        restart: for (;;) {
+            for (Link h = head, p = h, q;;) {
+                if ((q = p.previous) != null && (q = (p = q).previous) != null) {
+                    p = (h != (h = head)) ? h : q;
+                } else if (p == h || HEAD.compareAndSet(this, h, p)) {
+                    return p;
+                } else {
+                    continue restart;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the last link of the list, moving the tail to it on the way.
+     *
+     * @return the last link
+     */
+    private Link last() {
+        restart: for (;;) {
+            for (Link t = last, p = t, q;;) {
+                if ((q = p.next) != null && (q = (p = q).next) != null) {
+                    p = (t != (t = last)) ? t : q;
+                } else if (p == t || LAST.compareAndSet(this, t, p)) {
+                    return p;
+                } else {
+                    continue restart;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the link after another, or the first link if the other one has
+     * been unlinked.
+     *
+     * @param p the link to move from
+     * @return the next link, or null at the end of the list
+     */
+    private Link successor(Link p) {
+        Link next = p.next;
+        return next == p ? first() : next;
+    }
+
+    /**
+     * Returns the link before another, or the last link if the other one has
+     * been unlinked.
+     *
+     * @param p the link to move from
+     * @return the previous link, or null at the beginning of the list
+     */
+    private Link predecessor(Link p) {
+        Link previous = p.previous;
+        return previous == p ? last() : previous;
+    }
+
+    /**
+     * Unlinks a link whose element has just been deleted, together with the
+     * deleted links around it.
+     *
+     * @param x the deleted link
+     */
+    private void unlink(Link x) {
+        Link previous = x.previous;
+        Link next = x.next;
+        if (previous == null) {
+            unlinkFirst(x, next);
+        } else if (next == null) {
+            unlinkLast(x, previous);
+        } else {
+            Link activePrevious;
+            Link activeNext;
+            boolean isFirst;
+            boolean isLast;
+            int hops = 1;
+
+            for (Link p = previous;; ++hops) {
+                if (p.info != null) {
+                    activePrevious = p;
+                    isFirst = false;
+                    break;
+                }
+                Link q = p.previous;
+                if (q == null) {
+                    if (p.next == p) {
+                        return;
+                    }
+                    activePrevious = p;
+                    isFirst = true;
+                    break;
+                } else if (p == q) {
+                    return;
+                } else {
+                    p = q;
+                }
+            }
+
+            for (Link p = next;; ++hops) {
+                if (p.info != null) {
+                    activeNext = p;
+                    isLast = false;
+                    break;
+                }
+                Link q = p.next;
+                if (q == null) {
+                    if (p.previous == p) {
+                        return;
+                    }
+                    activeNext = p;
+                    isLast = true;
+                    break;
+                } else if (p == q) {
+                    return;
+                } else {
+                    p = q;
+                }
+            }
+
+            if (hops < HOPS && (isFirst | isLast)) {
+                return;
+            }
+
+            skipDeletedSuccessors(activePrevious);
+            skipDeletedPredecessors(activeNext);
+
+            if ((isFirst | isLast)
+                    && activePrevious.next == activeNext
+                    && activeNext.previous == activePrevious
+                    && (isFirst ? activePrevious.previous == null : activePrevious.info != null)
+                    && (isLast ? activeNext.next == null : activeNext.info != null)) {
+                updateHead();
+                updateLast();
+                PREVIOUS.setRelease(x, isFirst ? PREVIOUS_TERMINATOR : x);
+                NEXT.setRelease(x, isLast ? NEXT_TERMINATOR : x);
+            }
+        }
+    }
+
+    /**
+     * Unlinks the deleted links following a deleted first link.
+     *
+     * @param first the deleted first link
+     * @param next  the link after it
+     */
+    private void unlinkFirst(Link first, Link next) {
+        for (Link o = null, p = next, q;;) {
+            if (p.info != null || (q = p.next) == null) {
+                if (o != null && p.previous != p && NEXT.compareAndSet(first, next, p)) {
+                    skipDeletedPredecessors(p);
+                    if (first.previous == null
+                            && (p.next == null || p.info != null)
+                            && p.previous == first) {
+                        updateHead();
+                        updateLast();
+                        NEXT.setRelease(o, o);
+                        PREVIOUS.setRelease(o, PREVIOUS_TERMINATOR);
+                    }
+                }
+                return;
+            } else if (p == q) {
+                return;
+            } else {
+                o = p;
+                p = q;
+            }
+        }
+    }
+
+    /**
+     * Unlinks the deleted links preceding a deleted last link.
+     *
+     * @param last     the deleted last link
+     * @param previous the link before it
+     */
+    private void unlinkLast(Link last, Link previous) {
+        for (Link o = null, p = previous, q;;) {
+            if (p.info != null || (q = p.previous) == null) {
+                if (o != null && p.next != p && PREVIOUS.compareAndSet(last, previous, p)) {
+                    skipDeletedSuccessors(p);
+                    if (last.next == null
+                            && (p.previous == null || p.info != null)
+                            && p.next == last) {
+                        updateHead();
+                        updateLast();
+                        PREVIOUS.setRelease(o, o);
+                        NEXT.setRelease(o, NEXT_TERMINATOR);
+                    }
+                }
+                return;
+            } else if (p == q) {
+                return;
+            } else {
+                o = p;
+                p = q;
+            }
+        }
+    }
+
+    /**
+     * Moves the head off deleted links, so that unlinked links cannot be
+     * reached from it.
+     */
+    private void updateHead() {
+        Link h;
+        Link p;
+        Link q;
+        restart: while ((h = head).info == null && (p = h.previous) != null) {
+            for (;;) {
+                if ((q = p.previous) == null || (q = (p = q).previous) == null) {
+                    if (HEAD.compareAndSet(this, h, p)) {
+                        return;
+                    }
+                    continue restart;
+                } else if (h != head) {
+                    continue restart;
+                } else {
+                    p = q;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the tail off deleted links, so that unlinked links cannot be
+     * reached from it.
+     */
+    private void updateLast() {
+        Link t;
+        Link p;
+        Link q;
+        restart: while ((t = last).info == null && (p = t.next) != null) {
+            for (;;) {
+                if ((q = p.next) == null || (q = (p = q).next) == null) {
+                    if (LAST.compareAndSet(this, t, p)) {
+                        return;
+                    }
+                    continue restart;
+                } else if (t != last) {
+                    continue restart;
+                } else {
+                    p = q;
+                }
+            }
+        }
+    }
+
+    /**
+     * Points the previous link of a link past the deleted links before it.
+     *
+     * @param x the link to update
+     */
+    private void skipDeletedPredecessors(Link x) {
+        active: do {
+            Link previous = x.previous;
+            Link p = previous;
+            for (;;) {
+                if (p.info != null) {
+                    break;
+                }
+                Link q = p.previous;
+                if (q == null) {
+                    if (p.next == p) {
+                        continue active;
+                    }
+                    break;
+                } else if (p == q) {
+                    continue active;
+                } else {
+                    p = q;
+                }
+            }
+            if (previous == p || PREVIOUS.compareAndSet(x, previous, p)) {
+                return;
+            }
+        } while (x.info != null || x.next == null);
+    }
+
+    /**
+     * Points the next link of a link past the deleted links after it.
+     *
+     * @param x the link to update
+     */
+    private void skipDeletedSuccessors(Link x) {
+        active: do {
+            Link next = x.next;
+            Link p = next;
+            for (;;) {
+                if (p.info != null) {
+                    break;
+                }
+                Link q = p.next;
+                if (q == null) {
+                    if (p.previous == p) {
+                        continue active;
+                    }
+                    break;
+                } else if (p == q) {
+                    continue active;
+                } else {
+                    p = q;
+                }
+            }
+            if (next == p || NEXT.compareAndSet(x, next, p)) {
+                return;
+            }
+        } while (x.info != null || x.previous == null);
+    }
+}
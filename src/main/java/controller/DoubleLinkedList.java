@@ -10,30 +10,107 @@
  */
 package controller;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import model.Entity;
 import model.Node;
 
 /**
  * A circular doubly linked list implementation.
+ * <p>
+ * Besides the node chain, the list keeps a hash index from each entity id to
+ * the node that holds it, so {@link #findNode(String)} does not need to walk
+ * the chain. Ids are expected to be unique within a list (as
+ * {@link StudentHandler} enforces), and node contents must be replaced through
+ * {@link #setNodeInfo(Node, Entity)} so the index stays in step.
+ * <p>
+ * A list can optionally carry a {@link SkipListIndex} overlay. While the chain
+ * is in {@link Entity#compareTo} order, which the list tracks on every change,
+ * the overlay lets sorted insertion and floor/ceiling searches run in expected
+ * logarithmic time; otherwise they fall back to walking the chain. Positional
+ * access through the overlay is logarithmic whatever the order of the chain.
+ * <p>
+ * A list can also keep a bounded pool of deleted nodes, which are cleared and
+ * reused by later insertions so that add/delete churn allocates no nodes. With
+ * a pool, a node must not be used once it has been deleted.
  *
  * @param <T> the type of elements in this list
  */
-public class DoubleLinkedList<T extends Entity> {
+public class DoubleLinkedList<T extends Entity> implements Iterable<T> {
 
     /* Attribute that makes reference to the first node in the double linked list */
     private Node<T> head;
     /* Attribute that makes reference to the last node in the double linked list */
     private Node<T> last;
+    /* Attribute that maps the id of every element to the node that holds it */
+    private final NodeIndex<T> index;
+    /* Attribute with the skip-list express lanes, or null when the list has none */
+    private final SkipListIndex<T> skipList;
+    /* Attribute that counts the adjacent pairs of nodes that are out of order */
+    private int descents;
+    /* Attribute that holds the number of nodes in the list */
+    private int size;
+    /* Attribute that counts the structural changes, to detect them while iterating */
+    private int modCount;
+    /* Attribute that makes reference to the first pooled node, chained through next */
+    private Node<T> pool;
+    /* Attribute that holds the number of pooled nodes */
+    private int pooled;
+    /* Attribute that holds the maximum number of pooled nodes */
+    private final int poolCapacity;
 
     /**
      * Initializes an empty list.
      */
     public DoubleLinkedList() {
+        this(false);
+    }
+
+    /**
+     * Initializes an empty list, optionally with skip-list express lanes for
+     * sorted insertion and searches.
+     *
+     * @param skipList true to keep a skip-list overlay over the nodes
+     */
+    public DoubleLinkedList(boolean skipList) {
+        this(skipList, 0);
+    }
+
+    /**
+     * Initializes an empty list, optionally with skip-list express lanes and a
+     * pool of reusable nodes.
+     *
+     * @param skipList     true to keep a skip-list overlay over the nodes
+     * @param poolCapacity the maximum number of deleted nodes kept for reuse,
+     *                     0 to disable pooling
+     * @throws IllegalArgumentException if the pool capacity is negative
+     */
+    public DoubleLinkedList(boolean skipList, int poolCapacity) {
+        if (poolCapacity < 0) {
+            throw new IllegalArgumentException("The pool capacity cannot be negative.");
+        }
         this.head = null;
         this.last = null;
+        this.index = new NodeIndex<>();
+        this.skipList = skipList ? new SkipListIndex<>() : null;
+        this.descents = 0;
+        this.size = 0;
+        this.modCount = 0;
+        this.pool = null;
+        this.pooled = 0;
+        this.poolCapacity = poolCapacity;
     }
 
     /**
@@ -51,7 +128,7 @@ public class DoubleLinkedList<T extends Entity> {
      * @param value the value to be added
      */
     public void addNodeFirst(T value) {
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         if (isEmpty()) {
             head = newNode;
             last = newNode;
@@ -62,6 +139,7 @@ public class DoubleLinkedList<T extends Entity> {
             newNode.setNext(head);
             head = newNode;
         }
+        linked(newNode);
     }
 
     /**
@@ -70,7 +148,7 @@ public class DoubleLinkedList<T extends Entity> {
      * @param value the value to be added
      */
     public void addNodeLast(T value) {
-        Node<T> newNode = new Node<>(value);
+        Node<T> newNode = newNode(value);
         if (isEmpty()) {
             head = newNode;
             last = newNode;
@@ -80,6 +158,7 @@ public class DoubleLinkedList<T extends Entity> {
             newNode.setPrevious(last);
             last = newNode;
         }
+        linked(newNode);
     }
 
     /**
@@ -91,17 +170,18 @@ public class DoubleLinkedList<T extends Entity> {
     public void addNodeAfterTo(Node<T> node, T value) {
         if (node == null)
             return; // Validate input
-        Node<T> newNode = new Node<>(value);
 
         if (node == last) {
             addNodeLast(value);
         } else {
+            Node<T> newNode = newNode(value);
             newNode.setNext(node.getNext());
             newNode.setPrevious(node);
             if (node.getNext() != null) {
                 node.getNext().setPrevious(newNode);
             }
             node.setNext(newNode);
+            linked(newNode);
         }
     }
 
@@ -114,17 +194,18 @@ public class DoubleLinkedList<T extends Entity> {
     public void addNodeBeforeTo(Node<T> node, T value) {
         if (node == null)
             return;
-        Node<T> newNode = new Node<>(value);
 
         if (node == head) {
             addNodeFirst(value);
         } else {
+            Node<T> newNode = newNode(value);
             newNode.setNext(node);
             newNode.setPrevious(node.getPrevious());
             if (node.getPrevious() != null) {
                 node.getPrevious().setNext(newNode);
             }
             node.setPrevious(newNode);
+            linked(newNode);
         }
     }
 
@@ -135,10 +216,15 @@ public class DoubleLinkedList<T extends Entity> {
      */
 
     public void addNodeSorted(T value) {
-        Node<T> newNode = new Node<>(value);
         if (isEmpty()) {
-            head = newNode;
-            last = newNode;
+            addNodeFirst(value);
+        } else if (isIndexedSorted()) {
+            Node<T> previous = skipList.lastBefore(head, value, true);
+            if (previous == null) {
+                addNodeFirst(value);
+            } else {
+                addNodeAfterTo(previous, value);
+            }
         } else {
             Node<T> current = head;
             while (current != null) {
@@ -156,21 +242,212 @@ public class DoubleLinkedList<T extends Entity> {
         }
     }
 
+    /**
+     * Adds a batch of values in sorted order. Nothing is added if the batch
+     * holds a null value or an id that is repeated in it or already in the
+     * list.
+     * <p>
+     * The batch is sorted (in parallel when it is large) and, while the list is
+     * sorted, merged into the chain in a single pass, after which the
+     * skip-list overlay is rebuilt in one more pass. When the batch is small
+     * next to an indexed list, each value is inserted through the overlay
+     * instead, as that costs less than walking the whole chain. An unsorted
+     * list receives each value as {@link #addNodeSorted} would place it.
+     *
+     * @param values the values to be added
+     * @throws IllegalArgumentException if a value is null or its id is repeated
+     *                                  in the batch or already in the list
+     */
+    public void addAllSorted(Collection<? extends T> values) {
+        Entity[] batch = values.toArray(new Entity[0]);
+        for (Entity value : batch) {
+            if (value == null) {
+                throw new IllegalArgumentException("The values to add cannot be null.");
+            }
+        }
+        Arrays.parallelSort(batch);
+        for (int i = 0; i < batch.length; i++) {
+            if (i > 0 && batch[i].compareTo(batch[i - 1]) == 0 || index.get(batch[i].getId()) != null) {
+                throw new IllegalArgumentException("The id " + batch[i].getId() + " is repeated.");
+            }
+        }
+
+        int log = 32 - Integer.numberOfLeadingZeros(size);
+        if (descents != 0 || skipList != null && (long) batch.length * log < size) {
+            for (Entity value : batch) {
+                @SuppressWarnings("unchecked")
+                T element = (T) value;
+                addNodeSorted(element);
+            }
+            return;
+        }
+
+        index.ensureCapacity(size + batch.length);
+        Node<T> current = head;
+        for (Entity value : batch) {
+            @SuppressWarnings("unchecked")
+            T element = (T) value;
+            while (current != null && current.getInfo().compareTo(element) <= 0) {
+                current = current.getNext();
+            }
+            Node<T> newNode = newNode(element);
+            Node<T> previous = current == null ? last : current.getPrevious();
+            newNode.setPrevious(previous);
+            newNode.setNext(current);
+            if (previous == null) {
+                head = newNode;
+            } else {
+                previous.setNext(newNode);
+            }
+            if (current == null) {
+                last = newNode;
+            } else {
+                current.setPrevious(newNode);
+            }
+            index.put(newNode);
+            size++;
+        }
+        modCount++;
+        if (skipList != null) {
+            skipList.rebuild(head);
+        }
+    }
+
+    /**
+     * Adds a batch of values at the end of the list, in the order given, as a
+     * series of {@link #addNodeLast} calls would, but linking them in a single
+     * pass and rebuilding the skip-list overlay once at the end. Nothing is
+     * added if the batch holds a null value or an id that is repeated in it or
+     * already in the list.
+     * <p>
+     * The values are not sorted: a batch read back in list order, such as a
+     * saved copy of another list, rebuilds that list exactly, and a batch in
+     * ascending order keeps a sorted list sorted.
+     *
+     * @param values the values to be added
+     * @throws IllegalArgumentException if a value is null or its id is repeated
+     *                                  in the batch or already in the list
+     */
+    public void addAllLast(Collection<? extends T> values) {
+        boolean ascending = true;
+        T previous = null;
+        for (T value : values) {
+            if (value == null) {
+                throw new IllegalArgumentException("The values to add cannot be null.");
+            }
+            if (index.get(value.getId()) != null) {
+                throw new IllegalArgumentException("The id " + value.getId() + " is repeated.");
+            }
+            ascending &= previous == null || previous.compareTo(value) < 0;
+            previous = value;
+        }
+        if (!ascending) {
+            Set<String> ids = new HashSet<>(values.size() * 2);
+            for (T value : values) {
+                if (!ids.add(value.getId())) {
+                    throw new IllegalArgumentException("The id " + value.getId() + " is repeated.");
+                }
+            }
+        }
+
+        index.ensureCapacity(size + values.size());
+        for (T value : values) {
+            Node<T> newNode = newNode(value);
+            newNode.setPrevious(last);
+            if (last == null) {
+                head = newNode;
+            } else {
+                last.setNext(newNode);
+            }
+            descents += descent(last, newNode);
+            last = newNode;
+            index.put(newNode);
+            size++;
+        }
+        modCount++;
+        if (skipList != null) {
+            skipList.rebuild(head);
+        }
+    }
+
     /**
      * Finds a node with the specified value.
+     * The lookup goes through the id index, so it takes constant time.
      *
      * @param code the value to search for
      * @return the node containing the value, or null if not found
      */
     public Node<T> findNode(String code) {
-        Node<T> current = head;
-        while (current != null) {
-            if (current.getInfo().getId().equals(code)) {
-                return current;
+        return index.get(code);
+    }
+
+    /**
+     * Replaces the information stored in a node of this list, keeping the id
+     * index consistent with the new value.
+     *
+     * @param node  the node whose information is replaced
+     * @param value the new value to store in the node
+     */
+    public void setNodeInfo(Node<T> node, T value) {
+        descents -= descent(node.getPrevious(), node) + descent(node, node.getNext());
+        index.remove(node);
+        node.setInfo(value);
+        index.put(node);
+        descents += descent(node.getPrevious(), node) + descent(node, node.getNext());
+    }
+
+    /**
+     * Checks whether the elements of the list are in ascending order according
+     * to {@link Entity#compareTo}. Positional insertions such as
+     * {@link #addNodeFirst} may leave the list unsorted.
+     *
+     * @return true if every element is not greater than the next one
+     */
+    public boolean isSorted() {
+        return descents == 0;
+    }
+
+    /**
+     * Finds the node holding the greatest element that is less than or equal to
+     * the given value.
+     *
+     * @param value the value to compare with
+     * @return the floor node, or null if every element is greater than the value
+     */
+    public Node<T> floorNode(T value) {
+        if (isIndexedSorted()) {
+            return skipList.lastBefore(head, value, true);
+        }
+        Node<T> floor = null;
+        for (Node<T> current = head; current != null; current = current.getNext()) {
+            if (current.getInfo().compareTo(value) <= 0
+                    && (floor == null || current.getInfo().compareTo(floor.getInfo()) >= 0)) {
+                floor = current;
             }
-            current = current.getNext();
         }
-        return null;
+        return floor;
+    }
+
+    /**
+     * Finds the node holding the least element that is greater than or equal to
+     * the given value.
+     *
+     * @param value the value to compare with
+     * @return the ceiling node, or null if every element is less than the value
+     */
+    public Node<T> ceilingNode(T value) {
+        if (isIndexedSorted()) {
+            Node<T> lower = skipList.lastBefore(head, value, false);
+            return lower == null ? head : lower.getNext();
+        }
+        Node<T> ceiling = null;
+        for (Node<T> current = head; current != null; current = current.getNext()) {
+            if (current.getInfo().compareTo(value) >= 0
+                    && (ceiling == null || current.getInfo().compareTo(ceiling.getInfo()) < 0)) {
+                ceiling = current;
+            }
+        }
+        return ceiling;
     }
 
     /**
@@ -218,6 +495,26 @@ public class DoubleLinkedList<T extends Entity> {
         return elements;
     }
 
+    /**
+     * Returns a read-only view of the list that reads the nodes directly
+     * instead of copying them, unlike {@link #getLinkedList(boolean)}. The view
+     * is live: it reflects every later change of the list, and its iterators
+     * fail fast if the list is structurally modified while they are in use.
+     * <p>
+     * The view remembers the last node it reached by position, so sequential
+     * {@code get(i)} calls in either direction take constant amortized time.
+     * Other jumps walk from the closest of that node and both ends, or go
+     * through the skip-list overlay when the list has one and the walk would
+     * be long.
+     *
+     * @param asc true for a view in ascending order, false for descending
+     *            order
+     * @return a read-only view of the elements in the specified order
+     */
+    public List<T> asList(boolean asc) {
+        return new NodeListView(asc);
+    }
+
     /**
      * Deletes a specified node from the list.
      *
@@ -226,45 +523,33 @@ public class DoubleLinkedList<T extends Entity> {
      */
     public T deleteNode(Node<T> node) {
         T infoNode = node.getInfo();
+        unlinking(node);
         if (node == head && node == last) {
-            T info = node.getInfo();
             head = null;
             last = null;
-            return info;
         } else if (node == head) {
             node.getNext().setPrevious(null);
             head = node.getNext();
-            node = null;
         } else if (node == last) {
             node.getPrevious().setNext(null);
             last = node.getPrevious();
-            node = null;
         } else {
             node.getPrevious().setNext(node.getNext());
             node.getNext().setPrevious(node.getPrevious());
-            node= null;
         }
-
+        recycle(node);
 
         return infoNode;
     }
 
     /**
      * Retrieves the size of the list.
+     * The size is kept up to date by every add and delete, so this takes
+     * constant time.
      *
      * @return the number of elements in the list
      */
     public int getSize() {
-        int size = 0;
-        Node<T> current = head;
-        if (current == null)
-            return size;
-
-        do {
-            size++;
-            current = current.getNext();
-        } while (current != head && current != null);
-
         return size;
     }
 
@@ -275,20 +560,47 @@ public class DoubleLinkedList<T extends Entity> {
      * @return the object at the specified position, or null if out of bounds
      */
     public T getObject(int pos) {
-        Node<T> current = head;
-        int index = 0;
-        if (current == null)
-            return null;
+        Node<T> node = getNode(pos);
+        return node != null ? node.getInfo() : null;
+    }
 
-        do {
-            if (index == pos) {
-                return current.getInfo();
-            }
-            index++;
+    /**
+     * Retrieves the node at the specified position. With the skip-list overlay
+     * this takes expected logarithmic time.
+     *
+     * @param pos the position to retrieve, starting from 0
+     * @return the node at the specified position, or null if out of bounds
+     */
+    public Node<T> getNode(int pos) {
+        if (pos < 0 || pos >= size) {
+            return null;
+        }
+        if (skipList != null) {
+            return skipList.nodeAt(head, pos);
+        }
+        Node<T> current = head;
+        for (int index = 0; index < pos; index++) {
             current = current.getNext();
-        } while (current != head);
+        }
+        return current;
+    }
 
-        return null;
+    /**
+     * Retrieves the position of a node of this list. With the skip-list overlay
+     * this takes expected logarithmic time.
+     *
+     * @param node a node of this list
+     * @return the position of the node, starting from 0
+     */
+    public int getPosition(Node<T> node) {
+        if (skipList != null) {
+            return skipList.positionOf(node);
+        }
+        int position = 0;
+        for (Node<T> current = head; current != node; current = current.getNext()) {
+            position++;
+        }
+        return position;
     }
 
     /**
@@ -308,4 +620,467 @@ public class DoubleLinkedList<T extends Entity> {
     public T getLast() {
         return last != null ? last.getInfo() : null;
     }
+
+    /**
+     * Returns an iterator over the elements in ascending order that walks the
+     * nodes directly, without copying them. The iterator fails fast if the list
+     * is structurally modified while it is in use.
+     *
+     * @return an iterator over the elements of the list
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private Node<T> current = head;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                T info = current.getInfo();
+                current = current.getNext();
+                return info;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the elements whose ids fall between two bounds,
+     * both included, that walks only the matching nodes. While the list is
+     * sorted it seeks to the first match through the skip-list overlay, when
+     * the list has one, and stops at the first element past the range;
+     * otherwise it walks the whole chain and skips the elements outside it.
+     * The iterator fails fast if the list is structurally modified while it
+     * is in use.
+     *
+     * @param from      the lowest id of the range, or null to leave the range
+     *                  open below
+     * @param to        the highest id of the range, or null to leave the range
+     *                  open above
+     * @param ascending true to walk the range in list order, false to walk it
+     *                  in reverse
+     * @return an iterator over the elements in the range
+     */
+    public Iterator<T> rangeIterator(String from, String to, boolean ascending) {
+        Entity lower = from == null ? null : key(from);
+        Entity upper = to == null ? null : key(to);
+        boolean sorted = isSorted();
+        Node<T> start = ascending ? head : last;
+        if (isIndexedSorted() && (ascending ? lower : upper) != null) {
+            start = ascending ? skipList.lastBefore(head, lower, false) : skipList.lastBefore(head, upper, true);
+            if (ascending) {
+                start = start == null ? head : start.getNext();
+            }
+        }
+        Node<T> first = start;
+
+        return new Iterator<>() {
+            private Node<T> current = advance(first);
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (current == null) {
+                    throw new NoSuchElementException();
+                }
+                T info = current.getInfo();
+                current = advance(ascending ? current.getNext() : current.getPrevious());
+                return info;
+            }
+
+            /**
+             * Finds the next node in the range from a node on.
+             *
+             * @param node the node to start from, may be null
+             * @return the next node in the range, or null if there is none
+             */
+            private Node<T> advance(Node<T> node) {
+                while (node != null) {
+                    T info = node.getInfo();
+                    boolean aboveLower = lower == null || info.compareTo(lower) >= 0;
+                    boolean belowUpper = upper == null || info.compareTo(upper) <= 0;
+                    if (aboveLower && belowUpper) {
+                        return node;
+                    }
+                    if (sorted && (ascending ? !belowUpper : !aboveLower)) {
+                        return null;
+                    }
+                    node = ascending ? node.getNext() : node.getPrevious();
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Creates a sized, ordered spliterator over the elements in ascending order.
+     * It splits the chain into balanced halves, locating each midpoint through
+     * the skip-list overlay when the list has one.
+     *
+     * @return a spliterator over the elements of the list
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new NodeSpliterator(head, 0, size, modCount);
+    }
+
+    /**
+     * Creates an entity that only carries an id, to compare elements with.
+     *
+     * @param id the id of the entity
+     * @return an entity with the id
+     */
+    private static Entity key(String id) {
+        Entity key = new Entity() {
+        };
+        key.setId(id);
+        return key;
+    }
+
+    /**
+     * Checks whether sorted operations can use the skip-list overlay.
+     *
+     * @return true if the list has an overlay and is in ascending order
+     */
+    private boolean isIndexedSorted() {
+        return skipList != null && descents == 0;
+    }
+
+    /**
+     * Creates a node for a value, reusing a pooled node when there is one.
+     *
+     * @param value the value of the node
+     * @return a node holding the value and no links
+     */
+    private Node<T> newNode(T value) {
+        if (pool == null) {
+            return new Node<>(value);
+        }
+        Node<T> node = pool;
+        pool = node.getNext();
+        pooled--;
+        node.setNext(null);
+        node.setInfo(value);
+        return node;
+    }
+
+    /**
+     * Clears a deleted node and keeps it for reuse if the pool has room.
+     *
+     * @param node the node that was unlinked
+     */
+    private void recycle(Node<T> node) {
+        if (pooled < poolCapacity) {
+            node.setInfo(null);
+            node.setPrevious(null);
+            node.setNext(pool);
+            pool = node;
+            pooled++;
+        }
+    }
+
+    /**
+     * Updates the index structures after a node has been linked into the chain.
+     *
+     * @param node the node that was linked
+     */
+    private void linked(Node<T> node) {
+        index.put(node);
+        size++;
+        modCount++;
+        descents += descent(node.getPrevious(), node) + descent(node, node.getNext())
+                - descent(node.getPrevious(), node.getNext());
+        if (skipList != null) {
+            skipList.inserted(node);
+        }
+    }
+
+    /**
+     * Updates the index structures before a node is unlinked from the chain.
+     *
+     * @param node the node that is about to be unlinked
+     */
+    private void unlinking(Node<T> node) {
+        index.remove(node);
+        size--;
+        modCount++;
+        descents += descent(node.getPrevious(), node.getNext())
+                - descent(node.getPrevious(), node) - descent(node, node.getNext());
+        if (skipList != null) {
+            skipList.removed(node);
+        }
+    }
+
+    /**
+     * Checks whether two adjacent nodes are out of order.
+     *
+     * @param first  the first node, may be null
+     * @param second the node that follows it, may be null
+     * @return 1 if both nodes exist and the first element is greater than the
+     *         second, 0 otherwise
+     */
+    private static <T extends Entity> int descent(Node<T> first, Node<T> second) {
+        if (first == null || second == null) {
+            return 0;
+        }
+        return first.getInfo().compareTo(second.getInfo()) > 0 ? 1 : 0;
+    }
+
+    /**
+     * Read-only view of the list in one direction, with a cursor at the last
+     * node reached by position.
+     */
+    private final class NodeListView extends AbstractList<T> {
+
+        /**
+         * Maximum number of steps walked along the chain before a jump goes
+         * through the skip-list overlay instead.
+         */
+        private static final int MAX_WALK = 32;
+
+        /**
+         * Whether the view is in ascending order.
+         */
+        private final boolean ascending;
+
+        /**
+         * The last node reached by position, or null if there is none yet.
+         */
+        private Node<T> cursor;
+
+        /**
+         * The position of the cursor node in the chain.
+         */
+        private int cursorPosition;
+
+        /**
+         * The modification count of the list when the cursor was set.
+         */
+        private int cursorModCount;
+
+        /**
+         * Creates a view of the list.
+         *
+         * @param ascending whether the view is in ascending order
+         */
+        NodeListView(boolean ascending) {
+            this.ascending = ascending;
+        }
+
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            return nodeAt(ascending ? index : size - 1 - index).getInfo();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private Node<T> current = ascending ? head : last;
+                private final int expectedModCount = DoubleLinkedList.this.modCount;
+
+                @Override
+                public boolean hasNext() {
+                    return current != null;
+                }
+
+                @Override
+                public T next() {
+                    if (DoubleLinkedList.this.modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (current == null) {
+                        throw new NoSuchElementException();
+                    }
+                    T info = current.getInfo();
+                    current = ascending ? current.getNext() : current.getPrevious();
+                    return info;
+                }
+            };
+        }
+
+        /**
+         * Finds the node at a position of the chain, starting from whichever
+         * of the cursor and the ends of the chain is closest, and moves the
+         * cursor to it.
+         *
+         * @param position the position in the chain, in ascending order
+         * @return the node at the position
+         */
+        private Node<T> nodeAt(int position) {
+            if (cursor == null || cursorModCount != DoubleLinkedList.this.modCount) {
+                cursor = head;
+                cursorPosition = 0;
+                cursorModCount = DoubleLinkedList.this.modCount;
+            }
+            int fromCursor = Math.abs(position - cursorPosition);
+            int fromLast = size - 1 - position;
+            int shortest = Math.min(fromCursor, Math.min(position, fromLast));
+            Node<T> node;
+            if (shortest > MAX_WALK && skipList != null) {
+                node = skipList.nodeAt(head, position);
+            } else if (shortest == fromCursor) {
+                node = walk(cursor, position - cursorPosition);
+            } else if (shortest == position) {
+                node = walk(head, position);
+            } else {
+                node = walk(last, -fromLast);
+            }
+            cursor = node;
+            cursorPosition = position;
+            return node;
+        }
+
+        /**
+         * Walks a number of steps along the chain.
+         *
+         * @param node  the node to start from
+         * @param steps the number of steps, forwards if positive and backwards
+         *              if negative
+         * @return the node reached
+         */
+        private Node<T> walk(Node<T> node, int steps) {
+            for (; steps > 0; steps--) {
+                node = node.getNext();
+            }
+            for (; steps < 0; steps++) {
+                node = node.getPrevious();
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Spliterator over a range of positions of the chain.
+     */
+    private final class NodeSpliterator implements Spliterator<T> {
+
+        /**
+         * Node at the current position, or null when the range is exhausted.
+         */
+        private Node<T> current;
+
+        /**
+         * Current position in the list.
+         */
+        private int position;
+
+        /**
+         * Position right after the last one covered.
+         */
+        private final int end;
+
+        /**
+         * Modification count of the list when the spliterator was created.
+         */
+        private final int expectedModCount;
+
+        /**
+         * Creates a spliterator over the positions from {@code position} to
+         * {@code end}, exclusive.
+         *
+         * @param current          the node at the first position
+         * @param position         the first position covered
+         * @param end              the position after the last one covered
+         * @param expectedModCount the current modification count of the list
+         */
+        NodeSpliterator(Node<T> current, int position, int end, int expectedModCount) {
+            this.current = current;
+            this.position = position;
+            this.end = end;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (position >= end) {
+                return false;
+            }
+            checkForComodification();
+            T info = current.getInfo();
+            current = current.getNext();
+            position++;
+            action.accept(info);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            checkForComodification();
+            Node<T> node = current;
+            for (int remaining = end - position; remaining > 0; remaining--) {
+                action.accept(node.getInfo());
+                node = node.getNext();
+            }
+            current = node;
+            position = end;
+            checkForComodification();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (position + end) >>> 1;
+            if (middle <= position) {
+                return null;
+            }
+            checkForComodification();
+            Node<T> middleNode;
+            if (skipList != null) {
+                middleNode = skipList.nodeAt(head, middle);
+            } else {
+                middleNode = current;
+                for (int steps = middle - position; steps > 0; steps--) {
+                    middleNode = middleNode.getNext();
+                }
+            }
+            NodeSpliterator prefix = new NodeSpliterator(current, position, middle, expectedModCount);
+            current = middleNode;
+            position = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+
+        /**
+         * Checks that the list has not been structurally modified.
+         *
+         * @throws ConcurrentModificationException if it has
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
 }
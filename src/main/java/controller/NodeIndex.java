@@ -0,0 +1,158 @@
+package controller;
+
+import model.Entity;
+import model.Node;
+
+/**
+ * Hash index from entity id to the node that holds the entity.
+ * <p>
+ * The nodes are stored directly in an open-addressing table with linear
+ * probing, and deletions shift back the entries that probed past the removed
+ * one. Unlike a {@link java.util.HashMap}, adding and removing entries
+ * allocates nothing once the table has grown to the working size. The key of
+ * each entry is read from the node itself, so a node must be removed from the
+ * index before its information is replaced.
+ *
+ * @param <T> the type of elements held by the nodes
+ */
+final class NodeIndex<T extends Entity> {
+
+    /**
+     * Initial number of buckets.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Buckets of the table, null when empty.
+     */
+    private Node<T>[] table;
+
+    /**
+     * Number of nodes in the table.
+     */
+    private int count;
+
+    /**
+     * Creates an empty index.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    NodeIndex() {
+        this.table = new Node[INITIAL_CAPACITY];
+        this.count = 0;
+    }
+
+    /**
+     * Finds the node holding the entity with an id.
+     *
+     * @param id the id to search for
+     * @return the node, or null if not found
+     */
+    Node<T> get(String id) {
+        if (id == null) {
+            return null;
+        }
+        int mask = table.length - 1;
+        for (int bucket = spread(id.hashCode()) & mask; table[bucket] != null; bucket = (bucket + 1) & mask) {
+            if (table[bucket].getInfo().getId().equals(id)) {
+                return table[bucket];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a node under the id of its entity, replacing the node previously
+     * stored under the same id.
+     *
+     * @param node the node to add
+     */
+    void put(Node<T> node) {
+        if ((count + 1) * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        String id = node.getInfo().getId();
+        int mask = table.length - 1;
+        int bucket = spread(id.hashCode()) & mask;
+        while (table[bucket] != null) {
+            if (table[bucket].getInfo().getId().equals(id)) {
+                table[bucket] = node;
+                return;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = node;
+        count++;
+    }
+
+    /**
+     * Grows the table at once to hold a number of nodes, so that a bulk load
+     * does not go through every intermediate size.
+     *
+     * @param expected the number of nodes the table should hold
+     */
+    void ensureCapacity(int expected) {
+        if ((long) expected * 2 > table.length) {
+            resize(Integer.highestOneBit(Math.max(expected * 2 - 1, 1)) << 1);
+        }
+    }
+
+    /**
+     * Removes a node from the index, if it is the one stored under the id of
+     * its entity.
+     *
+     * @param node the node to remove
+     */
+    void remove(Node<T> node) {
+        int mask = table.length - 1;
+        int hole = spread(node.getInfo().getId().hashCode()) & mask;
+        while (table[hole] != node) {
+            if (table[hole] == null) {
+                return;
+            }
+            hole = (hole + 1) & mask;
+        }
+        for (int probe = (hole + 1) & mask; table[probe] != null; probe = (probe + 1) & mask) {
+            int home = spread(table[probe].getInfo().getId().hashCode()) & mask;
+            if (((probe - home) & mask) >= ((probe - hole) & mask)) {
+                table[hole] = table[probe];
+                hole = probe;
+            }
+        }
+        table[hole] = null;
+        count--;
+    }
+
+    /**
+     * Moves every node to a table with a new number of buckets.
+     *
+     * @param capacity the new number of buckets, a power of two
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void resize(int capacity) {
+        Node<T>[] old = table;
+        table = new Node[capacity];
+        int mask = capacity - 1;
+        for (Node<T> node : old) {
+            if (node != null) {
+                int bucket = spread(node.getInfo().getId().hashCode()) & mask;
+                while (table[bucket] != null) {
+                    bucket = (bucket + 1) & mask;
+                }
+                table[bucket] = node;
+            }
+        }
+    }
+
+    /**
+     * Mixes the bits of a hash code so that neighbouring codes spread out,
+     * over the buckets of an index or the stripes of a
+     * {@link PartitionedStudentHandler}.
+     *
+     * @param hash the hash code
+     * @return the mixed hash code
+     */
+    static int spread(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+}
@@ -0,0 +1,1065 @@
+package controller;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * A store of students kept outside the Java heap.
+ * <p>
+ * Every student is encoded into a record inside an arena made of direct byte
+ * buffers. A record starts with a fixed header (the offsets of the next and
+ * previous records, the record capacity and the {@link EGender} ordinal)
+ * followed by the variable-length code, name, last name, email and career,
+ * each stored as a char count and its UTF-16 chars. The list links are record
+ * offsets inside the arena, and the code index is an open-addressing table of
+ * offsets that also lives off the heap, so the heap used by the store does not
+ * grow with the number of students. {@link Student} objects are only created
+ * when a caller reads them, and are detached copies of the record.
+ * <p>
+ * Records are sized to a power of two; deleted records go on a free list per
+ * size and are reused, and an update that no longer fits its record moves the
+ * student to a larger one.
+ * <p>
+ * About one record in four also holds, at the end of its capacity, the links
+ * of a skip-list tower of express lanes in code order, so that while the list
+ * is in code order a sorted insertion finds its place in expected logarithmic
+ * time instead of walking the chain. Positional insertions that break the
+ * order leave the lanes behind, and sorted insertions then walk the chain, as
+ * {@link DoubleLinkedList} does; the lanes are rebuilt in one pass once the
+ * list is back in order.
+ * <p>
+ * The store is safe to share between threads: changes take the write lock of
+ * a {@link StampedLock}, and reads take its read lock, as
+ * {@link StudentHandler} does.
+ * <p>
+ * The screens of the application and {@link StudentExporter} work on any
+ * {@link OrderedStudentStore}, so {@link StudentHandler#setStore} can put this
+ * store behind them, and the roster they manage then stays off the heap. The
+ * searches, statistics, paging and journal of {@link StudentHandler} work on
+ * the nodes of its own {@link DoubleLinkedList} and are not offered here.
+ * <p>
+ * Reading by position walks the chain from the nearer end, or from the record
+ * last read by position while no link changed since, so stepping through the
+ * students one position at a time takes constant time per step, while a
+ * position far from all three takes linear time. {@link #listAllStudents}
+ * builds every student on the heap at once; {@link #forEachStudent} hands
+ * them over one at a time.
+ */
+public class OffHeapStudentStore implements OrderedStudentStore {
+
+    /**
+     * Default size of each arena segment, 64 MiB.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+
+    /**
+     * Offset that refers to no record.
+     */
+    private static final long NULL = -1L;
+
+    /**
+     * Position of the offset of the next record inside a record.
+     */
+    private static final int NEXT = 0;
+
+    /**
+     * Position of the offset of the previous record inside a record.
+     */
+    private static final int PREVIOUS = 8;
+
+    /**
+     * Position of the record capacity inside a record.
+     */
+    private static final int CAPACITY = 16;
+
+    /**
+     * Position of the gender ordinal inside a record.
+     */
+    private static final int GENDER = 20;
+
+    /**
+     * Position of the number of express lanes of a record.
+     */
+    private static final int LEVEL = 21;
+
+    /**
+     * Position of the first variable-length field inside a record.
+     */
+    private static final int FIELDS = 24;
+
+    /**
+     * Number of variable-length fields in a record.
+     */
+    private static final int FIELD_COUNT = 5;
+
+    /**
+     * Smallest record capacity, as a power of two.
+     */
+    private static final int MIN_RECORD_SHIFT = 6;
+
+    /**
+     * Maximum number of express lanes above the chain.
+     */
+    private static final int MAX_LEVEL = 16;
+
+    /**
+     * Initial number of buckets of the code index.
+     */
+    private static final int INITIAL_TABLE_CAPACITY = 1024;
+
+    /**
+     * Gender values by ordinal.
+     */
+    private static final EGender[] GENDERS = EGender.values();
+
+    /* Attribute that holds the segments of the arena */
+    private final List<ByteBuffer> segments;
+    /* Attribute that holds the number of bits of an offset inside a segment */
+    private final int segmentShift;
+    /* Attribute that holds the first offset never used by a record */
+    private long top;
+    /* Attribute that holds the first free record of each capacity */
+    private final long[] freeLists;
+    /* Attribute that makes reference to the first record in the list */
+    private long head;
+    /* Attribute that makes reference to the last record in the list */
+    private long last;
+    /* Attribute that holds the number of students */
+    private int size;
+    /* Attribute that holds the code index: record offset plus one per bucket */
+    private ByteBuffer table;
+    /* Attribute that holds the number of buckets of the code index */
+    private int tableCapacity;
+    /* Attribute that holds the first record of each express lane */
+    private final long[] lanes;
+    /* Attribute that holds the last record before a searched one on each lane */
+    private final long[] update;
+    /* Attribute that tells whether the express lanes hold every towered record */
+    private boolean lanesValid;
+    /* Attribute that holds the number of neighbours out of code order */
+    private int descents;
+    /* Attribute that holds the lock that guards the store */
+    private final StampedLock lock;
+    /* Attribute that holds the number of times records were linked or unlinked */
+    private long changes;
+    /* Attribute that holds the changes, position and record of the last read by position */
+    private volatile long[] positionHint;
+
+    /**
+     * Initializes an empty store with the default segment size.
+     */
+    public OffHeapStudentStore() {
+        this(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Initializes an empty store.
+     *
+     * @param segmentSize the size in bytes of each arena segment, a power of
+     *                    two of at least 4 KiB
+     * @throws IllegalArgumentException if the segment size is not valid
+     */
+    public OffHeapStudentStore(int segmentSize) {
+        if (segmentSize < 4096 || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("The segment size must be a power of two of at least 4096.");
+        }
+        this.segments = new ArrayList<>();
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        this.top = 0;
+        this.freeLists = new long[Integer.SIZE];
+        Arrays.fill(freeLists, NULL);
+        this.head = NULL;
+        this.last = NULL;
+        this.size = 0;
+        this.tableCapacity = INITIAL_TABLE_CAPACITY;
+        this.table = allocateTable(tableCapacity);
+        this.lanes = new long[MAX_LEVEL];
+        Arrays.fill(lanes, NULL);
+        this.update = new long[MAX_LEVEL];
+        this.lanesValid = true;
+        this.descents = 0;
+        this.lock = new StampedLock();
+        this.positionHint = new long[] { -1, 0, NULL };
+    }
+
+    @Override
+    public boolean addStudent(String id, String name, String lastname, String email, EGender gender, String career) {
+        if (id == null || name == null || lastname == null || email == null || gender == null || career == null) {
+            throw new IllegalArgumentException("Student or required fields are null.");
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            if (findRecord(id) != NULL) {
+                throw new IllegalArgumentException("A student with the same code already exists.");
+            }
+
+            long record = newRecord(id, name, lastname, email, gender, career);
+            if (descents == 0) {
+                if (!lanesValid) {
+                    rebuildLanes();
+                }
+                long before = lastBefore(record);
+                link(record, before, before == NULL ? head : getLong(before, NEXT));
+                return true;
+            }
+            long current = head;
+            while (current != NULL && compareIds(record, current) >= 0) {
+                current = getLong(current, NEXT);
+            }
+            if (current == NULL) {
+                link(record, last, NULL);
+            } else {
+                link(record, getLong(current, PREVIOUS), current);
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean addStudentFirst(String id, String name, String lastname, String email, EGender gender,
+            String career) {
+        if (id == null || name == null || lastname == null || email == null || gender == null || career == null) {
+            throw new IllegalArgumentException("Student cannot be null.");
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            if (findRecord(id) != NULL) {
+                throw new IllegalArgumentException("The ID is already in use.");
+            }
+
+            link(newRecord(id, name, lastname, email, gender, career), NULL, head);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean addStudentLast(String id, String name, String lastname, String email, EGender gender,
+            String career) {
+        if (id == null || name == null || lastname == null || email == null || gender == null || career == null) {
+            throw new IllegalArgumentException("Student cannot be null.");
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            if (findRecord(id) != NULL) {
+                throw new IllegalArgumentException("The ID is already in use.");
+            }
+
+            link(newRecord(id, name, lastname, email, gender, career), last, NULL);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean addStudentBefore(String code, String id, String name, String lastname, String email,
+            EGender gender, String career) {
+        long stamp = lock.writeLock();
+        try {
+            long reference = findReference(code, id, name, lastname, email, gender, career);
+            link(newRecord(id, name, lastname, email, gender, career), getLong(reference, PREVIOUS), reference);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean addStudentAfter(String code, String id, String name, String lastname, String email,
+            EGender gender, String career) {
+        long stamp = lock.writeLock();
+        try {
+            long reference = findReference(code, id, name, lastname, email, gender, career);
+            link(newRecord(id, name, lastname, email, gender, career), reference, getLong(reference, NEXT));
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Student findStudentByCode(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
+        }
+
+        return StampedReads.locked(lock, () -> {
+            long record = findRecord(code);
+            return record != NULL ? materialize(record) : null;
+        });
+    }
+
+    @Override
+    public boolean updateStudent(String code, String name, String lastname, String email, EGender gender,
+            String career) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
+        }
+        if (name == null || lastname == null || email == null || gender == null || career == null) {
+            throw new IllegalArgumentException("Updated student fields cannot be null.");
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            long record = findRecord(code);
+            if (record == NULL) {
+                throw new IllegalStateException("Student with the given code not found.");
+            }
+            if (recordSize(code, name, lastname, email, career) + getLevel(record) * Long.BYTES
+                    <= getInt(record, CAPACITY)) {
+                writeFields(record, code, name, lastname, email, gender, career);
+            } else {
+                long before = getLong(record, PREVIOUS);
+                long after = getLong(record, NEXT);
+                unlink(record);
+                link(newRecord(code, name, lastname, email, gender, career), before, after);
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean deleteStudent(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            long record = findRecord(code);
+            if (record == NULL) {
+                throw new IllegalStateException("Student with the given code not found.");
+            }
+            unlink(record);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every student of the list is built on the heap at once; to go through
+     * a large roster, {@link #forEachStudent} builds one student at a time.
+     */
+    @Override
+    public List<Student> listAllStudents(boolean ascending) {
+        return StampedReads.locked(lock, () -> {
+            List<Student> students = new ArrayList<>(size);
+            long current = ascending ? head : last;
+            while (current != NULL) {
+                students.add(materialize(current));
+                current = getLong(current, ascending ? NEXT : PREVIOUS);
+            }
+            return students;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each student is built from its record when it is handed over, under the
+     * read lock, which is held until the last one, so the action must not
+     * change the store.
+     */
+    @Override
+    public void forEachStudent(boolean ascending, Consumer<? super Student> action) {
+        long stamp = lock.readLock();
+        try {
+            for (long current = ascending ? head : last; current != NULL;
+                    current = getLong(current, ascending ? NEXT : PREVIOUS)) {
+                action.accept(materialize(current));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return StampedReads.optimistic(lock, () -> size == 0);
+    }
+
+    @Override
+    public int getNumberOfStudents() {
+        return StampedReads.optimistic(lock, () -> size);
+    }
+
+    @Override
+    public Student getFirstStudent() {
+        return StampedReads.locked(lock, () -> head != NULL ? materialize(head) : null);
+    }
+
+    @Override
+    public Student getLastStudent() {
+        return StampedReads.locked(lock, () -> last != NULL ? materialize(last) : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The chain is walked from the head, the last record or the record last
+     * read by position, whichever is nearest, so reading the neighbour of the
+     * previous position takes constant time.
+     */
+    @Override
+    public Student getStudentByPosition(int position) {
+        return StampedReads.locked(lock, () -> {
+            if (position < 0 || position >= size) {
+                throw new IllegalArgumentException("Position invalid, it starts from 0.");
+            }
+            long current = head;
+            int index = 0;
+            if (size - 1 - position < position) {
+                current = last;
+                index = size - 1;
+            }
+            long[] hint = positionHint;
+            if (hint[0] == changes && Math.abs(position - hint[1]) < Math.abs(position - index)) {
+                current = hint[2];
+                index = (int) hint[1];
+            }
+            for (; index < position; index++) {
+                current = getLong(current, NEXT);
+            }
+            for (; index > position; index--) {
+                current = getLong(current, PREVIOUS);
+            }
+            positionHint = new long[] { changes, position, current };
+            return materialize(current);
+        });
+    }
+
+    @Override
+    public boolean studentExists(String code) {
+        return findStudentByCode(code) != null;
+    }
+
+    /**
+     * Gets the number of bytes reserved off the heap by the arena and the code
+     * index.
+     *
+     * @return the reserved bytes
+     */
+    public long getReservedBytes() {
+        return StampedReads.locked(lock,
+                () -> (long) segments.size() * (1L << segmentShift) + (long) tableCapacity * Long.BYTES);
+    }
+
+    /**
+     * Validates the arguments of a positional insertion and finds the record
+     * of the reference student.
+     *
+     * @param code     the reference student's code
+     * @param id       the student's code to add
+     * @param name     the student's name to add
+     * @param lastname the student's last name to add
+     * @param email    the student's email to add
+     * @param gender   the student's gender to add
+     * @param career   the student's career to add
+     * @return the record of the reference student
+     * @throws IllegalArgumentException if any argument is not valid
+     */
+    private long findReference(String code, String id, String name, String lastname, String email, EGender gender,
+            String career) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The reference student code cannot be null or empty.");
+        }
+        if (id == null || id.isEmpty() || name == null || lastname == null || email == null || gender == null
+                || career == null) {
+            throw new IllegalArgumentException("Student fields cannot be null.");
+        }
+        if (findRecord(id) != NULL) {
+            throw new IllegalArgumentException("The ID is already in use.");
+        }
+        long reference = findRecord(code);
+        if (reference == NULL) {
+            throw new IllegalArgumentException("Student with the given code not found.");
+        }
+        return reference;
+    }
+
+    /**
+     * Allocates a record, with room for a tower of random height, and writes a
+     * student into it.
+     *
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param gender   the student's gender
+     * @param career   the student's career
+     * @return the offset of the new record
+     */
+    private long newRecord(String id, String name, String lastname, String email, EGender gender, String career) {
+        int level = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            level++;
+        }
+        long record = allocate(recordSize(id, name, lastname, email, career) + level * Long.BYTES);
+        segment(record).put(offset(record) + LEVEL, (byte) level);
+        writeFields(record, id, name, lastname, email, gender, career);
+        return record;
+    }
+
+    /**
+     * Links a record between two neighbours and adds it to the code index and,
+     * while the list stays in code order, to the express lanes.
+     *
+     * @param record the record to link
+     * @param before the record that goes before it, or {@link #NULL}
+     * @param after  the record that goes after it, or {@link #NULL}
+     */
+    private void link(long record, long before, long after) {
+        changes++;
+        indexPut(record);
+        descents += descent(before, record) + descent(record, after) - descent(before, after);
+        putLong(record, PREVIOUS, before);
+        putLong(record, NEXT, after);
+        if (before != NULL) {
+            putLong(before, NEXT, record);
+        } else {
+            head = record;
+        }
+        if (after != NULL) {
+            putLong(after, PREVIOUS, record);
+        } else {
+            last = record;
+        }
+        size++;
+        if (descents > 0) {
+            lanesValid = false;
+        } else if (lanesValid) {
+            descend(record);
+            for (int level = 0; level < getLevel(record); level++) {
+                long previous = update[level];
+                setExpress(record, level, previous == NULL ? lanes[level] : getExpress(previous, level));
+                if (previous == NULL) {
+                    lanes[level] = record;
+                } else {
+                    setExpress(previous, level, record);
+                }
+            }
+        }
+    }
+
+    /**
+     * Unlinks a record, removes it from the code index and the express lanes
+     * and frees it.
+     *
+     * @param record the record to remove
+     */
+    private void unlink(long record) {
+        changes++;
+        indexRemove(record);
+        if (lanesValid) {
+            descend(record);
+            for (int level = 0; level < getLevel(record); level++) {
+                long previous = update[level];
+                if (previous == NULL) {
+                    lanes[level] = getExpress(record, level);
+                } else {
+                    setExpress(previous, level, getExpress(record, level));
+                }
+            }
+        }
+        long before = getLong(record, PREVIOUS);
+        long after = getLong(record, NEXT);
+        descents += descent(before, after) - descent(before, record) - descent(record, after);
+        if (before != NULL) {
+            putLong(before, NEXT, after);
+        } else {
+            head = after;
+        }
+        if (after != NULL) {
+            putLong(after, PREVIOUS, before);
+        } else {
+            last = before;
+        }
+        size--;
+        release(record);
+    }
+
+    /**
+     * Finds, on each express lane, the last record whose code is less than
+     * the code of a record, and leaves it in {@link #update}; the lanes must
+     * be valid.
+     *
+     * @param record the offset of the record
+     * @return the last towered record before it, or {@link #NULL}
+     */
+    private long descend(long record) {
+        long previous = NULL;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            long next = previous == NULL ? lanes[level] : getExpress(previous, level);
+            while (next != NULL && compareIds(next, record) < 0) {
+                previous = next;
+                next = getExpress(previous, level);
+            }
+            update[level] = previous;
+        }
+        return previous;
+    }
+
+    /**
+     * Finds the record after which a record goes in code order, through the
+     * express lanes; the list must be in code order and the lanes valid.
+     *
+     * @param record the offset of the record, not linked yet
+     * @return the last record whose code is less than its code, or
+     *         {@link #NULL} if it goes first
+     */
+    private long lastBefore(long record) {
+        long current = descend(record);
+        if (current == NULL) {
+            if (head == NULL || compareIds(head, record) > 0) {
+                return NULL;
+            }
+            current = head;
+        }
+        for (long next = getLong(current, NEXT); next != NULL && compareIds(next, record) < 0;
+                next = getLong(current, NEXT)) {
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Links the towers of all the records again, in list order, once the
+     * list is back in code order.
+     */
+    private void rebuildLanes() {
+        long[] tails = new long[MAX_LEVEL];
+        Arrays.fill(tails, NULL);
+        Arrays.fill(lanes, NULL);
+        for (long current = head; current != NULL; current = getLong(current, NEXT)) {
+            for (int level = 0; level < getLevel(current); level++) {
+                if (tails[level] == NULL) {
+                    lanes[level] = current;
+                } else {
+                    setExpress(tails[level], level, current);
+                }
+                tails[level] = current;
+            }
+        }
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            if (tails[level] != NULL) {
+                setExpress(tails[level], level, NULL);
+            }
+        }
+        lanesValid = true;
+    }
+
+    /**
+     * Tells whether two neighbouring records are out of code order.
+     *
+     * @param first  the first record, or {@link #NULL}
+     * @param second the record after it, or {@link #NULL}
+     * @return 1 if both exist and the first code is greater, 0 otherwise
+     */
+    private int descent(long first, long second) {
+        return first != NULL && second != NULL && compareIds(first, second) > 0 ? 1 : 0;
+    }
+
+    /**
+     * Gets the number of express lanes a record belongs to.
+     *
+     * @param record the offset of the record
+     * @return the height of its tower
+     */
+    private int getLevel(long record) {
+        return segment(record).get(offset(record) + LEVEL);
+    }
+
+    /**
+     * Reads the link of a record on an express lane, kept at the end of its
+     * capacity.
+     *
+     * @param record the offset of the record
+     * @param level  the lane, below the height of its tower
+     * @return the next record on the lane, or {@link #NULL}
+     */
+    private long getExpress(long record, int level) {
+        return getLong(record, getInt(record, CAPACITY) - (level + 1) * Long.BYTES);
+    }
+
+    /**
+     * Writes the link of a record on an express lane.
+     *
+     * @param record the offset of the record
+     * @param level  the lane, below the height of its tower
+     * @param next   the next record on the lane, or {@link #NULL}
+     */
+    private void setExpress(long record, int level, long next) {
+        putLong(record, getInt(record, CAPACITY) - (level + 1) * Long.BYTES, next);
+    }
+
+    /**
+     * Computes the number of bytes needed by a record.
+     *
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param career   the student's career
+     * @return the record size in bytes
+     */
+    private static int recordSize(String id, String name, String lastname, String email, String career) {
+        long chars = (long) id.length() + name.length() + lastname.length() + email.length() + career.length();
+        long bytes = FIELDS + FIELD_COUNT * Integer.BYTES + chars * Character.BYTES;
+        if (bytes > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Student fields are too long.");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Takes a record of at least the given size from its free list, or from the
+     * end of the arena.
+     *
+     * @param bytes the number of bytes needed
+     * @return the offset of the record
+     * @throws IllegalArgumentException if the record does not fit in a segment
+     */
+    private long allocate(int bytes) {
+        int shift = Math.max(MIN_RECORD_SHIFT, Integer.SIZE - Integer.numberOfLeadingZeros(bytes - 1));
+        if (shift > segmentShift) {
+            throw new IllegalArgumentException("Student fields are too long.");
+        }
+        long record = freeLists[shift];
+        if (record != NULL) {
+            freeLists[shift] = getLong(record, NEXT);
+        } else {
+            long capacity = 1L << shift;
+            long segmentEnd = ((top >>> segmentShift) + 1) << segmentShift;
+            if (top + capacity > segmentEnd) {
+                top = segmentEnd;
+            }
+            while ((top >>> segmentShift) >= segments.size()) {
+                segments.add(ByteBuffer.allocateDirect(1 << segmentShift).order(ByteOrder.nativeOrder()));
+            }
+            record = top;
+            top += capacity;
+        }
+        putInt(record, CAPACITY, 1 << shift);
+        return record;
+    }
+
+    /**
+     * Puts a record on the free list of its capacity.
+     *
+     * @param record the record to free
+     */
+    private void release(long record) {
+        int shift = Integer.numberOfTrailingZeros(getInt(record, CAPACITY));
+        putLong(record, NEXT, freeLists[shift]);
+        freeLists[shift] = record;
+    }
+
+    /**
+     * Writes the gender and the variable-length fields of a record.
+     *
+     * @param record   the offset of the record
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param gender   the student's gender
+     * @param career   the student's career
+     */
+    private void writeFields(long record, String id, String name, String lastname, String email, EGender gender,
+            String career) {
+        ByteBuffer segment = segment(record);
+        int position = offset(record);
+        segment.put(position + GENDER, (byte) gender.ordinal());
+        position += FIELDS;
+        position = putString(segment, position, id);
+        position = putString(segment, position, name);
+        position = putString(segment, position, lastname);
+        position = putString(segment, position, email);
+        putString(segment, position, career);
+    }
+
+    /**
+     * Writes a string as its char count followed by its chars.
+     *
+     * @param segment  the segment to write to
+     * @param position the position to write at
+     * @param value    the string to write
+     * @return the position right after the written string
+     */
+    private static int putString(ByteBuffer segment, int position, String value) {
+        int length = value.length();
+        segment.putInt(position, length);
+        position += Integer.BYTES;
+        for (int i = 0; i < length; i++) {
+            segment.putChar(position, value.charAt(i));
+            position += Character.BYTES;
+        }
+        return position;
+    }
+
+    /**
+     * Creates a student from a record.
+     *
+     * @param record the offset of the record
+     * @return a new student with the data of the record
+     */
+    private Student materialize(long record) {
+        ByteBuffer segment = segment(record);
+        int position = offset(record);
+        EGender gender = GENDERS[segment.get(position + GENDER)];
+        position += FIELDS;
+        String[] fields = new String[FIELD_COUNT];
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            int length = segment.getInt(position);
+            position += Integer.BYTES;
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = segment.getChar(position);
+                position += Character.BYTES;
+            }
+            fields[field] = new String(chars);
+        }
+        return new Student(fields[0], fields[1], fields[2], fields[3], gender, fields[4]);
+    }
+
+    /**
+     * Compares the code of a record with a string, as {@link String#compareTo}
+     * would.
+     *
+     * @param record the offset of the record
+     * @param code   the code to compare with
+     * @return a negative number, zero or a positive number as the record code
+     *         is less than, equal to or greater than the given code
+     */
+    private int compareId(long record, String code) {
+        ByteBuffer segment = segment(record);
+        int position = offset(record) + FIELDS;
+        int length = segment.getInt(position);
+        int common = Math.min(length, code.length());
+        for (int i = 0; i < common; i++) {
+            char stored = segment.getChar(position + Integer.BYTES + i * Character.BYTES);
+            char given = code.charAt(i);
+            if (stored != given) {
+                return stored - given;
+            }
+        }
+        return length - code.length();
+    }
+
+    /**
+     * Compares the codes of two records, as {@link String#compareTo} would.
+     *
+     * @param first  the offset of the first record
+     * @param second the offset of the second record
+     * @return a negative number, zero or a positive number as the first code is
+     *         less than, equal to or greater than the second
+     */
+    private int compareIds(long first, long second) {
+        ByteBuffer firstSegment = segment(first);
+        ByteBuffer secondSegment = segment(second);
+        int firstPosition = offset(first) + FIELDS;
+        int secondPosition = offset(second) + FIELDS;
+        int firstLength = firstSegment.getInt(firstPosition);
+        int secondLength = secondSegment.getInt(secondPosition);
+        int common = Math.min(firstLength, secondLength);
+        for (int i = 0; i < common; i++) {
+            int skip = Integer.BYTES + i * Character.BYTES;
+            char a = firstSegment.getChar(firstPosition + skip);
+            char b = secondSegment.getChar(secondPosition + skip);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return firstLength - secondLength;
+    }
+
+    /**
+     * Computes the hash code of the code of a record, equal to the
+     * {@link String#hashCode} of the code.
+     *
+     * @param record the offset of the record
+     * @return the hash code of the record code
+     */
+    private int idHash(long record) {
+        ByteBuffer segment = segment(record);
+        int position = offset(record) + FIELDS;
+        int length = segment.getInt(position);
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + segment.getChar(position + Integer.BYTES + i * Character.BYTES);
+        }
+        return hash;
+    }
+
+    /**
+     * Finds the record of a student in the code index.
+     *
+     * @param code the student's code
+     * @return the offset of the record, or {@link #NULL} if not found
+     */
+    private long findRecord(String code) {
+        int mask = tableCapacity - 1;
+        for (int bucket = NodeIndex.spread(code.hashCode()) & mask;; bucket = (bucket + 1) & mask) {
+            long entry = table.getLong(bucket * Long.BYTES);
+            if (entry == 0) {
+                return NULL;
+            }
+            if (compareId(entry - 1, code) == 0) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Adds a record to the code index, growing the index when it gets half
+     * full. The record must not be linked yet.
+     *
+     * @param record the offset of the record
+     */
+    private void indexPut(long record) {
+        if ((size + 1) * 2 > tableCapacity) {
+            tableCapacity *= 2;
+            table = allocateTable(tableCapacity);
+            for (long current = head; current != NULL; current = getLong(current, NEXT)) {
+                insertEntry(current);
+            }
+        }
+        insertEntry(record);
+    }
+
+    /**
+     * Stores a record in the first free bucket of its probe sequence.
+     *
+     * @param record the offset of the record
+     */
+    private void insertEntry(long record) {
+        int mask = tableCapacity - 1;
+        int bucket = NodeIndex.spread(idHash(record)) & mask;
+        while (table.getLong(bucket * Long.BYTES) != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        table.putLong(bucket * Long.BYTES, record + 1);
+    }
+
+    /**
+     * Removes a record from the code index, shifting back the entries that
+     * probed past it so that lookups never stop early.
+     *
+     * @param record the offset of the record
+     */
+    private void indexRemove(long record) {
+        int mask = tableCapacity - 1;
+        int hole = NodeIndex.spread(idHash(record)) & mask;
+        while (table.getLong(hole * Long.BYTES) != record + 1) {
+            hole = (hole + 1) & mask;
+        }
+        for (int probe = (hole + 1) & mask;; probe = (probe + 1) & mask) {
+            long entry = table.getLong(probe * Long.BYTES);
+            if (entry == 0) {
+                break;
+            }
+            int home = NodeIndex.spread(idHash(entry - 1)) & mask;
+            if (((probe - home) & mask) >= ((probe - hole) & mask)) {
+                table.putLong(hole * Long.BYTES, entry);
+                hole = probe;
+            }
+        }
+        table.putLong(hole * Long.BYTES, 0);
+    }
+
+    /**
+     * Allocates an empty code index off the heap.
+     *
+     * @param capacity the number of buckets
+     * @return the zeroed buffer of the index
+     */
+    private static ByteBuffer allocateTable(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Gets the segment that holds an offset.
+     *
+     * @param address an offset inside the arena
+     * @return the segment of the offset
+     */
+    private ByteBuffer segment(long address) {
+        return segments.get((int) (address >>> segmentShift));
+    }
+
+    /**
+     * Gets the position of an offset inside its segment.
+     *
+     * @param address an offset inside the arena
+     * @return the position inside the segment
+     */
+    private int offset(long address) {
+        return (int) (address & ((1L << segmentShift) - 1));
+    }
+
+    /**
+     * Reads a long field of a record.
+     *
+     * @param record the offset of the record
+     * @param field  the position of the field inside the record
+     * @return the value of the field
+     */
+    private long getLong(long record, int field) {
+        return segment(record).getLong(offset(record) + field);
+    }
+
+    /**
+     * Writes a long field of a record.
+     *
+     * @param record the offset of the record
+     * @param field  the position of the field inside the record
+     * @param value  the value to write
+     */
+    private void putLong(long record, int field, long value) {
+        segment(record).putLong(offset(record) + field, value);
+    }
+
+    /**
+     * Reads an int field of a record.
+     *
+     * @param record the offset of the record
+     * @param field  the position of the field inside the record
+     * @return the value of the field
+     */
+    private int getInt(long record, int field) {
+        return segment(record).getInt(offset(record) + field);
+    }
+
+    /**
+     * Writes an int field of a record.
+     *
+     * @param record the offset of the record
+     * @param field  the position of the field inside the record
+     * @param value  the value to write
+     */
+    private void putInt(long record, int field, int value) {
+        segment(record).putInt(offset(record) + field, value);
+    }
+}
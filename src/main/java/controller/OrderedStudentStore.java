@@ -0,0 +1,88 @@
+package controller;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Operations of a store of students kept in a list whose order callers
+ * control, as offered by {@link StudentHandler} and by the off-heap
+ * {@link OffHeapStudentStore}. Screens and other callers that place students
+ * or reach them by position are written against this interface.
+ */
+public interface OrderedStudentStore extends StudentStore {
+
+    /**
+     * Adds a student to the beginning of the list.
+     *
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param gender   the student's gender
+     * @param career   the student's career
+     * @return true after successfully adding the student at the beginning
+     * @throws IllegalArgumentException if required fields are null or the ID is
+     *                                  already in use
+     */
+    boolean addStudentFirst(String id, String name, String lastname, String email, EGender gender, String career);
+
+    /**
+     * Adds a student to the end of the list.
+     *
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param gender   the student's gender
+     * @param career   the student's career
+     * @return true after successfully adding the student at the end
+     * @throws IllegalArgumentException if required fields are null or the ID is
+     *                                  already in use
+     */
+    boolean addStudentLast(String id, String name, String lastname, String email, EGender gender, String career);
+
+    /**
+     * Adds a student before another student identified by a code.
+     *
+     * @param code     the reference student's code
+     * @param id       the student's code to add
+     * @param name     the student's name to add
+     * @param lastname the student's last name to add
+     * @param email    the student's email to add
+     * @param gender   the student's gender to add
+     * @param career   the student's career to add
+     * @return true if the student was added successfully
+     * @throws IllegalArgumentException if required fields are null, the ID is
+     *                                  already in use or the reference student
+     *                                  is not found
+     */
+    boolean addStudentBefore(String code, String id, String name, String lastname, String email, EGender gender,
+            String career);
+
+    /**
+     * Adds a student after another student identified by a code.
+     *
+     * @param code     the reference student's code
+     * @param id       the student's code to add
+     * @param name     the student's name to add
+     * @param lastname the student's last name to add
+     * @param email    the student's email to add
+     * @param gender   the student's gender to add
+     * @param career   the student's career to add
+     * @return true if the student was added successfully
+     * @throws IllegalArgumentException if required fields are null, the ID is
+     *                                  already in use or the reference student
+     *                                  is not found
+     */
+    boolean addStudentAfter(String code, String id, String name, String lastname, String email, EGender gender,
+            String career);
+
+    /**
+     * Retrieves a student by their position in the list.
+     *
+     * @param position the position of the student (starting from 0)
+     * @return the student at the specified position
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    Student getStudentByPosition(int position);
+}
@@ -0,0 +1,325 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.StampedLock;
+
+import model.EGender;
+import model.Node;
+import model.Student;
+
+/**
+ * Student store that spreads the students over several independent sorted
+ * lists, called stripes, so that threads working on different students do not
+ * contend on one list.
+ * <p>
+ * The stripe of a student is chosen by hashing its code, and each stripe is
+ * guarded by its own {@link StampedLock} in the same way {@link StudentHandler}
+ * guards its list. Operations on one student touch only its stripe, while
+ * listing the students merges the sorted stripes to keep the global code
+ * order. Students are always kept in code order, so the store offers only the
+ * operations of {@link StudentStore}, without those of
+ * {@link OrderedStudentStore} that place students or reach them by position.
+ * It is the partitioned mode of the handler, created through
+ * {@link StudentHandler#partitioned}.
+ */
+public class PartitionedStudentHandler implements StudentStore {
+
+    /**
+     * One of the lists the students are spread over, with its lock.
+     */
+    private static final class Stripe {
+
+        /**
+         * Students of the stripe, sorted by code.
+         */
+        private final DoubleLinkedList<Student> list = new DoubleLinkedList<>(true);
+
+        /**
+         * Lock that guards the list of the stripe.
+         */
+        private final StampedLock lock = new StampedLock();
+    }
+
+    /**
+     * Stripes the students are spread over.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Creates an empty store with one stripe per available processor.
+     */
+    PartitionedStudentHandler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an empty store with a number of stripes.
+     *
+     * @param stripeCount the number of stripes
+     * @throws IllegalArgumentException if the number of stripes is less than 1
+     */
+    PartitionedStudentHandler(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("The number of stripes must be at least 1.");
+        }
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Retrieves the number of stripes of the store.
+     *
+     * @return the number of stripes
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Adds a student to the stripe of its code, in code order.
+     *
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param gender   the student's gender
+     * @param career   the student's career
+     * @return true if the student was added successfully
+     * @throws IllegalArgumentException if required fields are null, or if a
+     *                                  student with the same ID already exists
+     */
+    @Override
+    public boolean addStudent(String id, String name, String lastname, String email, EGender gender, String career) {
+        if (id == null || name == null || lastname == null || email == null || gender == null || career == null) {
+            throw new IllegalArgumentException("Student or required fields are null.");
+        }
+
+        Stripe stripe = stripeOf(id);
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (stripe.list.findNode(id) != null) {
+                throw new IllegalArgumentException("A student with the same code already exists.");
+            }
+            stripe.list.addNodeSorted(new Student(id, name, lastname, email, gender, career));
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Finds a student by their code.
+     *
+     * @param code the student's code
+     * @return the student with the given code, or null if not found
+     * @throws IllegalArgumentException if the code is null or empty
+     */
+    @Override
+    public Student findStudentByCode(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
+        }
+
+        Stripe stripe = stripeOf(code);
+        return StampedReads.locked(stripe.lock, () -> {
+            Node<Student> foundNode = stripe.list.findNode(code);
+            return (foundNode != null) ? foundNode.getInfo() : null;
+        });
+    }
+
+    /**
+     * Updates a student's information.
+     *
+     * @param code     the code of the student to update
+     * @param name     the updated student's name
+     * @param lastname the updated student's last name
+     * @param email    the updated student's email
+     * @param gender   the updated student's gender
+     * @param career   the updated student's career
+     * @return true if the student was successfully updated
+     * @throws IllegalArgumentException if the code is null, empty, or any of the
+     *                                  updated fields are null
+     * @throws IllegalStateException    if a student with the given code is not
+     *                                  found
+     */
+    @Override
+    public boolean updateStudent(String code, String name, String lastname, String email, EGender gender,
+            String career) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
+        }
+        if (name == null || lastname == null || email == null || gender == null || career == null) {
+            throw new IllegalArgumentException("Updated student fields cannot be null.");
+        }
+
+        Stripe stripe = stripeOf(code);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Node<Student> foundNode = stripe.list.findNode(code);
+            if (foundNode == null) {
+                throw new IllegalStateException("Student with the given code not found.");
+            }
+            stripe.list.setNodeInfo(foundNode, new Student(code, name, lastname, email, gender, career));
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Deletes a student by their code.
+     *
+     * @param code the student's code
+     * @return true if the student was successfully deleted
+     * @throws IllegalArgumentException if the code is null or empty
+     * @throws IllegalStateException    if a student with the given code is not
+     *                                  found
+     */
+    @Override
+    public boolean deleteStudent(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
+        }
+
+        Stripe stripe = stripeOf(code);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Node<Student> foundNode = stripe.list.findNode(code);
+            if (foundNode == null) {
+                throw new IllegalStateException("Student with the given code not found.");
+            }
+            stripe.list.deleteNode(foundNode);
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Lists all students in either ascending or descending code order, merging
+     * the stripes. Each stripe is read at once, but the stripes are read one
+     * after another, so changes made meanwhile to other stripes may or may not
+     * be seen.
+     *
+     * @param ascending whether to list in ascending order
+     * @return a list of all students
+     */
+    @Override
+    public List<Student> listAllStudents(boolean ascending) {
+        List<List<Student>> runs = new ArrayList<>(stripes.length);
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            List<Student> run = StampedReads.locked(stripe.lock, () -> stripe.list.getLinkedList(ascending));
+            runs.add(run);
+            total += run.size();
+        }
+
+        Comparator<Student> order = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> order.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1])));
+        for (int i = 0; i < runs.size(); i++) {
+            if (!runs.get(i).isEmpty()) {
+                heads.add(new int[] { i, 0 });
+            }
+        }
+        List<Student> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<Student> run = runs.get(head[0]);
+            merged.add(run.get(head[1]));
+            if (++head[1] < run.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Checks if the store is empty.
+     *
+     * @return true if every stripe is empty, false otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        for (Stripe stripe : stripes) {
+            if (!StampedReads.optimistic(stripe.lock, stripe.list::isEmpty)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the total number of students.
+     *
+     * @return the number of students over all stripes
+     */
+    @Override
+    public int getNumberOfStudents() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += StampedReads.optimistic(stripe.lock, stripe.list::getSize);
+        }
+        return total;
+    }
+
+    /**
+     * Retrieves the student with the lowest code.
+     *
+     * @return the first student, or null if the store is empty
+     */
+    @Override
+    public Student getFirstStudent() {
+        Student first = null;
+        for (Stripe stripe : stripes) {
+            Student candidate = StampedReads.locked(stripe.lock, stripe.list::getFirst);
+            if (candidate != null && (first == null || candidate.compareTo(first) < 0)) {
+                first = candidate;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Retrieves the student with the highest code.
+     *
+     * @return the last student, or null if the store is empty
+     */
+    @Override
+    public Student getLastStudent() {
+        Student last = null;
+        for (Stripe stripe : stripes) {
+            Student candidate = StampedReads.locked(stripe.lock, stripe.list::getLast);
+            if (candidate != null && (last == null || candidate.compareTo(last) > 0)) {
+                last = candidate;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Checks if a student exists based on their code.
+     *
+     * @param code the student's code
+     * @return true if the student exists, false otherwise
+     */
+    @Override
+    public boolean studentExists(String code) {
+        return findStudentByCode(code) != null;
+    }
+
+    /**
+     * Selects the stripe of a student code.
+     *
+     * @param code the student's code
+     * @return the stripe that holds, or would hold, the student
+     */
+    private Stripe stripeOf(String code) {
+        return stripes[Math.floorMod(NodeIndex.spread(code.hashCode()), stripes.length)];
+    }
+}
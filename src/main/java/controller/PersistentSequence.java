@@ -0,0 +1,566 @@
+package controller;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Immutable sequence of elements that shares its structure with the
+ * sequences it was derived from.
+ * <p>
+ * The elements are held in a balanced (AVL) tree ordered by position, where
+ * every tree node knows the size of its subtree. Inserting, replacing or
+ * removing an element returns a new sequence that copies only the O(log n)
+ * tree nodes on the path to the changed position and shares every other tree
+ * node with the original one, which stays unchanged. A sequence can thus be
+ * handed to readers as an O(1) snapshot while writers keep deriving new ones.
+ *
+ * @param <T> the type of elements in this sequence
+ */
+final class PersistentSequence<T> {
+
+    /**
+     * A node of the tree, never changed once built.
+     *
+     * @param <T> the type of the element of the node
+     */
+    private static final class Tree<T> {
+
+        /**
+         * Element of the node.
+         */
+        private final T value;
+
+        /**
+         * Subtree of the elements before this one, or null.
+         */
+        private final Tree<T> left;
+
+        /**
+         * Subtree of the elements after this one, or null.
+         */
+        private final Tree<T> right;
+
+        /**
+         * Number of elements in the subtree rooted at this node.
+         */
+        private final int size;
+
+        /**
+         * Height of the subtree rooted at this node.
+         */
+        private final int height;
+
+        /**
+         * Creates a node over two subtrees.
+         *
+         * @param value the element of the node
+         * @param left  the subtree before the element, or null
+         * @param right the subtree after the element, or null
+         */
+        Tree(T value, Tree<T> left, Tree<T> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    /**
+     * The empty sequence.
+     */
+    private static final PersistentSequence<Object> EMPTY = new PersistentSequence<>(null);
+
+    /**
+     * Root of the tree, or null when the sequence is empty.
+     */
+    private final Tree<T> root;
+
+    /**
+     * Creates a sequence over a tree.
+     *
+     * @param root the root of the tree, or null
+     */
+    private PersistentSequence(Tree<T> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the empty sequence.
+     *
+     * @param <T> the type of elements
+     * @return the empty sequence
+     */
+    @SuppressWarnings("unchecked")
+    static <T> PersistentSequence<T> empty() {
+        return (PersistentSequence<T>) EMPTY;
+    }
+
+    /**
+     * Returns a sequence holding the elements of a list, in its order. The
+     * tree is built directly in balance, in linear time.
+     *
+     * @param <T>    the type of elements
+     * @param values the elements of the sequence
+     * @return the sequence
+     */
+    static <T> PersistentSequence<T> of(List<T> values) {
+        return new PersistentSequence<>(build(values, 0, values.size()));
+    }
+
+    /**
+     * Retrieves the number of elements.
+     *
+     * @return the number of elements in the sequence
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Retrieves the element at a position.
+     *
+     * @param index the position, starting from 0
+     * @return the element at the position
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    T get(int index) {
+        checkIndex(index, size());
+        return get(root, index);
+    }
+
+    /**
+     * Returns a sequence with an element inserted at a position.
+     *
+     * @param index the position of the new element, from 0 to the size
+     * @param value the element to insert
+     * @return the new sequence
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    PersistentSequence<T> insert(int index, T value) {
+        checkIndex(index, size() + 1);
+        return new PersistentSequence<>(insert(root, index, value));
+    }
+
+    /**
+     * Returns a sequence with the element at a position replaced.
+     *
+     * @param index the position of the element to replace
+     * @param value the new element
+     * @return the new sequence
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    PersistentSequence<T> set(int index, T value) {
+        checkIndex(index, size());
+        return new PersistentSequence<>(set(root, index, value));
+    }
+
+    /**
+     * Returns a sequence with the element at a position removed.
+     *
+     * @param index the position of the element to remove
+     * @return the new sequence
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    PersistentSequence<T> remove(int index) {
+        checkIndex(index, size());
+        return new PersistentSequence<>(remove(root, index));
+    }
+
+    /**
+     * Returns a read-only list view of the sequence, in order or reversed. The
+     * view is created in O(1) and never changes, as the sequence never does.
+     *
+     * @param ascending true for the elements in order, false for reversed
+     * @return the list view
+     */
+    List<T> asList(boolean ascending) {
+        return new View<>(root, ascending);
+    }
+
+    /**
+     * Returns an iterator over the elements from a position on, in order or
+     * reversed. It seeks to the position in O(log n) time and then takes
+     * amortized O(1) time per element.
+     *
+     * @param from      the position of the first element, counted in the
+     *                  direction of the walk, from 0 to the size
+     * @param ascending true for the elements in order, false for reversed
+     * @return the iterator
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    Iterator<T> iterator(int from, boolean ascending) {
+        checkIndex(from, size() + 1);
+        return new View<>(root, ascending).iterator(from);
+    }
+
+    /**
+     * Read-only list over a tree.
+     *
+     * @param <T> the type of elements in the list
+     */
+    private static final class View<T> extends AbstractList<T> implements RandomAccess {
+
+        /**
+         * Root of the tree, or null when empty.
+         */
+        private final Tree<T> root;
+
+        /**
+         * Whether the list goes in tree order or reversed.
+         */
+        private final boolean ascending;
+
+        /**
+         * Creates a view over a tree.
+         *
+         * @param root      the root of the tree, or null
+         * @param ascending whether to list the elements in tree order
+         */
+        View(Tree<T> root, boolean ascending) {
+            this.root = root;
+            this.ascending = ascending;
+        }
+
+        @Override
+        public T get(int index) {
+            int size = size();
+            checkIndex(index, size);
+            return PersistentSequence.get(root, ascending ? index : size - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return PersistentSequence.size(root);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return iterator(0);
+        }
+
+        /**
+         * Returns an iterator over the elements of the view from a position
+         * on.
+         *
+         * @param index the position of the first element, up to the size
+         * @return the iterator
+         */
+        Iterator<T> iterator(int index) {
+            return new Iterator<>() {
+                private final Deque<Tree<T>> path = seek(index);
+
+                @Override
+                public boolean hasNext() {
+                    return !path.isEmpty();
+                }
+
+                @Override
+                public T next() {
+                    if (path.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    Tree<T> tree = path.pop();
+                    descend(ascending ? tree.right : tree.left, path);
+                    return tree.value;
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return new Slice(0, size());
+        }
+
+        /**
+         * Pushes the trees on the way to a position of the view whose elements
+         * come after it, so that the top of the stack is the element at the
+         * position and the rest of the stack is what {@link #descend} would
+         * have left while walking up to it.
+         *
+         * @param index the position in the view
+         * @return the stack of trees still to visit
+         */
+        private Deque<Tree<T>> seek(int index) {
+            Deque<Tree<T>> path = new ArrayDeque<>();
+            Tree<T> tree = root;
+            while (tree != null) {
+                int before = PersistentSequence.size(ascending ? tree.left : tree.right);
+                if (index < before) {
+                    path.push(tree);
+                    tree = ascending ? tree.left : tree.right;
+                } else if (index > before) {
+                    index -= before + 1;
+                    tree = ascending ? tree.right : tree.left;
+                } else {
+                    path.push(tree);
+                    break;
+                }
+            }
+            return path;
+        }
+
+        /**
+         * Spliterator over a range of positions of the view, split in halves
+         * by position and walked in order from the first one.
+         */
+        private final class Slice implements Spliterator<T> {
+
+            /**
+             * Position of the next element.
+             */
+            private int from;
+
+            /**
+             * Position after the last element.
+             */
+            private final int to;
+
+            /**
+             * Stack of trees still to visit, or null until the first element
+             * is read.
+             */
+            private Deque<Tree<T>> path;
+
+            /**
+             * Creates a spliterator over a range of positions.
+             *
+             * @param from the first position
+             * @param to   the position after the last one
+             */
+            Slice(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (from >= to) {
+                    return false;
+                }
+                if (path == null) {
+                    path = seek(from);
+                }
+                Tree<T> tree = path.pop();
+                descend(ascending ? tree.right : tree.left, path);
+                from++;
+                action.accept(tree.value);
+                return true;
+            }
+
+            @Override
+            public Spliterator<T> trySplit() {
+                if (path != null || to - from < 2) {
+                    return null;
+                }
+                int middle = (from + to) >>> 1;
+                Slice prefix = new Slice(from, middle);
+                from = middle;
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return to - from;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+            }
+        }
+
+        /**
+         * Pushes a tree and its chain of first subtrees in the direction of the
+         * view, so that the top of the stack is the next element.
+         *
+         * @param tree the tree to descend, or null
+         * @param path the stack of trees still to visit
+         * @return the stack
+         */
+        private Deque<Tree<T>> descend(Tree<T> tree, Deque<Tree<T>> path) {
+            while (tree != null) {
+                path.push(tree);
+                tree = ascending ? tree.left : tree.right;
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Retrieves the element at a position of a tree.
+     *
+     * @param <T>   the type of elements
+     * @param tree  the tree
+     * @param index the position of the element in the tree
+     * @return the element at the position
+     */
+    private static <T> T get(Tree<T> tree, int index) {
+        for (;;) {
+            int leftSize = size(tree.left);
+            if (index < leftSize) {
+                tree = tree.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                tree = tree.right;
+            } else {
+                return tree.value;
+            }
+        }
+    }
+
+    /**
+     * Builds a balanced tree over a range of a list.
+     *
+     * @param <T>    the type of elements
+     * @param values the list
+     * @param from   the first position of the range
+     * @param to     the position after the last one of the range
+     * @return the tree, or null if the range is empty
+     */
+    private static <T> Tree<T> build(List<T> values, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Tree<>(values.get(middle), build(values, from, middle), build(values, middle + 1, to));
+    }
+
+    /**
+     * Inserts an element into a tree.
+     *
+     * @param <T>   the type of elements
+     * @param tree  the tree, or null
+     * @param index the position of the new element in the tree
+     * @param value the element to insert
+     * @return the new tree
+     */
+    private static <T> Tree<T> insert(Tree<T> tree, int index, T value) {
+        if (tree == null) {
+            return new Tree<>(value, null, null);
+        }
+        int leftSize = size(tree.left);
+        if (index <= leftSize) {
+            return balance(tree.value, insert(tree.left, index, value), tree.right);
+        }
+        return balance(tree.value, tree.left, insert(tree.right, index - leftSize - 1, value));
+    }
+
+    /**
+     * Replaces an element of a tree.
+     *
+     * @param <T>   the type of elements
+     * @param tree  the tree
+     * @param index the position of the element in the tree
+     * @param value the new element
+     * @return the new tree
+     */
+    private static <T> Tree<T> set(Tree<T> tree, int index, T value) {
+        int leftSize = size(tree.left);
+        if (index < leftSize) {
+            return new Tree<>(tree.value, set(tree.left, index, value), tree.right);
+        }
+        if (index > leftSize) {
+            return new Tree<>(tree.value, tree.left, set(tree.right, index - leftSize - 1, value));
+        }
+        return new Tree<>(value, tree.left, tree.right);
+    }
+
+    /**
+     * Removes an element from a tree.
+     *
+     * @param <T>   the type of elements
+     * @param tree  the tree
+     * @param index the position of the element in the tree
+     * @return the new tree, or null if it became empty
+     */
+    private static <T> Tree<T> remove(Tree<T> tree, int index) {
+        int leftSize = size(tree.left);
+        if (index < leftSize) {
+            return balance(tree.value, remove(tree.left, index), tree.right);
+        }
+        if (index > leftSize) {
+            return balance(tree.value, tree.left, remove(tree.right, index - leftSize - 1));
+        }
+        if (tree.left == null) {
+            return tree.right;
+        }
+        if (tree.right == null) {
+            return tree.left;
+        }
+        Tree<T> first = tree.right;
+        while (first.left != null) {
+            first = first.left;
+        }
+        return balance(first.value, tree.left, remove(tree.right, 0));
+    }
+
+    /**
+     * Builds a node over two subtrees whose heights differ by at most two,
+     * rotating to restore the AVL balance.
+     *
+     * @param <T>   the type of elements
+     * @param value the element of the node
+     * @param left  the subtree before the element, or null
+     * @param right the subtree after the element, or null
+     * @return the balanced tree
+     */
+    private static <T> Tree<T> balance(T value, Tree<T> left, Tree<T> right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Tree<>(left.value, left.left, new Tree<>(value, left.right, right));
+            }
+            return new Tree<>(left.right.value, new Tree<>(left.value, left.left, left.right.left),
+                    new Tree<>(value, left.right.right, right));
+        }
+        if (difference < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Tree<>(right.value, new Tree<>(value, left, right.left), right.right);
+            }
+            return new Tree<>(right.left.value, new Tree<>(value, left, right.left.left),
+                    new Tree<>(right.value, right.left.right, right.right));
+        }
+        return new Tree<>(value, left, right);
+    }
+
+    /**
+     * Retrieves the number of elements of a tree.
+     *
+     * @param tree the tree, or null
+     * @return the number of elements
+     */
+    private static int size(Tree<?> tree) {
+        return tree == null ? 0 : tree.size;
+    }
+
+    /**
+     * Retrieves the height of a tree.
+     *
+     * @param tree the tree, or null
+     * @return the height, 0 for an empty tree
+     */
+    private static int height(Tree<?> tree) {
+        return tree == null ? 0 : tree.height;
+    }
+
+    /**
+     * Checks that a position is within a range.
+     *
+     * @param index the position
+     * @param limit the exclusive upper bound
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    private static void checkIndex(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Position " + index + " is out of range.");
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import model.Entity;
+import model.Node;
+
+/**
+ * Prefix index over one or more text fields of the elements of a list, for
+ * autocomplete searches.
+ * <p>
+ * The keys are kept in a radix trie: each edge carries a whole run of
+ * characters, so every branch without entries of its own splits into at least
+ * two children. Finding the branch of a prefix therefore takes time
+ * proportional to the prefix, and collecting the first k matches below it
+ * visits O(k) branches. Keys are compared without regard to case. As with
+ * {@link SecondaryIndex}, a node must be removed before its information is
+ * replaced and added back after.
+ *
+ * @param <T> the type of elements held by the nodes
+ */
+final class PrefixIndex<T extends Entity> {
+
+    /**
+     * A branch of the trie.
+     *
+     * @param <T> the type of elements held by the nodes
+     */
+    private static final class Branch<T extends Entity> {
+
+        /**
+         * Characters on the edge from the parent to this branch.
+         */
+        private String label;
+
+        /**
+         * Child branches by the first character of their label.
+         */
+        private final TreeMap<Character, Branch<T>> children = new TreeMap<>();
+
+        /**
+         * Nodes whose key ends at this branch, or null if there are none.
+         */
+        private Set<Node<T>> entries;
+
+        /**
+         * Creates a branch without children or entries.
+         *
+         * @param label the characters on the edge from the parent
+         */
+        Branch(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Functions that read the indexed fields of an element.
+     */
+    private final List<Function<T, String>> keys;
+
+    /**
+     * Root of the trie, with an empty label.
+     */
+    private final Branch<T> root;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param keys the functions that read the indexed fields of an element
+     */
+    PrefixIndex(List<Function<T, String>> keys) {
+        this.keys = keys;
+        this.root = new Branch<>("");
+    }
+
+    /**
+     * Adds a node under every indexed field of its element.
+     *
+     * @param node the node to add
+     */
+    void add(Node<T> node) {
+        for (Function<T, String> key : keys) {
+            insert(normalize(key.apply(node.getInfo())), node);
+        }
+    }
+
+    /**
+     * Removes a node from under every indexed field of its element.
+     *
+     * @param node the node to remove
+     */
+    void remove(Node<T> node) {
+        for (Function<T, String> key : keys) {
+            delete(normalize(key.apply(node.getInfo())), node);
+        }
+    }
+
+    /**
+     * Finds the first elements, in key order, with a field that starts with a
+     * prefix. An element matched by several fields is returned once.
+     *
+     * @param prefix the prefix to search for
+     * @param limit  the maximum number of elements to return
+     * @return the matching elements
+     */
+    List<T> find(String prefix, int limit) {
+        String key = normalize(prefix);
+        Branch<T> branch = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Branch<T> child = branch.children.get(key.charAt(matched));
+            if (child == null) {
+                return new ArrayList<>();
+            }
+            int length = Math.min(child.label.length(), key.length() - matched);
+            if (!key.regionMatches(matched, child.label, 0, length)) {
+                return new ArrayList<>();
+            }
+            matched += length;
+            branch = child;
+        }
+
+        List<T> matches = new ArrayList<>(Math.min(limit, 16));
+        collect(branch, limit, matches, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return matches;
+    }
+
+    /**
+     * Adds the elements of a branch and its descendants in key order, until
+     * the limit is reached.
+     *
+     * @param branch  the branch to collect
+     * @param limit   the maximum number of elements to collect
+     * @param matches the elements collected so far
+     * @param seen    the nodes collected so far
+     */
+    private void collect(Branch<T> branch, int limit, List<T> matches, Set<Node<T>> seen) {
+        if (branch.entries != null) {
+            for (Node<T> node : branch.entries) {
+                if (matches.size() == limit) {
+                    return;
+                }
+                if (seen.add(node)) {
+                    matches.add(node.getInfo());
+                }
+            }
+        }
+        for (Branch<T> child : branch.children.values()) {
+            if (matches.size() == limit) {
+                return;
+            }
+            collect(child, limit, matches, seen);
+        }
+    }
+
+    /**
+     * Adds a node under a key, splitting an edge if the key ends or diverges
+     * in the middle of it.
+     *
+     * @param key  the normalized key
+     * @param node the node to add
+     */
+    private void insert(String key, Node<T> node) {
+        Branch<T> branch = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Branch<T> child = branch.children.get(key.charAt(matched));
+            if (child == null) {
+                child = new Branch<>(key.substring(matched));
+                branch.children.put(child.label.charAt(0), child);
+                branch = child;
+                break;
+            }
+            int common = commonLength(child.label, key, matched);
+            if (common < child.label.length()) {
+                Branch<T> middle = new Branch<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                branch.children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+            matched += common;
+            branch = child;
+        }
+        if (branch.entries == null) {
+            branch.entries = new LinkedHashSet<>();
+        }
+        branch.entries.add(node);
+    }
+
+    /**
+     * Removes a node from under a key, dropping the branches left without
+     * entries or children and merging a branch left with a single child into
+     * it.
+     *
+     * @param key  the normalized key
+     * @param node the node to remove
+     */
+    private void delete(String key, Node<T> node) {
+        List<Branch<T>> path = new ArrayList<>();
+        Branch<T> branch = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            Branch<T> child = branch.children.get(key.charAt(matched));
+            if (child == null || !key.startsWith(child.label, matched)) {
+                return;
+            }
+            path.add(branch);
+            matched += child.label.length();
+            branch = child;
+        }
+        if (branch.entries == null || !branch.entries.remove(node) || !branch.entries.isEmpty()) {
+            return;
+        }
+        branch.entries = null;
+        if (branch == root) {
+            return;
+        }
+
+        Branch<T> parent = path.get(path.size() - 1);
+        if (branch.children.isEmpty()) {
+            parent.children.remove(branch.label.charAt(0));
+            if (parent != root && parent.entries == null && parent.children.size() == 1) {
+                merge(parent);
+            }
+        } else if (branch.children.size() == 1) {
+            merge(branch);
+        }
+    }
+
+    /**
+     * Merges the only child of a branch without entries into the branch.
+     *
+     * @param branch the branch to merge into
+     */
+    private void merge(Branch<T> branch) {
+        Map.Entry<Character, Branch<T>> only = branch.children.pollFirstEntry();
+        Branch<T> child = only.getValue();
+        branch.label = branch.label + child.label;
+        branch.entries = child.entries;
+        branch.children.putAll(child.children);
+    }
+
+    /**
+     * Counts the characters that a label shares with a key from a position.
+     *
+     * @param label the label of an edge
+     * @param key   the key
+     * @param from  the position in the key to compare from
+     * @return the length of the common run
+     */
+    private static int commonLength(String label, String key, int from) {
+        int length = Math.min(label.length(), key.length() - from);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(from + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    /**
+     * Brings a key to the form it is indexed under.
+     *
+     * @param key the key
+     * @return the key in lower case
+     */
+    private static String normalize(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,98 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import model.Entity;
+import model.Node;
+
+/**
+ * Index from a field of the elements of a list to the nodes that hold them.
+ * <p>
+ * The key of each node is read from its element, so a node must be removed
+ * from the index before its information is replaced and added back after, as
+ * {@link StudentHandler} does around every change of its list. Lookups copy
+ * only the matching elements, so they take time proportional to the result.
+ *
+ * @param <T> the type of elements held by the nodes
+ * @param <K> the type of the indexed field
+ */
+final class SecondaryIndex<T extends Entity, K> {
+
+    /**
+     * Function that reads the indexed field of an element.
+     */
+    private final Function<T, K> key;
+
+    /**
+     * Nodes of each key, in the order they were added.
+     */
+    private final Map<K, Set<Node<T>>> buckets;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param key the function that reads the indexed field of an element
+     */
+    SecondaryIndex(Function<T, K> key) {
+        this.key = key;
+        this.buckets = new HashMap<>();
+    }
+
+    /**
+     * Adds a node under the key of its element.
+     *
+     * @param node the node to add
+     */
+    void add(Node<T> node) {
+        buckets.computeIfAbsent(key.apply(node.getInfo()), k -> new LinkedHashSet<>()).add(node);
+    }
+
+    /**
+     * Removes a node from under the key of its element.
+     *
+     * @param node the node to remove
+     */
+    void remove(Node<T> node) {
+        K k = key.apply(node.getInfo());
+        Set<Node<T>> bucket = buckets.get(k);
+        if (bucket != null && bucket.remove(node) && bucket.isEmpty()) {
+            buckets.remove(k);
+        }
+    }
+
+    /**
+     * Finds the elements with a key.
+     *
+     * @param k the key to search for
+     * @return the elements with the key, in the order they were indexed
+     */
+    List<T> find(K k) {
+        Set<Node<T>> bucket = buckets.get(k);
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
+        List<T> elements = new ArrayList<>(bucket.size());
+        for (Node<T> node : bucket) {
+            elements.add(node.getInfo());
+        }
+        return elements;
+    }
+
+    /**
+     * Counts the nodes of every key, in the time it takes to copy one count
+     * per key, as the buckets already hold their size.
+     *
+     * @param counts the map to put the count of each key into
+     */
+    void countInto(Map<K, Integer> counts) {
+        for (Map.Entry<K, Set<Node<T>>> bucket : buckets.entrySet()) {
+            counts.put(bucket.getKey(), bucket.getValue().size());
+        }
+    }
+}
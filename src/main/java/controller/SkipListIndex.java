@@ -0,0 +1,394 @@
+package controller;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import model.Entity;
+import model.Node;
+
+/**
+ * Probabilistic skip-list express lanes laid over the node chain of a
+ * {@link DoubleLinkedList}.
+ * <p>
+ * The chain itself is level 0. About one node in four gets a tower that links
+ * it to the next towered node on each of its levels, so the lanes follow the
+ * position of the nodes in the chain rather than their values. That keeps the
+ * lanes valid whatever insertion path is used; searching them by value is only
+ * meaningful while the chain is in {@link Entity#compareTo} order, which the
+ * owning list keeps track of.
+ *
+ * @param <T> the type of elements in the list
+ */
+final class SkipListIndex<T extends Entity> {
+
+    /**
+     * Maximum number of express levels above the chain.
+     */
+    static final int MAX_LEVEL = 32;
+
+    /**
+     * The express links of one towered node.
+     *
+     * @param <T> the type of elements in the list
+     */
+    static final class Tower<T extends Entity> {
+
+        /**
+         * The chain node this tower belongs to, or null for the header.
+         */
+        final Node<T> base;
+
+        /**
+         * Next towered node on each level.
+         */
+        final Tower<T>[] next;
+
+        /**
+         * Previous towered node on each level.
+         */
+        final Tower<T>[] previous;
+
+        /**
+         * Number of chain steps covered by the link on each level.
+         */
+        final int[] width;
+
+        /**
+         * Creates a tower of the given height.
+         *
+         * @param base   the chain node of the tower
+         * @param height the number of express levels of the tower
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Tower(Node<T> base, int height) {
+            this.base = base;
+            this.next = new Tower[height];
+            this.previous = new Tower[height];
+            this.width = new int[height];
+        }
+
+        /**
+         * Gets the number of express levels of this tower.
+         *
+         * @return the height of the tower
+         */
+        int height() {
+            return next.length;
+        }
+    }
+
+    /**
+     * Header tower standing before the first node, as tall as any tower.
+     */
+    private final Tower<T> header;
+
+    /**
+     * Towers of the chain nodes that have one.
+     */
+    private final Map<Node<T>, Tower<T>> towers;
+
+    /**
+     * Number of levels currently in use.
+     */
+    private int levels;
+
+    /**
+     * Number of nodes in the chain.
+     */
+    private int count;
+
+    /**
+     * Scratch array with the tower covering a new node on each level.
+     */
+    private final Tower<T>[] covering;
+
+    /**
+     * Scratch array with the distance from each covering tower to a new node.
+     */
+    private final int[] distance;
+
+    /**
+     * Creates an empty overlay.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    SkipListIndex() {
+        this.header = new Tower<>(null, MAX_LEVEL);
+        this.towers = new IdentityHashMap<>();
+        this.levels = 0;
+        this.count = 0;
+        this.covering = new Tower[MAX_LEVEL];
+        this.distance = new int[MAX_LEVEL];
+    }
+
+    /**
+     * Registers a node that has just been linked into the chain.
+     *
+     * @param node the new node, already linked to its neighbours
+     */
+    void inserted(Node<T> node) {
+        int height = randomHeight();
+        int top = Math.max(levels, height);
+
+        Tower<T> tower = header;
+        int steps = 1;
+        for (Node<T> current = node.getPrevious(); current != null; current = current.getPrevious()) {
+            Tower<T> found = towers.get(current);
+            if (found != null) {
+                tower = found;
+                break;
+            }
+            steps++;
+        }
+        for (int level = 0; level < levels; level++) {
+            while (tower.height() <= level) {
+                tower = tower.previous[level - 1];
+                steps += tower.width[level - 1];
+            }
+            covering[level] = tower;
+            distance[level] = steps;
+        }
+        if (top > levels) {
+            while (tower != header) {
+                tower = tower.previous[levels - 1];
+                steps += tower.width[levels - 1];
+            }
+            for (int level = levels; level < top; level++) {
+                header.width[level] = count + 1;
+                covering[level] = header;
+                distance[level] = steps;
+            }
+        }
+
+        Tower<T> added = height == 0 ? null : new Tower<>(node, height);
+        for (int level = 0; level < top; level++) {
+            Tower<T> predecessor = covering[level];
+            if (level < height) {
+                Tower<T> successor = predecessor.next[level];
+                added.next[level] = successor;
+                added.previous[level] = predecessor;
+                added.width[level] = predecessor.width[level] - distance[level] + 1;
+                if (successor != null) {
+                    successor.previous[level] = added;
+                }
+                predecessor.next[level] = added;
+                predecessor.width[level] = distance[level];
+            } else {
+                predecessor.width[level]++;
+            }
+            covering[level] = null;
+        }
+        if (added != null) {
+            towers.put(node, added);
+        }
+        levels = top;
+        count++;
+    }
+
+    /**
+     * Unregisters a node that is about to be unlinked from the chain.
+     *
+     * @param node the node being removed, still linked to its neighbours
+     */
+    void removed(Node<T> node) {
+        Tower<T> tower = towers.remove(node);
+        int height = 0;
+        if (tower != null) {
+            height = tower.height();
+            for (int level = 0; level < height; level++) {
+                Tower<T> predecessor = tower.previous[level];
+                Tower<T> successor = tower.next[level];
+                predecessor.next[level] = successor;
+                predecessor.width[level] += tower.width[level] - 1;
+                if (successor != null) {
+                    successor.previous[level] = predecessor;
+                }
+            }
+            tower = tower.previous[height - 1];
+        } else {
+            tower = towerAtOrBefore(node.getPrevious());
+        }
+        for (int level = height; level < levels; level++) {
+            while (tower.height() <= level) {
+                tower = tower.previous[level - 1];
+            }
+            tower.width[level]--;
+        }
+        while (levels > 0 && header.next[levels - 1] == null) {
+            levels--;
+        }
+        count--;
+    }
+
+    /**
+     * Finds the node at a position of the chain.
+     *
+     * @param head     the first node of the chain
+     * @param position the position, between 0 and the number of nodes minus one
+     * @return the node at that position
+     */
+    Node<T> nodeAt(Node<T> head, int position) {
+        Tower<T> current = header;
+        int reached = -1;
+        for (int level = levels - 1; level >= 0; level--) {
+            while (current.next[level] != null && reached + current.width[level] <= position) {
+                reached += current.width[level];
+                current = current.next[level];
+            }
+        }
+        Node<T> node = current == header ? head : current.base;
+        for (int steps = current == header ? position : position - reached; steps > 0; steps--) {
+            node = node.getNext();
+        }
+        return node;
+    }
+
+    /**
+     * Finds the position of a node of the chain.
+     *
+     * @param node a node linked into the chain
+     * @return the position of the node, starting from 0
+     */
+    int positionOf(Node<T> node) {
+        int steps = 0;
+        Tower<T> tower = null;
+        for (Node<T> current = node; current != null; current = current.getPrevious()) {
+            tower = towers.get(current);
+            if (tower != null) {
+                break;
+            }
+            steps++;
+        }
+        if (tower == null) {
+            return steps - 1;
+        }
+        while (tower != header) {
+            int level = tower.height() - 1;
+            tower = tower.previous[level];
+            steps += tower.width[level];
+        }
+        return steps - 1;
+    }
+
+    /**
+     * Drops every tower, leaving an overlay for an empty chain.
+     */
+    void clear() {
+        towers.clear();
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            header.next[level] = null;
+        }
+        levels = 0;
+        count = 0;
+    }
+
+    /**
+     * Drops every tower and builds new ones over a whole chain in one pass,
+     * which takes linear time instead of registering the nodes one by one.
+     *
+     * @param head the first node of the chain, or null if it is empty
+     */
+    void rebuild(Node<T> head) {
+        clear();
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            covering[level] = header;
+            distance[level] = -1;
+        }
+        int position = 0;
+        for (Node<T> node = head; node != null; node = node.getNext(), position++) {
+            int height = randomHeight();
+            if (height == 0) {
+                continue;
+            }
+            Tower<T> added = new Tower<>(node, height);
+            for (int level = 0; level < height; level++) {
+                Tower<T> predecessor = covering[level];
+                predecessor.next[level] = added;
+                predecessor.width[level] = position - distance[level];
+                added.previous[level] = predecessor;
+                covering[level] = added;
+                distance[level] = position;
+            }
+            towers.put(node, added);
+            levels = Math.max(levels, height);
+        }
+        count = position;
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            covering[level].width[level] = count - distance[level];
+            covering[level] = null;
+        }
+    }
+
+    /**
+     * Finds the last node of a sorted chain that precedes the given key, or
+     * that is equal to it when {@code inclusive} is true.
+     *
+     * @param head      the first node of the chain
+     * @param key       the key to compare with
+     * @param inclusive whether nodes equal to the key qualify
+     * @return the last qualifying node, or null if the first node does not
+     *         qualify
+     */
+    Node<T> lastBefore(Node<T> head, Entity key, boolean inclusive) {
+        Tower<T> current = header;
+        for (int level = levels - 1; level >= 0; level--) {
+            Tower<T> next = current.next[level];
+            while (next != null && precedes(next.base, key, inclusive)) {
+                current = next;
+                next = current.next[level];
+            }
+        }
+        Node<T> found = current.base;
+        Node<T> node = found == null ? head : found.getNext();
+        while (node != null && precedes(node, key, inclusive)) {
+            found = node;
+            node = node.getNext();
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether a node goes before the key in a search.
+     *
+     * @param node      the node to check
+     * @param key       the key to compare with
+     * @param inclusive whether a node equal to the key goes before it
+     * @return true if the node goes before the key
+     */
+    private static <T extends Entity> boolean precedes(Node<T> node, Entity key, boolean inclusive) {
+        int comparison = node.getInfo().compareTo(key);
+        return inclusive ? comparison <= 0 : comparison < 0;
+    }
+
+    /**
+     * Walks the chain backwards from a node until it finds one with a tower.
+     *
+     * @param node the node to start from, may be null
+     * @return the tower of the closest towered node at or before the given one,
+     *         or the header if there is none
+     */
+    private Tower<T> towerAtOrBefore(Node<T> node) {
+        while (node != null) {
+            Tower<T> tower = towers.get(node);
+            if (tower != null) {
+                return tower;
+            }
+            node = node.getPrevious();
+        }
+        return header;
+    }
+
+    /**
+     * Draws the height of a new tower; each level is kept with probability 1/4.
+     *
+     * @return a height between 0 and {@link #MAX_LEVEL}
+     */
+    private static int randomHeight() {
+        int height = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (height < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            height++;
+        }
+        return height;
+    }
+}
@@ -0,0 +1,57 @@
+package controller;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Reads of a list guarded by a {@link StampedLock}, shared by the stores that
+ * guard their lists this way.
+ * <p>
+ * An optimistic read may see the list halfway through a change, so it is
+ * only fit for plain fields, such as the size, whose value is thrown away if
+ * a write got in the way. Reads that follow links or probe indexes take the
+ * read lock.
+ */
+final class StampedReads {
+
+    /**
+     * Not instantiable.
+     */
+    private StampedReads() {
+    }
+
+    /**
+     * Reads plain fields as an optimistic read without blocking, and again
+     * under the read lock if a write got in the way.
+     *
+     * @param <R>    the type of the result
+     * @param lock   the lock that guards the fields
+     * @param reader the read to run, which must not follow links
+     * @return the result of the read
+     */
+    static <R> R optimistic(StampedLock lock, Supplier<R> reader) {
+        long stamp = lock.tryOptimisticRead();
+        R result = reader.get();
+        if (lock.validate(stamp)) {
+            return result;
+        }
+        return locked(lock, reader);
+    }
+
+    /**
+     * Runs a read under the read lock.
+     *
+     * @param <R>    the type of the result
+     * @param lock   the lock that guards the list
+     * @param reader the read to run
+     * @return the result of the read
+     */
+    static <R> R locked(StampedLock lock, Supplier<R> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
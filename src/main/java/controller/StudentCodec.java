@@ -0,0 +1,345 @@
+package controller;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Compact binary encoding of {@link Student} records, read and written
+ * directly in a {@link ByteBuffer}.
+ * <p>
+ * A record starts with a schema version byte and the length of its body as a
+ * varint, so that a reader can skip fields added by later versions. The body
+ * holds the code, name, last name and email, the gender as one byte with its
+ * ordinal, and the career. Each string is written as a varint holding its
+ * length in bytes and a flag in the lowest bit, followed by the string in
+ * ISO-8859-1, one byte per character, when every character fits in it, or in
+ * UTF-8 otherwise. Strings are encoded character by character into the
+ * buffer, so encoding allocates nothing; decoding allocates only the strings
+ * and the student, reading straight from the backing array of heap buffers.
+ * <p>
+ * A codec keeps a scratch array to decode strings from direct buffers, so it
+ * must not be shared between threads.
+ */
+public final class StudentCodec {
+
+    /**
+     * Current version of the record schema.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Flag in the header of a string encoded in ISO-8859-1.
+     */
+    private static final int LATIN1 = 1;
+
+    /**
+     * The genders, by ordinal.
+     */
+    private static final EGender[] GENDERS = EGender.values();
+
+    /**
+     * Scratch array for strings decoded from direct buffers.
+     */
+    private byte[] scratch;
+
+    /**
+     * Creates a codec.
+     */
+    public StudentCodec() {
+        this.scratch = new byte[256];
+    }
+
+    /**
+     * Computes the number of bytes a student takes once encoded.
+     *
+     * @param student the student
+     * @return the size of its record
+     */
+    public static int encodedSize(Student student) {
+        int body = bodySize(student);
+        return 1 + varintSize(body) + body;
+    }
+
+    /**
+     * Encodes a student at the position of a buffer and advances it.
+     *
+     * @param student the student
+     * @param buffer  the buffer to write to
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer has less room than
+     *                                          {@link #encodedSize} bytes
+     */
+    public static int encode(Student student, ByteBuffer buffer) {
+        int start = buffer.position();
+        int body = bodySize(student);
+        buffer.put((byte) VERSION);
+        putVarint(buffer, body);
+        putString(buffer, student.getId());
+        putString(buffer, student.getName());
+        putString(buffer, student.getLastName());
+        putString(buffer, student.getEmail());
+        buffer.put((byte) student.getGender().ordinal());
+        putString(buffer, student.getCareer());
+        return buffer.position() - start;
+    }
+
+    /**
+     * Decodes a student at the position of a buffer and advances it past the
+     * whole record, including fields of later schema versions.
+     *
+     * @param buffer the buffer to read from
+     * @return the student
+     * @throws IllegalStateException if the record is damaged or of an
+     *                               unknown version
+     */
+    public Student decode(ByteBuffer buffer) {
+        try {
+            int version = buffer.get();
+            if (version < 1) {
+                throw new IllegalStateException("Unknown student record version " + version + ".");
+            }
+            int body = getVarint(buffer);
+            int end = buffer.position() + body;
+            String id = getString(buffer);
+            String name = getString(buffer);
+            String lastname = getString(buffer);
+            String email = getString(buffer);
+            EGender gender = GENDERS[buffer.get()];
+            String career = getString(buffer);
+            if (buffer.position() > end) {
+                throw new IllegalStateException("The student record is damaged.");
+            }
+            buffer.position(end);
+            return new Student(id, name, lastname, email, gender, career);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IllegalStateException("The student record is damaged.", e);
+        }
+    }
+
+    /**
+     * Reads the size of the record at the position of a buffer, without
+     * moving it.
+     *
+     * @param buffer the buffer to read from
+     * @return the size of the whole record, or -1 if its version and length
+     *         are not whole in the buffer
+     * @throws IllegalStateException if the length of the record is damaged
+     */
+    static int recordSize(ByteBuffer buffer) {
+        ByteBuffer header = buffer.duplicate();
+        try {
+            header.get();
+            int body = getVarint(header);
+            return header.position() - buffer.position() + body;
+        } catch (BufferUnderflowException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Computes the number of bytes a string takes once encoded.
+     *
+     * @param value the string
+     * @return the size of the string and its header
+     */
+    static int stringSize(String value) {
+        int length = encodedLength(value);
+        return varintSize(length << 1) + length;
+    }
+
+    /**
+     * Encodes a string at the position of a buffer and advances it.
+     *
+     * @param buffer the buffer to write to
+     * @param value  the string
+     */
+    static void putString(ByteBuffer buffer, String value) {
+        int characters = value.length();
+        if (isLatin1(value)) {
+            putVarint(buffer, characters << 1 | LATIN1);
+            for (int i = 0; i < characters; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+            return;
+        }
+        putVarint(buffer, utf8Length(value) << 1);
+        int i = 0;
+        while (i < characters) {
+            i = putUtf8(buffer, value, i);
+        }
+    }
+
+    /**
+     * Encodes the character of a string at an index in UTF-8, together with
+     * the low surrogate that follows it if it is a high surrogate; an unpaired
+     * surrogate is written as a question mark.
+     *
+     * @param buffer the buffer to write to, with room for four bytes
+     * @param value  the string
+     * @param index  the index of the character
+     * @return the index of the next character
+     */
+    static int putUtf8(ByteBuffer buffer, String value, int index) {
+        char c = value.charAt(index);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int code = Character.toCodePoint(c, value.charAt(++index));
+            buffer.put((byte) (0xF0 | code >> 18)).put((byte) (0x80 | code >> 12 & 0x3F))
+                    .put((byte) (0x80 | code >> 6 & 0x3F)).put((byte) (0x80 | code & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+        }
+        return index + 1;
+    }
+
+    /**
+     * Decodes a string at the position of a buffer and advances it.
+     *
+     * @param buffer the buffer to read from
+     * @return the string
+     * @throws IllegalStateException if the string is longer than what is left
+     *                               in the buffer
+     */
+    String getString(ByteBuffer buffer) {
+        int header = getVarint(buffer);
+        int length = header >>> 1;
+        if (length > buffer.remaining()) {
+            throw new IllegalStateException("The string runs past the end of the record.");
+        }
+        Charset charset = (header & LATIN1) != 0 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, charset);
+            buffer.position(buffer.position() + length);
+        } else {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            value = new String(scratch, 0, length, charset);
+        }
+        return value;
+    }
+
+    /**
+     * Computes the size of the body of a student record.
+     *
+     * @param student the student
+     * @return the size of the fields
+     */
+    private static int bodySize(Student student) {
+        return stringSize(student.getId()) + stringSize(student.getName()) + stringSize(student.getLastName())
+                + stringSize(student.getEmail()) + 1 + stringSize(student.getCareer());
+    }
+
+    /**
+     * Computes the number of bytes of a string in the encoding it is written
+     * in.
+     *
+     * @param value the string
+     * @return its length in ISO-8859-1 if every character fits, in UTF-8
+     *         otherwise
+     */
+    private static int encodedLength(String value) {
+        return isLatin1(value) ? value.length() : utf8Length(value);
+    }
+
+    /**
+     * Checks whether every character of a string fits in ISO-8859-1.
+     *
+     * @param value the string
+     * @return true if no character is above U+00FF
+     */
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the length of a string in UTF-8, with unpaired surrogates
+     * replaced by one byte.
+     *
+     * @param value the string
+     * @return the number of bytes
+     */
+    private static int utf8Length(String value) {
+        int length = 0;
+        int characters = value.length();
+        for (int i = 0; i < characters; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < characters
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Computes the size of a non-negative number as a varint.
+     *
+     * @param value the number
+     * @return the number of bytes, from 1 to 5
+     */
+    private static int varintSize(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Writes a non-negative number as a varint, seven bits per byte with the
+     * highest bit set on every byte but the last.
+     *
+     * @param buffer the buffer to write to
+     * @param value  the number
+     */
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a number written by {@link #putVarint}.
+     *
+     * @param buffer the buffer to read from
+     * @return the number
+     * @throws IllegalStateException if the varint is longer than five bytes
+     */
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("The varint is too long.");
+    }
+}
@@ -0,0 +1,330 @@
+package controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import model.Student;
+
+/**
+ * Streaming exporter of the students of a {@link StudentStore} to CSV or
+ * JSON.
+ * <p>
+ * The students are read through {@link StudentStore#forEachStudent}. On a
+ * {@link StudentHandler} they come from the snapshot returned by
+ * {@link StudentHandler#listAllStudents}, which is taken in O(1) and walked
+ * in either order without being copied, so the export shows the students as
+ * they were when it started while writers go on changing the handler. On an
+ * {@link OffHeapStudentStore} each student is built from its record as it is
+ * written, and writers wait until the export ends. Each character is encoded to UTF-8 straight into one direct
+ * buffer kept by the exporter, which is written out whenever it fills up, so
+ * no string is built for a row and memory use does not grow with the roster.
+ * <p>
+ * The CSV format has a header line and one line per student with its code,
+ * name, last name, email, gender and career, quoting the fields that hold
+ * commas, quotes or line breaks, as {@link StudentImporter} reads them back.
+ * The JSON format is an array with one object per student and line.
+ * <p>
+ * An exporter reuses its buffer across exports, so it must not be shared
+ * between threads.
+ */
+public final class StudentExporter {
+
+    /**
+     * The formats students can be exported to.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values with a header line.
+         */
+        CSV,
+
+        /**
+         * A JSON array of student objects.
+         */
+        JSON
+    }
+
+    /**
+     * Size of the buffer the output is written through.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Largest number of bytes a character takes once escaped and encoded.
+     */
+    private static final int MAX_CHARACTER_SIZE = 6;
+
+    /**
+     * The header line of the CSV format.
+     */
+    private static final String CSV_HEADER = "code,name,lastname,email,gender,career\n";
+
+    /**
+     * The hexadecimal digits, for JSON escapes.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The store the students are exported from.
+     */
+    private final StudentStore store;
+
+    /**
+     * The format written.
+     */
+    private final Format format;
+
+    /**
+     * The buffer the output is encoded into.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The channel the current export is written to.
+     */
+    private WritableByteChannel channel;
+
+    /**
+     * Creates an exporter.
+     *
+     * @param store  the store the students are exported from
+     * @param format the format to write
+     * @throws IllegalArgumentException if the store or the format is null
+     */
+    public StudentExporter(StudentStore store, Format format) {
+        if (store == null || format == null) {
+            throw new IllegalArgumentException("The store and the format cannot be null.");
+        }
+        this.store = store;
+        this.format = format;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * Exports the students to a file, replacing its contents.
+     *
+     * @param file      the file to write
+     * @param ascending whether to export in ascending order
+     * @return the number of students exported
+     * @throws IOException if the file cannot be written
+     */
+    public int export(Path file, boolean ascending) throws IOException {
+        try (FileChannel output = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return export(output, ascending);
+        }
+    }
+
+    /**
+     * Exports the students to a stream, which is flushed but left open.
+     *
+     * @param output    the stream to write to
+     * @param ascending whether to export in ascending order
+     * @return the number of students exported
+     * @throws IOException if the stream cannot be written
+     */
+    public int export(OutputStream output, boolean ascending) throws IOException {
+        int count = export(Channels.newChannel(output), ascending);
+        output.flush();
+        return count;
+    }
+
+    /**
+     * Exports the students to a channel, which is left open.
+     *
+     * @param output    the channel to write to
+     * @param ascending whether to export in ascending order
+     * @return the number of students exported
+     * @throws IOException if the channel cannot be written
+     */
+    public int export(WritableByteChannel output, boolean ascending) throws IOException {
+        channel = output;
+        buffer.clear();
+        try {
+            int[] count = { 0 };
+            putAscii(format == Format.CSV ? CSV_HEADER : "[");
+            try {
+                store.forEachStudent(ascending, student -> {
+                    try {
+                        put(student, count[0] == 0);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (format == Format.JSON) {
+                putAscii(count[0] == 0 ? "]\n" : "\n]\n");
+            }
+            drain();
+            return count[0];
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * Writes a student in the format of the exporter.
+     *
+     * @param student the student
+     * @param first   whether it is the first student of the export
+     * @throws IOException if the output cannot be written
+     */
+    private void put(Student student, boolean first) throws IOException {
+        if (format == Format.CSV) {
+            putCsv(student);
+        } else {
+            putAscii(first ? "\n" : ",\n");
+            putJson(student);
+        }
+    }
+
+    /**
+     * Writes a student as one CSV line.
+     *
+     * @param student the student
+     * @throws IOException if the output cannot be written
+     */
+    private void putCsv(Student student) throws IOException {
+        putCsvField(student.getId());
+        putAscii(",");
+        putCsvField(student.getName());
+        putAscii(",");
+        putCsvField(student.getLastName());
+        putAscii(",");
+        putCsvField(student.getEmail());
+        putAscii(",");
+        putAscii(student.getGender().name());
+        putAscii(",");
+        putCsvField(student.getCareer());
+        putAscii("\n");
+    }
+
+    /**
+     * Writes a CSV field, quoted with its quotes doubled if it holds a comma,
+     * a quote or a line break.
+     *
+     * @param value the field
+     * @throws IOException if the output cannot be written
+     */
+    private void putCsvField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quote) {
+            putAscii("\"");
+        }
+        int i = 0;
+        while (i < value.length()) {
+            reserve(MAX_CHARACTER_SIZE);
+            if (value.charAt(i) == '"') {
+                buffer.put((byte) '"');
+            }
+            i = StudentCodec.putUtf8(buffer, value, i);
+        }
+        if (quote) {
+            putAscii("\"");
+        }
+    }
+
+    /**
+     * Writes a student as one JSON object.
+     *
+     * @param student the student
+     * @throws IOException if the output cannot be written
+     */
+    private void putJson(Student student) throws IOException {
+        putAscii("{\"code\":");
+        putJsonString(student.getId());
+        putAscii(",\"name\":");
+        putJsonString(student.getName());
+        putAscii(",\"lastname\":");
+        putJsonString(student.getLastName());
+        putAscii(",\"email\":");
+        putJsonString(student.getEmail());
+        putAscii(",\"gender\":\"");
+        putAscii(student.getGender().name());
+        putAscii("\",\"career\":");
+        putJsonString(student.getCareer());
+        putAscii("}");
+    }
+
+    /**
+     * Writes a JSON string, escaping quotes, backslashes and control
+     * characters.
+     *
+     * @param value the string
+     * @throws IOException if the output cannot be written
+     */
+    private void putJsonString(String value) throws IOException {
+        putAscii("\"");
+        int i = 0;
+        while (i < value.length()) {
+            reserve(MAX_CHARACTER_SIZE);
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+                i++;
+            } else if (c == '\n') {
+                buffer.put((byte) '\\').put((byte) 'n');
+                i++;
+            } else if (c < 0x20) {
+                buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                        .put((byte) HEX[c >> 4]).put((byte) HEX[c & 0xF]);
+                i++;
+            } else {
+                i = StudentCodec.putUtf8(buffer, value, i);
+            }
+        }
+        putAscii("\"");
+    }
+
+    /**
+     * Writes a string made only of ASCII characters.
+     *
+     * @param value the string
+     * @throws IOException if the output cannot be written
+     */
+    private void putAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            reserve(1);
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    /**
+     * Makes room in the buffer, writing out what it holds if needed.
+     *
+     * @param size the number of bytes needed
+     * @throws IOException if the output cannot be written
+     */
+    private void reserve(int size) throws IOException {
+        if (buffer.remaining() < size) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes out what the buffer holds and clears it.
+     *
+     * @throws IOException if the output cannot be written
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -10,31 +10,318 @@
  */
 package controller;
 
+import model.ActionType;
 import model.EGender;
 import model.Student;
 import model.Node;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Handler class for managing CRUD (Create, Read, Update, Delete) operations on
  * a list of students using a doubly linked list.
+ * <p>
+ * The handler is safe to share between threads. Operations that modify the
+ * list take the write lock of a {@link StampedLock}. Reads of plain fields,
+ * such as the number of students, run as optimistic reads without blocking
+ * and only take the read lock when a write happened at the same time; reads
+ * that follow links or probe the indexes take the read lock, and listings
+ * and streams read an immutable snapshot without locking.
  */
-public class StudentHandler{
+public class StudentHandler implements OrderedStudentStore {
+
+    /**
+     * The building from the whole list of some indexes that were left
+     * unbuilt by a load, a chunk of nodes at a time. While a build is under
+     * way, changes still update its indexes, which ignore nodes added twice
+     * or removed without having been added, so the build only has to reach
+     * the nodes that were there when it started.
+     */
+    private static final class IndexBuild {
+
+        /**
+         * Adds a node to the indexes of the build.
+         */
+        private final Consumer<Node<Student>> adder;
+
+        /**
+         * Next node to add, or null once every node was added.
+         */
+        private Node<Student> cursor;
+
+        /**
+         * Whether the indexes hold every node of the list; read without the
+         * lock by the calls that wait for them, which are woken up through
+         * the monitor of the build when it is set.
+         */
+        private volatile boolean built;
+
+        /**
+         * Creates the build of indexes that start out complete, for an empty
+         * list.
+         *
+         * @param adder adds a node to the indexes of the build
+         */
+        IndexBuild(Consumer<Node<Student>> adder) {
+            this.adder = adder;
+            this.built = true;
+        }
+
+        /**
+         * Starts the build over from a node; the caller must hold the write
+         * lock.
+         *
+         * @param first the first node of the list, or null if it is empty
+         */
+        void restart(Node<Student> first) {
+            cursor = first;
+            if (first == null) {
+                finish();
+            } else {
+                built = false;
+            }
+        }
+
+        /**
+         * Adds the next chunk of nodes to the indexes; the caller must hold the
+         * write lock.
+         */
+        void step() {
+            for (int i = 0; i < INDEX_BUILD_CHUNK && cursor != null; i++) {
+                adder.accept(cursor);
+                cursor = cursor.getNext();
+            }
+            if (cursor == null) {
+                finish();
+            }
+        }
+
+        /**
+         * Moves the build past a node before the node is deleted; the caller
+         * must hold the write lock.
+         *
+         * @param node the node about to be deleted
+         */
+        void skip(Node<Student> node) {
+            if (cursor == node) {
+                cursor = node.getNext();
+                if (cursor == null) {
+                    finish();
+                }
+            }
+        }
+
+        /**
+         * Waits, without holding the lock of the handler, until the build is
+         * done or its builder was stopped.
+         *
+         * @param builder the worker that builds the indexes
+         * @return true once the build is done, false if the builder was
+         *         stopped before
+         */
+        synchronized boolean await(ExecutorService builder) {
+            boolean interrupted = false;
+            while (!built && !builder.isShutdown()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return built;
+        }
+
+        /**
+         * Wakes up the calls waiting for the build, after its builder was
+         * stopped.
+         */
+        synchronized void wake() {
+            notifyAll();
+        }
+
+        /**
+         * Marks the build as done and wakes up the calls waiting for it.
+         */
+        private synchronized void finish() {
+            built = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Number of nodes an index build adds each time it holds the write lock.
+     */
+    private static final int INDEX_BUILD_CHUNK = 4096;
+
     /**
      * Singleton instance of the StudentHandler class.
      */
-    private static StudentHandler instance;
+    private static volatile StudentHandler instance;
+
+    /**
+     * Store the screens of the application work on, or null for the
+     * singleton handler.
+     */
+    private static volatile OrderedStudentStore store;
 
     /**
      * Doubly linked list containing the student data.
      */
     private DoubleLinkedList<Student> studentList;
 
+    /**
+     * Lock that guards the student list.
+     */
+    private final StampedLock lock;
+
+    /**
+     * Immutable copy of the student list in list order, derived anew on every
+     * change while sharing most of its structure with the previous one.
+     */
+    private volatile PersistentSequence<Student> snapshot;
+
+    /**
+     * Index of the student nodes by career.
+     */
+    private final SecondaryIndex<Student, String> careerIndex;
+
+    /**
+     * Index of the student nodes by gender.
+     */
+    private final SecondaryIndex<Student, EGender> genderIndex;
+
+    /**
+     * Index of the student nodes by email.
+     */
+    private final SecondaryIndex<Student, String> emailIndex;
+
+    /**
+     * Index of the student nodes by last name.
+     */
+    private final SecondaryIndex<Student, String> lastNameIndex;
+
+    /**
+     * Prefix index of the student nodes by name and last name.
+     */
+    private final PrefixIndex<Student> namePrefixIndex;
+
+    /**
+     * Trigram index of the student nodes by name, last name, email and career.
+     */
+    private final TrigramIndex<Student> fuzzyIndex;
+
+    /**
+     * Build of the career and gender indexes behind the statistics.
+     */
+    private final IndexBuild statisticsBuild;
+
+    /**
+     * Build of the email and last name indexes.
+     */
+    private final IndexBuild fieldBuild;
+
+    /**
+     * Build of the prefix index.
+     */
+    private final IndexBuild prefixBuild;
+
+    /**
+     * Build of the trigram index.
+     */
+    private final IndexBuild fuzzyBuild;
+
+    /**
+     * Worker that runs the index builds, the compactions of the trigram index
+     * and the drains of the intake one after another, on a daemon thread that
+     * ends when idle; it is stopped when the handler is restarted.
+     */
+    private final ThreadPoolExecutor indexBuilder;
+
+    /**
+     * Students handed in by {@link #enqueueStudentFirst}, newest first, to be
+     * added at the beginning of the list oldest first.
+     */
+    private final ConcurrentDoubleLinkedList<Student> firstIntake = new ConcurrentDoubleLinkedList<>();
+
+    /**
+     * Students handed in by {@link #enqueueStudentLast}, oldest first, to be
+     * added at the end of the list in that order.
+     */
+    private final ConcurrentDoubleLinkedList<Student> lastIntake = new ConcurrentDoubleLinkedList<>();
+
+    /**
+     * Students of the intake that a drain on the index builder could not add,
+     * as their code was already in use, until {@link #drainIntake} returns
+     * them.
+     */
+    private final ConcurrentDoubleLinkedList<Student> rejectedIntake = new ConcurrentDoubleLinkedList<>();
+
+    /**
+     * Whether a drain of the intake is waiting on the index builder.
+     */
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * Journal that every change is recorded in, or null if changes are kept
+     * in memory only.
+     */
+    private volatile StudentJournal journal;
+
     /**
      * Initializes a new StudentHandler with an empty list.
      */
     private StudentHandler() {
-        studentList = new DoubleLinkedList<>();
+        studentList = new DoubleLinkedList<>(true);
+        lock = new StampedLock();
+        snapshot = PersistentSequence.empty();
+        careerIndex = new SecondaryIndex<>(Student::getCareer);
+        genderIndex = new SecondaryIndex<>(Student::getGender);
+        emailIndex = new SecondaryIndex<>(Student::getEmail);
+        lastNameIndex = new SecondaryIndex<>(Student::getLastName);
+        namePrefixIndex = new PrefixIndex<>(List.of(Student::getName, Student::getLastName));
+        fuzzyIndex = new TrigramIndex<>(
+                List.of(Student::getName, Student::getLastName, Student::getEmail, Student::getCareer));
+        statisticsBuild = new IndexBuild(node -> {
+            careerIndex.add(node);
+            genderIndex.add(node);
+        });
+        fieldBuild = new IndexBuild(node -> {
+            emailIndex.add(node);
+            lastNameIndex.add(node);
+        });
+        prefixBuild = new IndexBuild(namePrefixIndex::add);
+        fuzzyBuild = new IndexBuild(fuzzyIndex::add);
+        indexBuilder = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), task -> {
+            Thread thread = new Thread(task, "student-index-build");
+            thread.setDaemon(true);
+            return thread;
+        });
+        indexBuilder.allowCoreThreadTimeOut(true);
     }
 
     /**
@@ -54,16 +341,201 @@ public class StudentHandler{
         return instance;
     }
 
+    /**
+     * Returns the store the screens of the application work on: the one set
+     * with {@link #setStore}, or else the singleton handler.
+     *
+     * @return the store of the application
+     */
+    public static OrderedStudentStore getStore() {
+        OrderedStudentStore current = store;
+        return current != null ? current : getInstance();
+    }
+
+    /**
+     * Sets the store the screens of the application work on, for instance an
+     * {@link OffHeapStudentStore} to keep a large roster off the heap. The
+     * searches, statistics, paging and journal of the handler do not follow
+     * the students to another store.
+     *
+     * @param chosen the store to work on, or null to go back to the singleton
+     *               handler
+     */
+    public static void setStore(OrderedStudentStore chosen) {
+        store = chosen;
+    }
+
+    /**
+     * Creates a store in partitioned mode, which spreads the students over
+     * one independently locked sorted list per available processor, so that
+     * writes to different students do not contend. The store keeps the
+     * students in code order and offers only the operations of
+     * {@link StudentStore}; unlike the handler, it has no journal, snapshot
+     * or secondary indexes.
+     *
+     * @return a new, empty partitioned store
+     */
+    public static StudentStore partitioned() {
+        return new PartitionedStudentHandler();
+    }
+
+    /**
+     * Creates a store in partitioned mode with a number of stripes, as
+     * {@link #partitioned()} does.
+     *
+     * @param stripeCount the number of stripes
+     * @return a new, empty partitioned store
+     * @throws IllegalArgumentException if the number of stripes is less than 1
+     */
+    public static StudentStore partitioned(int stripeCount) {
+        return new PartitionedStudentHandler(stripeCount);
+    }
+
     /**
      * Resets the singleton instance of the class to allow reinitialization.
      *
      * This method sets the current instance to {@code null}, enabling the
      * re-creation of the instance if needed. This can be useful for testing
-     * purposes or when you need to reset the state of the singleton.
+     * purposes or when you need to reset the state of the singleton. The
+     * index builds of this handler are stopped; calls still waiting for one
+     * finish it themselves.
      *
      */
     public void restartInstance() {
         instance = null;
+        indexBuilder.shutdownNow();
+        statisticsBuild.wake();
+        fieldBuild.wake();
+        prefixBuild.wake();
+        fuzzyBuild.wake();
+    }
+
+    /**
+     * Rebuilds the students recorded in a journal and then records every
+     * change in it, so that the list survives a restart. It is meant to be
+     * called once at startup, before the handler is used.
+     * <p>
+     * With a journal, each change returns only once it is forced to disk.
+     * The change is recorded under the write lock, in the order it is
+     * applied, but the wait for the disk happens after the lock is released,
+     * so concurrent changes are forced together in a single batch. Other
+     * threads can see a change before the call that made it returns.
+     *
+     * @param file        the journal file, created if it does not exist
+     * @param windowNanos how long, in nanoseconds, a batch waits for other
+     *                    changes to join it before being forced
+     * @return the number of changes replayed from the journal
+     * @throws IOException           if the journal cannot be read or created
+     * @throws IllegalStateException if a journal is already open or the
+     *                               handler already has students
+     */
+    public synchronized long openJournal(Path file, long windowNanos) throws IOException {
+        return recover(null, file, windowNanos);
+    }
+
+    /**
+     * Rebuilds the students from a snapshot written by {@link #saveSnapshot}
+     * and from the changes of a journal made after it, and then records every
+     * change in the journal, as {@link #openJournal} does. The snapshot is
+     * loaded in one pass without sorting, so only the tail of the journal is
+     * replayed change by change. The indexes behind the searches by field,
+     * prefix and similarity and behind the statistics are built from the
+     * whole list by a background worker rather than during recovery, a chunk
+     * at a time so that changes go on meanwhile; a call that needs an index
+     * before then waits for it without taking the lock.
+     *
+     * @param snapshotFile the snapshot file, or null or a missing file to
+     *                     replay the whole journal
+     * @param file         the journal file, created if it does not exist
+     * @param windowNanos  how long, in nanoseconds, a batch waits for other
+     *                     changes to join it before being forced
+     * @return the number of changes replayed from the journal
+     * @throws IOException           if the snapshot or the journal cannot be
+     *                               read, or the journal cannot be created
+     * @throws IllegalStateException if a journal is already open, the handler
+     *                               already has students, the snapshot is
+     *                               damaged, or the journal ends before it
+     */
+    public synchronized long recover(Path snapshotFile, Path file, long windowNanos) throws IOException {
+        if (journal != null || !isEmpty()) {
+            throw new IllegalStateException("A journal can only be opened on an empty handler without one.");
+        }
+        long sequence = 0;
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            StudentSnapshot loaded = StudentSnapshot.read(snapshotFile);
+            sequence = loaded.getSequence();
+            loaded(loaded.getStudents());
+        }
+        StudentJournal opened = new StudentJournal(file, windowNanos);
+        try {
+            if (opened.getLastSequence() < sequence) {
+                throw new IllegalStateException("The journal ends before the snapshot.");
+            }
+            long replayed = replay(opened, sequence);
+            journal = opened;
+            return replayed;
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the students, in list order, to a snapshot file from which
+     * {@link #recover} can rebuild them without replaying the journal up to
+     * this point. The students are read from the persistent snapshot of the
+     * list, so changes go on while the file is written.
+     *
+     * @param file the snapshot file, replaced once the new one is whole
+     * @return the sequence number of the last journal change included, or 0
+     *         without a journal
+     * @throws IOException if the file cannot be written
+     */
+    public long saveSnapshot(Path file) throws IOException {
+        PersistentSequence<Student> students;
+        StudentJournal current;
+        long sequence;
+        long stamp = lock.readLock();
+        try {
+            students = snapshot;
+            current = journal;
+            sequence = current == null ? 0 : current.getLastSequence();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        if (current != null) {
+            current.awaitDurable(sequence);
+        }
+        new StudentSnapshot(students.asList(true), sequence).write(file);
+        return sequence;
+    }
+
+    /**
+     * Gets the journal changes are recorded in, so that tests can close it
+     * underneath the handler.
+     *
+     * @return the journal, or null if changes are kept in memory only
+     */
+    StudentJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Forces the changes recorded so far and closes the journal; later changes
+     * are kept in memory only.
+     *
+     * @throws IOException if the journal cannot be written or closed
+     */
+    public synchronized void closeJournal() throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -85,13 +557,91 @@ public class StudentHandler{
             throw new IllegalArgumentException("Student or required fields are null.");
         }
 
-        if (findStudentByCode(id) != null) {
-            throw new IllegalArgumentException("A student with the same code already exists.");
+        long stamp = lock.writeLock();
+        long sequence;
+        try {
+            if (findNodeByCode(id) != null) {
+                throw new IllegalArgumentException("A student with the same code already exists.");
+            }
+
+            Student student = new Student(id, name, lastname, email, gender, career);
+            sequence = journaled(ActionType.ADD, null, student);
+            studentList.addNodeSorted(student);
+            added(student);
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        return committed(sequence);
+    }
 
-        Student student = new Student(id, name, lastname, email, gender, career);
-        studentList.addNodeSorted(student);
-        return true;
+    /**
+     * Adds a batch of students to the list in sorted order, as a roster load
+     * would. The batch is merged into the list in one pass instead of being
+     * added one student at a time, and nothing is added if any student is
+     * rejected. A batch loaded into an empty list leaves the secondary, prefix
+     * and trigram indexes to be built in the background, as a recovery does.
+     *
+     * @param students the students to add
+     * @return true if the students were added successfully
+     * @throws IllegalArgumentException if a student or a required field is null,
+     *                                  or if a code is repeated in the batch or
+     *                                  already in use
+     */
+    public boolean addStudents(Collection<Student> students) {
+        if (students == null) {
+            throw new IllegalArgumentException("Student or required fields are null.");
+        }
+        for (Student student : students) {
+            if (student == null || student.getId() == null || student.getName() == null
+                    || student.getLastName() == null || student.getEmail() == null || student.getGender() == null
+                    || student.getCareer() == null) {
+                throw new IllegalArgumentException("Student or required fields are null.");
+            }
+        }
+        String[] codes = students.stream().map(Student::getId).toArray(String[]::new);
+        Arrays.parallelSort(codes);
+        for (int i = 1; i < codes.length; i++) {
+            if (codes[i].equals(codes[i - 1])) {
+                throw new IllegalArgumentException("The id " + codes[i] + " is repeated.");
+            }
+        }
+
+        long stamp = lock.writeLock();
+        long sequence;
+        try {
+            boolean empty = studentList.getSize() == 0;
+            if (!empty) {
+                for (String code : codes) {
+                    if (studentList.findNode(code) != null) {
+                        throw new IllegalArgumentException("The id " + code + " is repeated.");
+                    }
+                }
+            }
+            StudentJournal current = journal;
+            sequence = current == null ? 0 : current.appendAll(ActionType.ADD, students);
+            studentList.addAllSorted(students);
+            if (empty) {
+                deferIndexes();
+            } else {
+                for (Student student : students) {
+                    indexed(studentList.findNode(student.getId()));
+                }
+            }
+            if ((long) students.size() * 32 < studentList.getSize()) {
+                int[] positions = students.stream()
+                        .mapToInt(student -> studentList.getPosition(studentList.findNode(student.getId())))
+                        .sorted()
+                        .toArray();
+                for (int position : positions) {
+                    snapshot = snapshot.insert(position, studentList.getObject(position));
+                }
+            } else {
+                snapshot = PersistentSequence.of(studentList.getLinkedList(true));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return committed(sequence);
     }
 
     /**
@@ -113,13 +663,21 @@ public class StudentHandler{
             throw new IllegalArgumentException("Student cannot be null.");
         }
 
-        if (findStudentByCode(id) != null) {
-            throw new IllegalArgumentException("The ID is already in use.");
-        }
+        long stamp = lock.writeLock();
+        long sequence;
+        try {
+            if (findNodeByCode(id) != null) {
+                throw new IllegalArgumentException("The ID is already in use.");
+            }
 
-        Student student = new Student(id, name, lastname, email, gender, career);
-        studentList.addNodeFirst(student);
-        return true;
+            Student student = new Student(id, name, lastname, email, gender, career);
+            sequence = journaled(ActionType.ADD_FIRST, null, student);
+            studentList.addNodeFirst(student);
+            added(student);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return committed(sequence);
     }
 
     /**
@@ -141,13 +699,134 @@ public class StudentHandler{
             throw new IllegalArgumentException("Student cannot be null.");
         }
 
-        if (findStudentByCode(id) != null) {
-            throw new IllegalArgumentException("The ID is already in use.");
+        long stamp = lock.writeLock();
+        long sequence;
+        try {
+            if (findNodeByCode(id) != null) {
+                throw new IllegalArgumentException("The ID is already in use.");
+            }
+
+            Student student = new Student(id, name, lastname, email, gender, career);
+            sequence = journaled(ActionType.ADD_LAST, null, student);
+            studentList.addNodeLast(student);
+            added(student);
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        return committed(sequence);
+    }
 
-        Student student = new Student(id, name, lastname, email, gender, career);
-        studentList.addNodeLast(student);
-        return true;
+    /**
+     * Hands in a student to be added to the beginning of the list, for
+     * intake pipelines that prepend from many threads at once. The student
+     * goes into a lock-free {@link ConcurrentDoubleLinkedList} without waiting
+     * for the lock of the handler, and the index builder then moves the
+     * students handed in to the list in batches, each under one write lock,
+     * in the order they were handed in; {@link #drainIntake} does so at once.
+     * Until then the student is not listed or found.
+     *
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param gender   the student's gender
+     * @param career   the student's career
+     * @throws IllegalArgumentException if a field is null
+     */
+    public void enqueueStudentFirst(String id, String name, String lastname, String email, EGender gender,
+            String career) {
+        if (id == null || name == null || lastname == null || email == null || gender == null || career == null) {
+            throw new IllegalArgumentException("Student cannot be null.");
+        }
+        firstIntake.addNodeFirst(new Student(id, name, lastname, email, gender, career));
+        scheduleDrain();
+    }
+
+    /**
+     * Hands in a student to be added to the end of the list, for intake
+     * pipelines that append from many threads at once, as
+     * {@link #enqueueStudentFirst} does for the beginning.
+     *
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param gender   the student's gender
+     * @param career   the student's career
+     * @throws IllegalArgumentException if a field is null
+     */
+    public void enqueueStudentLast(String id, String name, String lastname, String email, EGender gender,
+            String career) {
+        if (id == null || name == null || lastname == null || email == null || gender == null || career == null) {
+            throw new IllegalArgumentException("Student cannot be null.");
+        }
+        lastIntake.addNodeLast(new Student(id, name, lastname, email, gender, career));
+        scheduleDrain();
+    }
+
+    /**
+     * Moves the students handed in by {@link #enqueueStudentFirst} and
+     * {@link #enqueueStudentLast} to the list now, in batches that each hold
+     * the write lock once, and waits until they are durable. A student whose
+     * code is already in use when its turn comes is not added.
+     *
+     * @return the students that were not added, including those turned away
+     *         by the drains of the index builder since the last call
+     * @throws IllegalStateException if the journal is closed or has failed;
+     *                               the students not yet added stay handed in,
+     *                               and those turned away are kept for the
+     *                               next call
+     */
+    public List<Student> drainIntake() {
+        List<Student> rejected = new ArrayList<>();
+        for (Student student = rejectedIntake.deleteFirst(); student != null; student = rejectedIntake.deleteFirst()) {
+            rejected.add(student);
+        }
+        long sequence = 0;
+        boolean more = true;
+        while (more) {
+            long stamp = lock.writeLock();
+            try {
+                more = false;
+                for (int i = 0; i < INDEX_BUILD_CHUNK; i++) {
+                    Student student = firstIntake.deleteLast();
+                    ActionType action = ActionType.ADD_FIRST;
+                    if (student == null) {
+                        student = lastIntake.deleteFirst();
+                        action = ActionType.ADD_LAST;
+                    }
+                    if (student == null) {
+                        break;
+                    }
+                    more = i == INDEX_BUILD_CHUNK - 1;
+                    if (findNodeByCode(student.getId()) != null) {
+                        rejected.add(student);
+                        continue;
+                    }
+                    try {
+                        sequence = journaled(action, null, student);
+                    } catch (IllegalStateException e) {
+                        if (action == ActionType.ADD_FIRST) {
+                            firstIntake.addNodeLast(student);
+                        } else {
+                            lastIntake.addNodeFirst(student);
+                        }
+                        rejected.forEach(rejectedIntake::addNodeLast);
+                        throw e;
+                    }
+                    if (action == ActionType.ADD_FIRST) {
+                        studentList.addNodeFirst(student);
+                    } else {
+                        studentList.addNodeLast(student);
+                    }
+                    added(student);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        committed(sequence);
+        return rejected;
     }
 
     /**
@@ -162,8 +841,10 @@ public class StudentHandler{
             throw new IllegalArgumentException("The student code cannot be null or empty.");
         }
 
-        Node<Student> foundNode = studentList.findNode(code);
-        return (foundNode != null) ? foundNode.getInfo() : null;
+        return StampedReads.locked(lock, () -> {
+            Node<Student> foundNode = studentList.findNode(code);
+            return (foundNode != null) ? foundNode.getInfo() : null;
+        });
     }
 
     /**
@@ -190,18 +871,28 @@ public class StudentHandler{
             throw new IllegalArgumentException("Updated student fields cannot be null.");
         }
 
-        Node<Student> foundNode = studentList.findNode(code);
-        if (foundNode != null) {
+        long stamp = lock.writeLock();
+        long sequence;
+        try {
+            Node<Student> foundNode = studentList.findNode(code);
+            if (foundNode == null) {
+                throw new IllegalStateException("Student with the given code not found.");
+            }
             Student updatedStudent = new Student(code, name, lastname, email, gender, career);
             if (!foundNode.getInfo().getId().equals(updatedStudent.getId())) {
-                if (studentExists(updatedStudent.getId())) {
+                if (findNodeByCode(updatedStudent.getId()) != null) {
                     throw new IllegalArgumentException("The ID is already in use.");
                 }
             }
-            foundNode.setInfo(updatedStudent);
-            return true;
+            sequence = journaled(ActionType.UPDATE, null, updatedStudent);
+            unindexed(foundNode);
+            studentList.setNodeInfo(foundNode, updatedStudent);
+            indexed(foundNode);
+            snapshot = snapshot.set(studentList.getPosition(foundNode), updatedStudent);
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        throw new IllegalStateException("Student with the given code not found.");
+        return committed(sequence);
     }
 
     /**
@@ -218,22 +909,372 @@ public class StudentHandler{
             throw new IllegalArgumentException("The student code cannot be null or empty.");
         }
 
-        Node<Student> foundNode = studentList.findNode(code);
-        if (foundNode != null) {
+        long stamp = lock.writeLock();
+        long sequence;
+        try {
+            Node<Student> foundNode = studentList.findNode(code);
+            if (foundNode == null) {
+                throw new IllegalStateException("Student with the given code not found.");
+            }
+            int position = studentList.getPosition(foundNode);
+            sequence = journaled(ActionType.DELETE, code, null);
+            unindexed(foundNode);
+            statisticsBuild.skip(foundNode);
+            fieldBuild.skip(foundNode);
+            prefixBuild.skip(foundNode);
+            fuzzyBuild.skip(foundNode);
             studentList.deleteNode(foundNode);
-            return true;
+            snapshot = snapshot.remove(position);
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        throw new IllegalStateException("Student with the given code not found.");
+        return committed(sequence);
     }
 
     /**
      * Lists all students in either ascending or descending order.
+     * <p>
+     * The list is a read-only snapshot taken in O(1) without locking or
+     * copying: it keeps showing the students as they were when it was taken,
+     * however the handler changes afterwards.
      *
      * @param ascending whether to list in ascending order
-     * @return a list of all students
+     * @return a read-only list of all students
      */
     public List<Student> listAllStudents(boolean ascending) {
-        return studentList.getLinkedList(ascending);
+        return snapshot.asList(ascending);
+    }
+
+    /**
+     * Lists one page of students in code order, starting after the page that
+     * returned a cursor. Resuming from a cursor seeks to it in logarithmic
+     * time and walks only the students of the page.
+     * <p>
+     * A cursor holds the code of the last student of its page rather than a
+     * position, so it stays valid however the list changes in between: the
+     * next page starts at the first student whose code follows it at the time
+     * the page is asked for. Students added after the cursor are included,
+     * and students deleted before the next page are skipped, whether or not
+     * the cursor's own student is still there.
+     * <p>
+     * While the list is not in code order, as positional insertions may leave
+     * it, the pages still follow code order, so a cursor means the same in
+     * either case and the list may change between the two. There is no index
+     * to seek with then, so each page scans the current snapshot of the list
+     * without locking and keeps only the students of the page, in
+     * O(n log pageSize) time.
+     *
+     * @param afterCode the cursor returned with the previous page, or null
+     *                  for the first page
+     * @param pageSize  the maximum number of students in the page
+     * @param ascending true to list in ascending order, false for descending
+     *                  order; it must not change between pages
+     * @return the page, with the cursor of the next page if there is one
+     * @throws IllegalArgumentException if the cursor is not valid or the page
+     *                                  size is not positive
+     */
+    public StudentPage listStudentsPage(String afterCode, int pageSize, boolean ascending) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The page size must be at least 1.");
+        }
+        String after = afterCode == null ? null : decodeCursor(afterCode);
+
+        List<Student> students = new ArrayList<>(Math.min(pageSize, 64));
+        boolean more = false;
+        long stamp = lock.readLock();
+        try {
+            if (!studentList.isSorted()) {
+                return pageOutOfOrder(snapshot, after, pageSize, ascending);
+            }
+            Iterator<Student> range = ascending ? studentList.rangeIterator(after, null, true)
+                    : studentList.rangeIterator(null, after, false);
+            while (range.hasNext()) {
+                Student student = range.next();
+                if (student.getId().equals(after)) {
+                    continue;
+                }
+                if (students.size() == pageSize) {
+                    more = true;
+                    break;
+                }
+                students.add(student);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        String next = more ? encodeCursor(students.get(students.size() - 1).getId()) : null;
+        return new StudentPage(students, next);
+    }
+
+    /**
+     * Lists one page of students in code order from a snapshot of a list that
+     * is not in code order, keeping only the students of the page, and one
+     * more to tell whether another page follows, while it scans the snapshot.
+     *
+     * @param students  the snapshot to scan
+     * @param after     the code of the cursor's student, or null for the
+     *                  first page
+     * @param pageSize  the maximum number of students in the page
+     * @param ascending true to list in ascending order, false for descending
+     *                  order
+     * @return the page, with the cursor of the next page if there is one
+     */
+    private static StudentPage pageOutOfOrder(PersistentSequence<Student> students, String after, int pageSize,
+            boolean ascending) {
+        Comparator<Student> order = ascending ? Comparator.comparing(Student::getId)
+                : Comparator.comparing(Student::getId).reversed();
+        PriorityQueue<Student> kept = new PriorityQueue<>(order.reversed());
+        for (Student student : students.asList(true)) {
+            if (after != null) {
+                int side = student.getId().compareTo(after);
+                if (ascending ? side <= 0 : side >= 0) {
+                    continue;
+                }
+            }
+            kept.add(student);
+            if (kept.size() > pageSize + 1) {
+                kept.poll();
+            }
+        }
+        List<Student> page = new ArrayList<>(kept);
+        page.sort(order);
+        boolean more = page.size() > pageSize;
+        if (more) {
+            page.remove(pageSize);
+        }
+        return new StudentPage(page, more ? encodeCursor(page.get(pageSize - 1).getId()) : null);
+    }
+
+    /**
+     * Finds the students whose codes fall between two codes, both included.
+     * The search seeks to the first match in logarithmic time and the
+     * returned iterator then walks only the matching students, one at a time,
+     * without copying them. While the list is not in code order, as
+     * positional insertions may leave it, the walk covers the whole list.
+     * <p>
+     * The iterator walks the same O(1) snapshot as {@link #listAllStudents},
+     * without locking, so it shows the range as it was when it was created
+     * and students added or deleted while it is in use do not disturb it.
+     *
+     * @param from      the lowest code of the range
+     * @param to        the highest code of the range
+     * @param ascending true to walk the range in ascending order, false for
+     *                  descending order
+     * @return an iterator over the students in the range
+     * @throws IllegalArgumentException if a code is null or empty, or if the
+     *                                  lowest code is greater than the highest
+     */
+    public Iterator<Student> findByCodeRange(String from, String to, boolean ascending) {
+        if (from == null || from.isEmpty() || to == null || to.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
+        }
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("The lowest code cannot be greater than the highest code.");
+        }
+
+        PersistentSequence<Student> students;
+        boolean sorted;
+        long stamp = lock.readLock();
+        try {
+            students = snapshot;
+            sorted = studentList.isSorted();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        String first = ascending ? from : to;
+        String last = ascending ? to : from;
+        if (!sorted) {
+            return students.asList(ascending).stream()
+                    .filter(student -> student.getId().compareTo(from) >= 0 && student.getId().compareTo(to) <= 0)
+                    .iterator();
+        }
+        List<Student> view = students.asList(ascending);
+        int low = 0;
+        int high = view.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int side = view.get(middle).getId().compareTo(first);
+            if (ascending ? side < 0 : side > 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        Iterator<Student> walk = students.iterator(low, ascending);
+        return new Iterator<>() {
+            private Student next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Student next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Student student = next;
+                next = advance();
+                return student;
+            }
+
+            /**
+             * Reads the next student of the walk if it is still in the range.
+             *
+             * @return the student, or null once the range is over
+             */
+            private Student advance() {
+                if (!walk.hasNext()) {
+                    return null;
+                }
+                Student student = walk.next();
+                int side = student.getId().compareTo(last);
+                return (ascending ? side <= 0 : side >= 0) ? student : null;
+            }
+        };
+    }
+
+    /**
+     * Counts the students in total, by career and by gender. The counts are
+     * kept by the career and gender indexes as students are added, updated
+     * and deleted, so reading them takes time proportional to the number of
+     * careers rather than of students, and they all match the list at a
+     * single moment. After a load it waits only for those two indexes, not
+     * for the text indexes.
+     *
+     * @return the counts of students
+     */
+    public StudentStatistics getStatistics() {
+        TreeMap<String, Integer> byCareer = new TreeMap<>();
+        EnumMap<EGender, Integer> byGender = new EnumMap<>(EGender.class);
+        return readBuilt(statisticsBuild, () -> {
+            careerIndex.countInto(byCareer);
+            genderIndex.countInto(byGender);
+            return new StudentStatistics(studentList.getSize(), byCareer, byGender);
+        });
+    }
+
+    /**
+     * Finds the students of a career, in the time it takes to copy them.
+     *
+     * @param career the career to search for
+     * @return the students of the career, in the order they were indexed
+     * @throws IllegalArgumentException if the career is null
+     */
+    public List<Student> findByCareer(String career) {
+        if (career == null) {
+            throw new IllegalArgumentException("The career cannot be null.");
+        }
+        return findIndexed(statisticsBuild, careerIndex, career);
+    }
+
+    /**
+     * Finds the students of a gender, in the time it takes to copy them.
+     *
+     * @param gender the gender to search for
+     * @return the students of the gender, in the order they were indexed
+     * @throws IllegalArgumentException if the gender is null
+     */
+    public List<Student> findByGender(EGender gender) {
+        if (gender == null) {
+            throw new IllegalArgumentException("The gender cannot be null.");
+        }
+        return findIndexed(statisticsBuild, genderIndex, gender);
+    }
+
+    /**
+     * Finds the students with an email, in the time it takes to copy them.
+     * Emails are not required to be unique, so several students may share one.
+     *
+     * @param email the email to search for
+     * @return the students with the email, in the order they were indexed
+     * @throws IllegalArgumentException if the email is null
+     */
+    public List<Student> findByEmail(String email) {
+        if (email == null) {
+            throw new IllegalArgumentException("The email cannot be null.");
+        }
+        return findIndexed(fieldBuild, emailIndex, email);
+    }
+
+    /**
+     * Finds the students with a last name, in the time it takes to copy them.
+     *
+     * @param lastname the last name to search for
+     * @return the students with the last name, in the order they were indexed
+     * @throws IllegalArgumentException if the last name is null
+     */
+    public List<Student> findByLastName(String lastname) {
+        if (lastname == null) {
+            throw new IllegalArgumentException("The last name cannot be null.");
+        }
+        return findIndexed(fieldBuild, lastNameIndex, lastname);
+    }
+
+    /**
+     * Finds the first students, in alphabetical order of the matching name,
+     * whose name or last name starts with a prefix, ignoring case. It takes
+     * time proportional to the prefix and the number of students returned.
+     *
+     * @param prefix the first letters of the name or last name
+     * @param limit  the maximum number of students to return
+     * @return the matching students
+     * @throws IllegalArgumentException if the prefix is null or the limit is
+     *                                  not positive
+     */
+    public List<Student> findByNamePrefix(String prefix, int limit) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("The prefix cannot be null.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("The limit must be at least 1.");
+        }
+        return readBuilt(prefixBuild, () -> namePrefixIndex.find(prefix, limit));
+    }
+
+    /**
+     * Searches the students whose name, last name, email or career resemble a
+     * query, tolerating typos, accents and words in another order.
+     *
+     * @param query the text to search for
+     * @param limit the maximum number of students to return
+     * @return the matching students, best match first
+     * @throws IllegalArgumentException if the query is null or the limit is
+     *                                  not positive
+     */
+    public List<Student> searchStudents(String query, int limit) {
+        if (query == null) {
+            throw new IllegalArgumentException("The query cannot be null.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("The limit must be at least 1.");
+        }
+        return readBuilt(fuzzyBuild, () -> fuzzyIndex.search(query, limit));
+    }
+
+    /**
+     * Returns a sequential stream over the students in ascending list order.
+     * The stream reads the same O(1) snapshot as {@link #listAllStudents},
+     * without copying or locking, so it shows the students as they were when
+     * it was created and changes made while it is consumed do not disturb it.
+     *
+     * @return a stream of all students
+     */
+    public Stream<Student> stream() {
+        return snapshot.asList(true).stream();
+    }
+
+    /**
+     * Returns a parallel stream over the students in ascending list order.
+     * The snapshot is split into balanced halves by position for the worker
+     * threads, and changes made while the stream is consumed do not disturb
+     * it.
+     *
+     * @return a parallel stream of all students
+     */
+    public Stream<Student> parallelStream() {
+        return snapshot.asList(true).parallelStream();
     }
 
     /**
@@ -242,7 +1283,7 @@ public class StudentHandler{
      * @return true if the list is empty, false otherwise
      */
     public boolean isEmpty() {
-        return studentList.isEmpty();
+        return StampedReads.optimistic(lock, studentList::isEmpty);
     }
 
     /**
@@ -251,7 +1292,7 @@ public class StudentHandler{
      * @return the number of students
      */
     public int getNumberOfStudents() {
-        return studentList.getSize();
+        return StampedReads.optimistic(lock, studentList::getSize);
     }
 
     /**
@@ -260,7 +1301,7 @@ public class StudentHandler{
      * @return the first student, or null if the list is empty
      */
     public Student getFirstStudent() {
-        return studentList.isEmpty() ? null : studentList.getFirst();
+        return StampedReads.locked(lock, studentList::getFirst);
     }
 
     /**
@@ -269,7 +1310,7 @@ public class StudentHandler{
      * @return the last student, or null if the list is empty
      */
     public Student getLastStudent() {
-        return studentList.isEmpty() ? null : studentList.getLast();
+        return StampedReads.locked(lock, studentList::getLast);
     }
 
     /**
@@ -296,18 +1337,25 @@ public class StudentHandler{
             throw new IllegalArgumentException("Student fields cannot be null.");
         }
 
-        if (studentExists(id)) {
-            throw new IllegalArgumentException("The ID is already in use.");
-        }
+        long stamp = lock.writeLock();
+        long sequence;
+        try {
+            if (findNodeByCode(id) != null) {
+                throw new IllegalArgumentException("The ID is already in use.");
+            }
 
-        Node<Student> foundNode = studentList.findNode(code);
-        if (foundNode != null) {
+            Node<Student> foundNode = studentList.findNode(code);
+            if (foundNode == null) {
+                throw new IllegalArgumentException("Student with the given code not found.");
+            }
             Student student = new Student(id, name, lastname, email, gender, career);
+            sequence = journaled(ActionType.ADD_BEFORE, code, student);
             studentList.addNodeBeforeTo(foundNode, student);
-            return true;
-        } else {
-            throw new IllegalArgumentException("Student with the given code not found.");
+            added(student);
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        return committed(sequence);
     }
 
     /**
@@ -334,18 +1382,25 @@ public class StudentHandler{
             throw new IllegalArgumentException("Student fields cannot be null.");
         }
 
-        if (studentExists(id)) {
-            throw new IllegalArgumentException("The ID is already in use.");
-        }
+        long stamp = lock.writeLock();
+        long sequence;
+        try {
+            if (findNodeByCode(id) != null) {
+                throw new IllegalArgumentException("The ID is already in use.");
+            }
 
-        Node<Student> foundNode = studentList.findNode(code);
-        if (foundNode != null) {
+            Node<Student> foundNode = studentList.findNode(code);
+            if (foundNode == null) {
+                throw new IllegalArgumentException("Student with the given code not found.");
+            }
             Student student = new Student(id, name, lastname, email, gender, career);
+            sequence = journaled(ActionType.ADD_AFTER, code, student);
             studentList.addNodeAfterTo(foundNode, student);
-            return true;
-        } else {
-            throw new IllegalArgumentException("Student with the given code not found.");
+            added(student);
+        } finally {
+            lock.unlockWrite(stamp);
         }
+        return committed(sequence);
     }
 
     /**
@@ -356,10 +1411,35 @@ public class StudentHandler{
      * @throws IllegalArgumentException if the position is invalid
      */
     public Student getStudentByPosition(int position) {
-        if (position < 0 || position >= getNumberOfStudents()) {
-            throw new IllegalArgumentException("Position invalid, it starts from 0.");
+        return StampedReads.locked(lock, () -> {
+            if (position < 0 || position >= studentList.getSize()) {
+                throw new IllegalArgumentException("Position invalid, it starts from 0.");
+            }
+            return studentList.getObject(position);
+        });
+    }
+
+    /**
+     * Retrieves the position of a student in the list.
+     *
+     * @param code the student's code
+     * @return the position of the student (starting from 0)
+     * @throws IllegalArgumentException if the code is null or empty
+     * @throws IllegalStateException    if a student with the given code is not
+     *                                  found
+     */
+    public int getStudentPosition(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
         }
-        return studentList.getObject(position);
+
+        return StampedReads.locked(lock, () -> {
+            Node<Student> foundNode = studentList.findNode(code);
+            if (foundNode != null) {
+                return studentList.getPosition(foundNode);
+            }
+            throw new IllegalStateException("Student with the given code not found.");
+        });
     }
 
     /**
@@ -372,6 +1452,333 @@ public class StudentHandler{
         return findStudentByCode(code) != null;
     }
 
+    /**
+     * Records a student just linked into the list in the snapshot, at the
+     * position it was given in the list, and in the secondary indexes; the
+     * caller must hold the write lock.
+     *
+     * @param student the student that was added
+     */
+    private void added(Student student) {
+        Node<Student> node = studentList.findNode(student.getId());
+        snapshot = snapshot.insert(studentList.getPosition(node), student);
+        indexed(node);
+    }
+
+    /**
+     * Adds the students of a snapshot at the end of the list in one pass,
+     * leaving the indexes to be built in the background.
+     *
+     * @param students the students, in list order
+     */
+    private void loaded(List<Student> students) {
+        long stamp = lock.writeLock();
+        try {
+            studentList.addAllLast(students);
+            snapshot = PersistentSequence.of(students);
+            deferIndexes();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Starts the indexes over from the whole list, which was just loaded
+     * while they were empty without updating them, and hands their building
+     * to the index builder; the caller must hold the write lock.
+     */
+    private void deferIndexes() {
+        Node<Student> first = studentList.getSize() == 0 ? null : studentList.getNode(0);
+        statisticsBuild.restart(first);
+        fieldBuild.restart(first);
+        prefixBuild.restart(first);
+        fuzzyBuild.restart(first);
+        if (first != null && !indexBuilder.isShutdown()) {
+            indexBuilder.execute(this::buildIndexes);
+        }
+    }
+
+    /**
+     * Runs the index builds on the index builder, statistics first, a chunk
+     * at a time, until they are done or the builder is stopped.
+     */
+    private void buildIndexes() {
+        for (IndexBuild build : List.of(statisticsBuild, fieldBuild, prefixBuild, fuzzyBuild)) {
+            while (!build.built && !Thread.currentThread().isInterrupted()) {
+                step(build);
+            }
+        }
+    }
+
+    /**
+     * Waits until an index build is done, without taking the lock, so that
+     * reads and writes go on meanwhile; only if the handler was restarted,
+     * stopping its builder, does the caller finish the build itself. The
+     * caller must not hold the lock.
+     *
+     * @param build the build to wait for
+     */
+    private void awaitBuild(IndexBuild build) {
+        while (!build.await(indexBuilder)) {
+            step(build);
+        }
+    }
+
+    /**
+     * Runs a read of some indexes under the read lock once their build is
+     * done. A load may restart the build between the wait and the read lock,
+     * so the build is checked again under the lock, and the read waits again
+     * if it was restarted.
+     *
+     * @param <R>    the type of the result
+     * @param build  the build of the indexes read
+     * @param reader the read to run
+     * @return the result of the read
+     */
+    private <R> R readBuilt(IndexBuild build, Supplier<R> reader) {
+        while (true) {
+            awaitBuild(build);
+            long stamp = lock.readLock();
+            try {
+                if (build.built) {
+                    return reader.get();
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Adds the next chunk of nodes of an index build under the write lock;
+     * the caller must not hold the lock.
+     *
+     * @param build the build to go on with
+     */
+    private void step(IndexBuild build) {
+        long stamp = lock.writeLock();
+        try {
+            if (!build.built) {
+                build.step();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Hands a drain of the intake to the index builder, unless one is already
+     * waiting there or the builder was stopped. A drain clears the flag
+     * before it starts, so students handed in while it runs get a drain of
+     * their own.
+     */
+    private void scheduleDrain() {
+        if (drainScheduled.get() || !drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        if (indexBuilder.isShutdown()) {
+            drainScheduled.set(false);
+            return;
+        }
+        indexBuilder.execute(() -> {
+            drainScheduled.set(false);
+            drainIntake().forEach(rejectedIntake::addNodeLast);
+        });
+    }
 
+    /**
+     * Runs a compaction of the trigram index on the index builder: copies the
+     * live nodes a chunk at a time under the read lock, so that searches go
+     * on, and takes the write lock only to apply the changes made meanwhile
+     * and swap the postings in. It gives up if the builder is stopped.
+     */
+    private void compactFuzzyIndex() {
+        boolean copied = false;
+        while (!copied) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            long stamp = lock.readLock();
+            try {
+                copied = fuzzyIndex.compactStep(INDEX_BUILD_CHUNK);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        long stamp = lock.writeLock();
+        try {
+            fuzzyIndex.finishCompaction();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
 
+    /**
+     * Records a change in the journal, if there is one; the caller must hold
+     * the write lock, so that changes are recorded in the order they are
+     * applied, and must have validated the change but not yet applied it, so
+     * that a journal that is closed or has failed rejects it before the
+     * students change.
+     *
+     * @param action  the kind of change
+     * @param code    the code of the reference or deleted student
+     * @param student the student added or updated
+     * @return the sequence number of the change, or 0 without a journal
+     */
+    private long journaled(ActionType action, String code, Student student) {
+        StudentJournal current = journal;
+        return current == null ? 0 : current.append(action, code, student);
+    }
+
+    /**
+     * Waits until a recorded change is forced to disk, after the write lock
+     * has been released.
+     *
+     * @param sequence the sequence number of the change, or 0 if it was not
+     *                 recorded
+     * @return true, once the change is durable
+     */
+    private boolean committed(long sequence) {
+        StudentJournal current = journal;
+        if (sequence != 0 && current != null) {
+            current.awaitDurable(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * Applies the changes of a journal after a sequence number, adding each
+     * run of sorted insertions in one batch; no journal must be open.
+     *
+     * @param source        the journal to read
+     * @param afterSequence the sequence number after which to start
+     * @return the number of changes applied
+     * @throws IOException if the journal cannot be read
+     */
+    private long replay(StudentJournal source, long afterSequence) throws IOException {
+        List<Student> run = new ArrayList<>();
+        long replayed = source.replay(afterSequence, entry -> {
+            if (entry.getAction() == ActionType.ADD) {
+                run.add(entry.getStudent());
+                return;
+            }
+            if (!run.isEmpty()) {
+                addStudents(run);
+                run.clear();
+            }
+            Student student = entry.getStudent();
+            switch (entry.getAction()) {
+                case ADD_FIRST -> addStudentFirst(student.getId(), student.getName(), student.getLastName(),
+                        student.getEmail(), student.getGender(), student.getCareer());
+                case ADD_LAST -> addStudentLast(student.getId(), student.getName(), student.getLastName(),
+                        student.getEmail(), student.getGender(), student.getCareer());
+                case ADD_BEFORE -> addStudentBefore(entry.getCode(), student.getId(), student.getName(),
+                        student.getLastName(), student.getEmail(), student.getGender(), student.getCareer());
+                case ADD_AFTER -> addStudentAfter(entry.getCode(), student.getId(), student.getName(),
+                        student.getLastName(), student.getEmail(), student.getGender(), student.getCareer());
+                case UPDATE -> updateStudent(student.getId(), student.getName(), student.getLastName(),
+                        student.getEmail(), student.getGender(), student.getCareer());
+                case DELETE -> deleteStudent(entry.getCode());
+                default -> throw new IllegalStateException("Unknown journal action " + entry.getAction() + ".");
+            }
+        });
+        if (!run.isEmpty()) {
+            addStudents(run);
+        }
+        return replayed;
+    }
+
+    /**
+     * Adds a student node to every secondary index; the caller must hold the
+     * write lock.
+     *
+     * @param node the node of the student
+     */
+    private void indexed(Node<Student> node) {
+        careerIndex.add(node);
+        genderIndex.add(node);
+        emailIndex.add(node);
+        lastNameIndex.add(node);
+        namePrefixIndex.add(node);
+        fuzzyIndex.add(node);
+    }
+
+    /**
+     * Removes a student node from every secondary index, before its student is
+     * replaced or deleted, and hands the compaction of the trigram index to
+     * the index builder once it needs one; the caller must hold the write
+     * lock.
+     *
+     * @param node the node of the student
+     */
+    private void unindexed(Node<Student> node) {
+        careerIndex.remove(node);
+        genderIndex.remove(node);
+        emailIndex.remove(node);
+        lastNameIndex.remove(node);
+        namePrefixIndex.remove(node);
+        fuzzyIndex.remove(node);
+        if (fuzzyIndex.needsCompaction() && !indexBuilder.isShutdown()) {
+            fuzzyIndex.startCompaction();
+            indexBuilder.execute(this::compactFuzzyIndex);
+        }
+    }
+
+    /**
+     * Turns the code of the last student of a page into a cursor.
+     *
+     * @param code the student's code
+     * @return the cursor
+     */
+    private static String encodeCursor(String code) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the code of the last student of a page back from its cursor.
+     *
+     * @param cursor the cursor
+     * @return the student's code
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    private static String decodeCursor(String cursor) {
+        try {
+            String code = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!code.isEmpty()) {
+                return code;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("The cursor is not valid.");
+    }
+
+    /**
+     * Runs a search of a secondary index under the read lock, once the index
+     * is built.
+     *
+     * @param <K>   the type of the indexed field
+     * @param build the build of the index
+     * @param index the index to search
+     * @param key   the key to search for
+     * @return the students with the key
+     */
+    private <K> List<Student> findIndexed(IndexBuild build, SecondaryIndex<Student, K> index, K key) {
+        return readBuilt(build, () -> index.find(key));
+    }
+
+    /**
+     * Finds the node of a student without locking; the caller must hold the
+     * lock.
+     *
+     * @param code the student's code
+     * @return the node of the student, or null if not found
+     * @throws IllegalArgumentException if the code is null or empty
+     */
+    private Node<Student> findNodeByCode(String code) {
+        if (code == null || code.isEmpty()) {
+            throw new IllegalArgumentException("The student code cannot be null or empty.");
+        }
+        return studentList.findNode(code);
+    }
 }
@@ -0,0 +1,632 @@
+package controller;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Bulk importer of students from CSV files into a {@link StudentHandler}.
+ * <p>
+ * Each line of the file holds one student as its code, name, last name,
+ * email, gender and career, separated by commas. A field may be quoted to
+ * hold commas, with quotes doubled inside it, but not line breaks. The gender
+ * is one of the {@link EGender} names in any case. A first line whose gender
+ * column reads {@code gender} is taken as a header and skipped, and so are
+ * blank lines.
+ * <p>
+ * The file is split on line boundaries into chunks that are mapped read-only
+ * and parsed in parallel straight from the mapping: no string is made for a
+ * line, genders are matched on their bytes, and the careers repeated across
+ * rows share one string. Rows that cannot be parsed or whose code is repeated
+ * in the file or already in use are reported by line number and left out; the
+ * others are handed in code order to {@link StudentHandler#addStudents}, which
+ * merges them into the list in one pass.
+ */
+public final class StudentImporter {
+
+    /**
+     * The outcome of an import.
+     */
+    public static final class Result {
+
+        /**
+         * The number of students added.
+         */
+        private final int imported;
+
+        /**
+         * The reason each rejected row was left out, by line number.
+         */
+        private final SortedMap<Long, String> errors;
+
+        /**
+         * Creates a result.
+         *
+         * @param imported the number of students added
+         * @param errors   the reason each rejected row was left out, by line
+         *                 number
+         */
+        Result(int imported, SortedMap<Long, String> errors) {
+            this.imported = imported;
+            this.errors = Collections.unmodifiableSortedMap(errors);
+        }
+
+        /**
+         * Gets the number of students added.
+         *
+         * @return the number of rows imported
+         */
+        public int getImported() {
+            return imported;
+        }
+
+        /**
+         * Gets the rows that were left out.
+         *
+         * @return a read-only map from the line number of each rejected row,
+         *         starting from 1, to the reason it was rejected
+         */
+        public SortedMap<Long, String> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Checks whether any row was left out.
+         *
+         * @return true if there are errors
+         */
+        public boolean hasErrors() {
+            return !errors.isEmpty();
+        }
+    }
+
+    /**
+     * Number of fields of each row.
+     */
+    private static final int FIELDS = 6;
+
+    /**
+     * Position of the gender among the fields of a row.
+     */
+    private static final int GENDER = 4;
+
+    /**
+     * Number of chunks the file is split into for each thread, so that threads
+     * finishing early can take over the remaining work.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Largest size a chunk is meant to have, below the limit of one mapping.
+     */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    /**
+     * Number of careers remembered by each chunk parser.
+     */
+    private static final int CAREER_CACHE_SIZE = 256;
+
+    /**
+     * The genders, by ordinal.
+     */
+    private static final EGender[] GENDERS = EGender.values();
+
+    /**
+     * The names of the genders in ASCII, by ordinal.
+     */
+    private static final byte[][] GENDER_NAMES = Arrays.stream(GENDERS)
+            .map(gender -> gender.name().getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+
+    /**
+     * The handler the students are added to.
+     */
+    private final StudentHandler handler;
+
+    /**
+     * Number of threads that parse the chunks.
+     */
+    private final int threads;
+
+    /**
+     * Creates an importer.
+     *
+     * @param handler the handler the students are added to
+     * @param threads the number of threads that parse the file
+     * @throws IllegalArgumentException if the handler is null or the number
+     *                                  of threads is not positive
+     */
+    public StudentImporter(StudentHandler handler, int threads) {
+        if (handler == null) {
+            throw new IllegalArgumentException("The handler cannot be null.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive.");
+        }
+        this.handler = handler;
+        this.threads = threads;
+    }
+
+    /**
+     * Imports the students of a CSV file, adding every valid row and reporting
+     * the others.
+     *
+     * @param file the file to import
+     * @return the number of students added and the rows left out
+     * @throws IOException              if the file cannot be read or the
+     *                                  thread is interrupted while parsing it
+     * @throws IllegalArgumentException if a code of the file was added to the
+     *                                  handler while importing, in which case
+     *                                  no student is added
+     */
+    public Result importFile(Path file) throws IOException {
+        List<Chunk> chunks;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            chunks = parse(channel, split(channel));
+        }
+
+        List<Row> rows = new ArrayList<>();
+        TreeMap<Long, String> errors = new TreeMap<>();
+        long offset = 0;
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.students.size(); i++) {
+                rows.add(new Row(chunk.students.get(i), offset + chunk.rowLines[i]));
+            }
+            for (Map.Entry<Long, String> error : chunk.errors.entrySet()) {
+                errors.put(offset + error.getKey(), error.getValue());
+            }
+            offset += chunk.lines;
+        }
+
+        Row[] sorted = rows.toArray(new Row[0]);
+        Arrays.parallelSort(sorted, Comparator.comparing(row -> row.student.getId()));
+        List<Student> students = new ArrayList<>(sorted.length);
+        boolean empty = handler.isEmpty();
+        long firstLine = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            Row row = sorted[i];
+            if (i > 0 && sorted[i - 1].student.getId().equals(row.student.getId())) {
+                errors.put(row.line, "The code is repeated from line " + firstLine + ".");
+                continue;
+            }
+            firstLine = row.line;
+            if (!empty && handler.studentExists(row.student.getId())) {
+                errors.put(row.line, "A student with the same code already exists.");
+            } else {
+                students.add(row.student);
+            }
+        }
+        if (!students.isEmpty()) {
+            handler.addStudents(students);
+        }
+        return new Result(students.size(), errors);
+    }
+
+    /**
+     * Splits a file into chunks that start at the beginning of a line.
+     *
+     * @param channel the file
+     * @return the offset of each chunk followed by the size of the file;
+     *         consecutive offsets may be equal
+     * @throws IOException if the file cannot be read
+     */
+    private long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int count = (int) Math.max((long) threads * CHUNKS_PER_THREAD, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        long[] bounds = new long[count + 1];
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < count; i++) {
+            bounds[i] = nextLine(channel, Math.max(bounds[i - 1], size * i / count), probe);
+        }
+        bounds[count] = size;
+        return bounds;
+    }
+
+    /**
+     * Finds the first line of a file that starts at or after an offset.
+     *
+     * @param channel  the file
+     * @param position the offset
+     * @param probe    a buffer to read the file through
+     * @return the offset of the line, or the size of the file if there is none
+     * @throws IOException if the file cannot be read
+     */
+    private static long nextLine(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        for (long offset = position - 1;;) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Parses the chunks of a file on a pool of threads.
+     *
+     * @param channel the file
+     * @param bounds  the offset of each chunk followed by the size of the file
+     * @return the parsed chunks, in file order
+     * @throws IOException if the file cannot be read or the thread is
+     *                     interrupted
+     */
+    private List<Chunk> parse(FileChannel channel, long[] bounds) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Chunk>> futures = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long size = bounds[i + 1] - start;
+                if (size > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("A line of the file is too long.");
+                }
+                futures.add(executor.submit(() -> new Chunk(size == 0 ? ByteBuffer.allocate(0)
+                        : channel.map(FileChannel.MapMode.READ_ONLY, start, size), start == 0).parse()));
+            }
+            List<Chunk> chunks = new ArrayList<>(futures.size());
+            for (Future<Chunk> future : futures) {
+                chunks.add(future.get());
+            }
+            return chunks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing the file.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A parsed student and the line it was read from.
+     */
+    private static final class Row {
+
+        /**
+         * The student.
+         */
+        private final Student student;
+
+        /**
+         * The line number of the student in the file.
+         */
+        private final long line;
+
+        /**
+         * Creates a row.
+         *
+         * @param student the student
+         * @param line    the line number of the student in the file
+         */
+        Row(Student student, long line) {
+            this.student = student;
+            this.line = line;
+        }
+    }
+
+    /**
+     * Parser of one chunk of a file, with the students and errors it found.
+     * Line numbers are counted from the start of the chunk.
+     */
+    private static final class Chunk {
+
+        /**
+         * The bytes of the chunk.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Whether the chunk starts the file.
+         */
+        private final boolean first;
+
+        /**
+         * The students parsed, in file order.
+         */
+        private final List<Student> students;
+
+        /**
+         * The line number of each student parsed.
+         */
+        private int[] rowLines;
+
+        /**
+         * The reason each rejected row was left out, by line number.
+         */
+        private final TreeMap<Long, String> errors;
+
+        /**
+         * The number of lines of the chunk.
+         */
+        private int lines;
+
+        /**
+         * Offsets of the fields of the current line.
+         */
+        private final int[] starts;
+
+        /**
+         * Offsets past the end of the fields of the current line.
+         */
+        private final int[] ends;
+
+        /**
+         * Whether each field of the current line was quoted.
+         */
+        private final boolean[] quoted;
+
+        /**
+         * Scratch array that field bytes are copied into to be decoded.
+         */
+        private byte[] scratch;
+
+        /**
+         * Bytes of the careers remembered, by hash.
+         */
+        private final byte[][] careerBytes;
+
+        /**
+         * The careers remembered, by hash.
+         */
+        private final String[] careers;
+
+        /**
+         * Creates a chunk parser.
+         *
+         * @param buffer the bytes of the chunk
+         * @param first  whether the chunk starts the file
+         */
+        Chunk(ByteBuffer buffer, boolean first) {
+            this.buffer = buffer;
+            this.first = first;
+            this.students = new ArrayList<>();
+            this.rowLines = new int[64];
+            this.errors = new TreeMap<>();
+            this.starts = new int[FIELDS];
+            this.ends = new int[FIELDS];
+            this.quoted = new boolean[FIELDS];
+            this.scratch = new byte[256];
+            this.careerBytes = new byte[CAREER_CACHE_SIZE][];
+            this.careers = new String[CAREER_CACHE_SIZE];
+        }
+
+        /**
+         * Parses every line of the chunk.
+         *
+         * @return this chunk
+         */
+        Chunk parse() {
+            int limit = buffer.limit();
+            int position = 0;
+            if (first && limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB
+                    && buffer.get(2) == (byte) 0xBF) {
+                position = 3;
+            }
+            while (position < limit) {
+                int end = position;
+                while (end < limit && buffer.get(end) != '\n') {
+                    end++;
+                }
+                parseLine(position, end, ++lines);
+                position = end + 1;
+            }
+            return this;
+        }
+
+        /**
+         * Parses one line into a student, or records why it was rejected.
+         *
+         * @param start the offset of the line
+         * @param end   the offset of its line break, or of the end of the chunk
+         * @param line  the line number
+         */
+        private void parseLine(int start, int end, int line) {
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end == start) {
+                return;
+            }
+            int count = splitFields(start, end);
+            if (count < 0) {
+                errors.put((long) line, "A quoted field is not closed or is followed by other characters.");
+                return;
+            }
+            if (count != FIELDS) {
+                errors.put((long) line, "Expected " + FIELDS + " fields but found " + count + ".");
+                return;
+            }
+            EGender gender = gender(starts[GENDER], ends[GENDER]);
+            if (gender == null) {
+                if (first && line == 1 && "gender".equalsIgnoreCase(string(GENDER))) {
+                    return;
+                }
+                errors.put((long) line, "Invalid gender \"" + string(GENDER) + "\".");
+                return;
+            }
+            if (ends[0] == starts[0]) {
+                errors.put((long) line, "The code is empty.");
+                return;
+            }
+
+            Student student = new Student(string(0), string(1), string(2), string(3), gender, career());
+            if (students.size() == rowLines.length) {
+                rowLines = Arrays.copyOf(rowLines, rowLines.length * 2);
+            }
+            rowLines[students.size()] = line;
+            students.add(student);
+        }
+
+        /**
+         * Finds the fields of a line, recording the first {@link #FIELDS} of
+         * them.
+         *
+         * @param start the offset of the line
+         * @param end   the offset past its end
+         * @return the number of fields, or -1 if a quoted field is malformed
+         */
+        private int splitFields(int start, int end) {
+            int count = 0;
+            int position = start;
+            while (true) {
+                int from = position;
+                int to;
+                boolean quotes = position < end && buffer.get(position) == '"';
+                if (quotes) {
+                    from = ++position;
+                    while (true) {
+                        if (position >= end) {
+                            return -1;
+                        }
+                        if (buffer.get(position) == '"') {
+                            if (position + 1 < end && buffer.get(position + 1) == '"') {
+                                position += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        position++;
+                    }
+                    to = position++;
+                    if (position < end && buffer.get(position) != ',') {
+                        return -1;
+                    }
+                } else {
+                    while (position < end && buffer.get(position) != ',') {
+                        position++;
+                    }
+                    to = position;
+                }
+                if (count < FIELDS) {
+                    starts[count] = from;
+                    ends[count] = to;
+                    quoted[count] = quotes;
+                }
+                count++;
+                if (position >= end) {
+                    return count;
+                }
+                position++;
+            }
+        }
+
+        /**
+         * Matches the bytes of a field against the gender names, ignoring
+         * case.
+         *
+         * @param from the offset of the field
+         * @param to   the offset past its end
+         * @return the gender, or null if the field names none
+         */
+        private EGender gender(int from, int to) {
+            for (int g = 0; g < GENDERS.length; g++) {
+                byte[] name = GENDER_NAMES[g];
+                if (name.length != to - from) {
+                    continue;
+                }
+                int i = 0;
+                while (i < name.length && (buffer.get(from + i) & ~0x20) == name[i]) {
+                    i++;
+                }
+                if (i == name.length) {
+                    return GENDERS[g];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Decodes the career of the current line, reusing the string of an
+         * earlier row with the same bytes.
+         *
+         * @return the career
+         */
+        private String career() {
+            int from = starts[FIELDS - 1];
+            int to = ends[FIELDS - 1];
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            int slot = (hash ^ hash >>> 16) & (CAREER_CACHE_SIZE - 1);
+            byte[] bytes = careerBytes[slot];
+            if (bytes != null && bytes.length == to - from) {
+                int i = 0;
+                while (i < bytes.length && buffer.get(from + i) == bytes[i]) {
+                    i++;
+                }
+                if (i == bytes.length) {
+                    return careers[slot];
+                }
+            }
+            bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            String career = string(FIELDS - 1);
+            careerBytes[slot] = bytes;
+            careers[slot] = career;
+            return career;
+        }
+
+        /**
+         * Decodes a field of the current line from UTF-8, undoubling the
+         * quotes of a quoted field.
+         *
+         * @param field the position of the field
+         * @return the field
+         */
+        private String string(int field) {
+            int length = ends[field] - starts[field];
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(starts[field], scratch, 0, length);
+            if (quoted[field]) {
+                int kept = 0;
+                for (int i = 0; i < length; i++) {
+                    scratch[kept++] = scratch[i];
+                    if (scratch[i] == '"') {
+                        i++;
+                    }
+                }
+                length = kept;
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
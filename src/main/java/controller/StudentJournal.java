@@ -0,0 +1,638 @@
+package controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+import model.ActionType;
+import model.Student;
+
+/**
+ * Append-only binary journal of the changes made to the students of a
+ * {@link StudentHandler}, from which the list can be rebuilt after a restart.
+ * <p>
+ * The file starts with a magic number and a format version, followed by one
+ * record per change: its length, a CRC32C checksum of its body, and the body
+ * itself, made of a sequence number, the {@link ActionType} of the change and
+ * its arguments, with students encoded by {@link StudentCodec}. A record cut
+ * short by a crash fails its checksum, so opening the journal truncates the
+ * file after the last whole record.
+ * <p>
+ * Appending a record only encodes it into memory; {@link #awaitDurable} then
+ * blocks until the record is forced to disk. The first caller that finds no
+ * write in progress becomes the leader: it waits for the batch window, so
+ * that other callers can append, and writes and forces everything appended
+ * so far at once, while the others wait for it. Concurrent changes thus share
+ * one {@code force()}.
+ */
+public final class StudentJournal implements Closeable {
+
+    /**
+     * A change read back from the journal.
+     */
+    public static final class Entry {
+
+        /**
+         * The sequence number of the change.
+         */
+        private final long sequence;
+
+        /**
+         * The kind of change.
+         */
+        private final ActionType action;
+
+        /**
+         * The code of the reference, updated or deleted student.
+         */
+        private final String code;
+
+        /**
+         * The student added or the new information of the updated student.
+         */
+        private final Student student;
+
+        /**
+         * Creates an entry.
+         *
+         * @param sequence the sequence number of the change
+         * @param action   the kind of change
+         * @param code     the code of the reference, updated or deleted
+         *                 student, or null for other changes
+         * @param student  the student added or updated, or null for a delete
+         */
+        Entry(long sequence, ActionType action, String code, Student student) {
+            this.sequence = sequence;
+            this.action = action;
+            this.code = code;
+            this.student = student;
+        }
+
+        /**
+         * Gets the sequence number of the change, starting from 1.
+         *
+         * @return the sequence number
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Gets the kind of change.
+         *
+         * @return the action of the change
+         */
+        public ActionType getAction() {
+            return action;
+        }
+
+        /**
+         * Gets the code of the student the change refers to: the reference
+         * student of {@link ActionType#ADD_BEFORE} and
+         * {@link ActionType#ADD_AFTER}, or the student updated or deleted.
+         *
+         * @return the code, or null for the other changes
+         */
+        public String getCode() {
+            return code;
+        }
+
+        /**
+         * Gets the student added, or the new information of the updated
+         * student.
+         *
+         * @return the student, or null for a delete
+         */
+        public Student getStudent() {
+            return student;
+        }
+    }
+
+    /**
+     * Magic number at the start of the file.
+     */
+    private static final int MAGIC = 0x534A524E;
+
+    /**
+     * Version of the record format.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Size of the file header.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Size of the length and checksum before each record body.
+     */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * Largest part of the file mapped at once while reading it.
+     */
+    private static final int MAP_WINDOW = 256 << 20;
+
+    /**
+     * Initial size of the buffers of appended records.
+     */
+    private static final int INITIAL_BUFFER = 64 * 1024;
+
+    /**
+     * The channel of the journal file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * How long a leader waits for other records before writing a batch.
+     */
+    private final long windowNanos;
+
+    /**
+     * Checksum computed over each appended record.
+     */
+    private final CRC32C checksum;
+
+    /**
+     * Codec of the students in the records read back.
+     */
+    private final StudentCodec codec;
+
+    /**
+     * Records appended and not yet taken by a leader.
+     */
+    private ByteBuffer pending;
+
+    /**
+     * Buffer the leader writes from, swapped with the pending one.
+     */
+    private ByteBuffer writing;
+
+    /**
+     * The sequence number of the last appended record.
+     */
+    private long appended;
+
+    /**
+     * The sequence number of the last record forced to disk.
+     */
+    private long durable;
+
+    /**
+     * Whether a leader is writing a batch.
+     */
+    private boolean flushing;
+
+    /**
+     * The number of batches forced to disk.
+     */
+    private long forces;
+
+    /**
+     * The error that made a write fail, after which nothing can be appended.
+     */
+    private IOException failure;
+
+    /**
+     * Whether the journal has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Opens a journal, creating the file if it does not exist and dropping a
+     * record left incomplete at its end.
+     *
+     * @param file        the journal file
+     * @param windowNanos how long, in nanoseconds, a write waits for other
+     *                    changes to join it; 0 writes right away
+     * @throws IOException              if the file cannot be read or written
+     * @throws IllegalArgumentException if the window is negative
+     * @throws IllegalStateException    if the file is not a journal
+     */
+    public StudentJournal(Path file, long windowNanos) throws IOException {
+        if (windowNanos < 0) {
+            throw new IllegalArgumentException("The batch window cannot be negative.");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.windowNanos = windowNanos;
+        this.checksum = new CRC32C();
+        this.codec = new StudentCodec();
+        this.pending = ByteBuffer.allocate(INITIAL_BUFFER);
+        this.writing = ByteBuffer.allocate(INITIAL_BUFFER);
+        try {
+            open();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads back the changes of the journal, in the order they were made.
+     *
+     * @param afterSequence the sequence number after which to start, 0 for
+     *                      every change
+     * @param consumer      the function that receives each change
+     * @return the number of changes read
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized long replay(long afterSequence, Consumer<Entry> consumer) throws IOException {
+        long last = appended;
+        long[] count = { 0 };
+        scan((body, sum) -> {
+            long sequence = body.getLong(0);
+            if (sequence > afterSequence) {
+                consumer.accept(decode(body));
+                count[0]++;
+            }
+            return sequence < last;
+        });
+        return count[0];
+    }
+
+    /**
+     * Appends a change to the journal, in memory only; the caller then waits
+     * for it with {@link #awaitDurable}. Changes must be appended in the order
+     * they are applied.
+     *
+     * @param action  the kind of change
+     * @param code    the code of the reference student of
+     *                {@link ActionType#ADD_BEFORE} and {@link ActionType#ADD_AFTER}
+     *                or of the deleted student, ignored for other changes
+     * @param student the student added or updated, ignored for a delete
+     * @return the sequence number of the change
+     * @throws IllegalArgumentException if the change lacks its code or student
+     * @throws IllegalStateException    if the journal is closed or has failed
+     */
+    public synchronized long append(ActionType action, String code, Student student) {
+        if (hasCode(action) && code == null || action != ActionType.DELETE && student == null) {
+            throw new IllegalArgumentException("The change lacks its code or student.");
+        }
+        if (closed || failure != null) {
+            throw new IllegalStateException("The journal is closed or has failed.");
+        }
+        long sequence = appended + 1;
+        pending = putRecord(pending, sequence, action, code, student);
+        appended = sequence;
+        return sequence;
+    }
+
+    /**
+     * Appends a run of insertions of the same kind at once, so that either
+     * all of them or none of them are appended. The run is encoded into a
+     * buffer of its own and only then added to the pending records, so a
+     * student that cannot be encoded leaves the journal as it was.
+     *
+     * @param action   the kind of insertion, which takes no reference code
+     * @param students the students added
+     * @return the sequence number of the last change, or 0 if there were none
+     * @throws IllegalArgumentException if the action takes a code or is a
+     *                                  delete, or a student is null
+     * @throws IllegalStateException    if the journal is closed or has failed
+     */
+    public synchronized long appendAll(ActionType action, Collection<Student> students) {
+        if (hasCode(action) || action == ActionType.DELETE) {
+            throw new IllegalArgumentException("The change lacks its code or student.");
+        }
+        if (closed || failure != null) {
+            throw new IllegalStateException("The journal is closed or has failed.");
+        }
+        if (students.isEmpty()) {
+            return 0;
+        }
+        ByteBuffer run = ByteBuffer.allocate(INITIAL_BUFFER);
+        long sequence = appended;
+        for (Student student : students) {
+            if (student == null) {
+                throw new IllegalArgumentException("The change lacks its code or student.");
+            }
+            run = putRecord(run, ++sequence, action, null, student);
+        }
+        run.flip();
+        pending = grown(pending, run.remaining());
+        pending.put(run);
+        appended = sequence;
+        return sequence;
+    }
+
+    /**
+     * Blocks until a change and every change before it are forced to disk,
+     * writing them as the leader of a batch if no other caller is.
+     *
+     * @param sequence the sequence number of the change
+     * @throws UncheckedIOException if writing the journal failed
+     */
+    public void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (durable < sequence && flushing && failure == null) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                    if (failure != null) {
+                        throw new UncheckedIOException("The journal could not be written.", failure);
+                    }
+                    if (durable >= sequence) {
+                        return;
+                    }
+                    flushing = true;
+                }
+                flush();
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Gets the sequence number of the last change appended.
+     *
+     * @return the last sequence number, or 0 if the journal is empty
+     */
+    public synchronized long getLastSequence() {
+        return appended;
+    }
+
+    /**
+     * Gets the number of batches forced to disk since the journal was opened.
+     *
+     * @return the number of forces
+     */
+    public synchronized long getForceCount() {
+        return forces;
+    }
+
+    /**
+     * Forces every appended change to disk and closes the file.
+     *
+     * @throws IOException if the file cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        long last;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            last = appended;
+        }
+        try {
+            awaitDurable(last);
+        } catch (UncheckedIOException e) {
+            // the channel is closed below all the same
+        }
+        synchronized (this) {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes and forces the pending changes as the leader of a batch, after
+     * waiting for the batch window.
+     */
+    private void flush() {
+        if (windowNanos > 0) {
+            LockSupport.parkNanos(windowNanos);
+        }
+        ByteBuffer batch;
+        long target;
+        synchronized (this) {
+            batch = pending;
+            pending = writing;
+            writing = batch;
+            target = appended;
+        }
+        IOException error = null;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            batch.clear();
+        }
+        synchronized (this) {
+            if (error != null) {
+                failure = error;
+            } else {
+                durable = target;
+                forces++;
+            }
+            flushing = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Checks the header of the file, or writes it to a new file, and finds the
+     * last whole record, truncating whatever follows it.
+     *
+     * @throws IOException if the file cannot be read or written
+     */
+    private void open() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() < HEADER_SIZE) {
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(false);
+        } else {
+            readFully(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IllegalStateException("The file is not a journal of this version.");
+            }
+        }
+
+        long end = scan((body, sum) -> {
+            checksum.reset();
+            checksum.update(body.duplicate());
+            long sequence = body.getLong(0);
+            if ((int) checksum.getValue() != sum || sequence != appended + 1) {
+                return false;
+            }
+            appended = sequence;
+            return true;
+        });
+        long size = channel.size();
+        if (end < size) {
+            channel.truncate(end);
+            channel.force(false);
+        }
+        channel.position(end);
+        durable = appended;
+    }
+
+    /**
+     * Walks the records of the file in order through read-only mappings of
+     * the file, each covering up to {@link #MAP_WINDOW} bytes, and stops at
+     * the first record that is cut short or that the visitor rejects.
+     *
+     * @param visitor the function that receives each record
+     * @return the position in the file where the walk stopped
+     * @throws IOException if the file cannot be mapped
+     */
+    private long scan(RecordVisitor visitor) throws IOException {
+        long end = HEADER_SIZE;
+        long size = channel.size();
+        while (end + RECORD_HEADER_SIZE <= size) {
+            int window = (int) Math.min(size - end, MAP_WINDOW);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, end, window);
+            int offset = 0;
+            while (offset + RECORD_HEADER_SIZE <= window) {
+                int length = mapped.getInt(offset);
+                if (length < Long.BYTES + 1 || length > size - end - offset - RECORD_HEADER_SIZE) {
+                    return end + offset;
+                }
+                if (offset + RECORD_HEADER_SIZE + length > window) {
+                    break;
+                }
+                ByteBuffer body = mapped.slice(offset + RECORD_HEADER_SIZE, length);
+                if (!visitor.visit(body, mapped.getInt(offset + Integer.BYTES))) {
+                    return end + offset;
+                }
+                offset += RECORD_HEADER_SIZE + length;
+            }
+            if (offset == 0) {
+                throw new IllegalStateException("A journal record is larger than the mapping window.");
+            }
+            end += offset;
+        }
+        return end;
+    }
+
+    /**
+     * Function that receives the records of the file during a scan.
+     */
+    private interface RecordVisitor {
+
+        /**
+         * Receives a record.
+         *
+         * @param body     the body of the record, from its start to its end
+         * @param checksum the checksum stored before the body
+         * @return true to go on to the next record, false to stop here
+         */
+        boolean visit(ByteBuffer body, int checksum);
+    }
+
+    /**
+     * Decodes the body of a record.
+     *
+     * @param body the body, from its start to its end
+     * @return the change it records
+     */
+    private Entry decode(ByteBuffer body) {
+        long sequence = body.getLong();
+        ActionType action = ActionType.values()[body.get()];
+        String code = hasCode(action) ? codec.getString(body) : null;
+        Student student = action == ActionType.DELETE ? null : codec.decode(body);
+        if (action == ActionType.UPDATE) {
+            code = student.getId();
+        }
+        return new Entry(sequence, action, code, student);
+    }
+
+    /**
+     * Checks whether the records of a kind of change carry a code besides the
+     * student.
+     *
+     * @param action the kind of change
+     * @return true for changes that refer to another student or to the
+     *         deleted one
+     */
+    private static boolean hasCode(ActionType action) {
+        return action == ActionType.ADD_BEFORE || action == ActionType.ADD_AFTER || action == ActionType.DELETE;
+    }
+
+    /**
+     * Writes a record, with its length and checksum, at the position of a
+     * buffer, growing the buffer if needed.
+     *
+     * @param buffer   the buffer to write to
+     * @param sequence the sequence number of the change
+     * @param action   the kind of change
+     * @param code     the code the change carries, if its kind has one
+     * @param student  the student added or updated, ignored for a delete
+     * @return the buffer written to, which is a new one if it had to grow
+     */
+    private ByteBuffer putRecord(ByteBuffer buffer, long sequence, ActionType action, String code,
+            Student student) {
+        int start = buffer.position();
+        buffer = grown(buffer, RECORD_HEADER_SIZE + Long.BYTES + 1
+                + (hasCode(action) ? StudentCodec.stringSize(code) : 0)
+                + (action != ActionType.DELETE ? StudentCodec.encodedSize(student) : 0));
+        buffer.position(start + RECORD_HEADER_SIZE);
+        buffer.putLong(sequence);
+        buffer.put((byte) action.ordinal());
+        if (hasCode(action)) {
+            StudentCodec.putString(buffer, code);
+        }
+        if (action != ActionType.DELETE) {
+            StudentCodec.encode(student, buffer);
+        }
+        int length = buffer.position() - start - RECORD_HEADER_SIZE;
+        checksum.reset();
+        checksum.update(buffer.slice(start + RECORD_HEADER_SIZE, length));
+        buffer.putInt(start, length);
+        buffer.putInt(start + Integer.BYTES, (int) checksum.getValue());
+        return buffer;
+    }
+
+    /**
+     * Makes room in a buffer, copying it into a larger one if needed.
+     *
+     * @param buffer the buffer, with its position after its contents
+     * @param bytes  the number of bytes about to be written
+     * @return the buffer, or the larger one with the same contents
+     */
+    private static ByteBuffer grown(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    /**
+     * Reads from the file until a buffer is full or the file ends.
+     *
+     * @param buffer   the buffer to fill
+     * @param position the position in the file to read from
+     * @return the number of bytes read
+     * @throws IOException if the file cannot be read
+     */
+    private int readFully(ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
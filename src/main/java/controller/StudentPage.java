@@ -0,0 +1,62 @@
+package controller;
+
+import java.util.List;
+
+import model.Student;
+
+/**
+ * One page of students listed by {@link StudentHandler#listStudentsPage}, with
+ * the cursor to pass back for the page that follows it.
+ */
+public final class StudentPage {
+
+    /**
+     * The students of the page, in the order they were listed.
+     */
+    private final List<Student> students;
+
+    /**
+     * The cursor of the next page, or null if this is the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * Creates a page of students.
+     *
+     * @param students   the students of the page
+     * @param nextCursor the cursor of the next page, or null if this is the
+     *                   last page
+     */
+    StudentPage(List<Student> students, String nextCursor) {
+        this.students = List.copyOf(students);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the students of the page.
+     *
+     * @return a read-only list of the students, in the order they were listed
+     */
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    /**
+     * Gets the cursor to pass back for the next page. Its contents are not
+     * meant to be read or built by callers.
+     *
+     * @return the cursor of the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether there are students after this page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,232 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import model.Student;
+
+/**
+ * Binary copy of the students of a {@link StudentHandler} in list order,
+ * together with the sequence number of the last journal change it includes.
+ * <p>
+ * The file has a header with a magic number, a format version, the sequence
+ * number, the number of students, the length of the records and a CRC32C
+ * checksum of them, followed by one record per student as encoded by
+ * {@link StudentCodec}. It is written to a temporary file that then replaces
+ * the old one, so a crash leaves either snapshot whole. It is read back in a
+ * single pass through read-only mappings of the file, one window of at most
+ * 1 GB at a time, so snapshots larger than a single mapping can hold are read
+ * as well; as the students come in list order, which is code order unless
+ * positional insertions were made, the list is rebuilt by linking them one
+ * after the other without sorting.
+ */
+final class StudentSnapshot {
+
+    /**
+     * Magic number at the start of the file.
+     */
+    private static final int MAGIC = 0x53534E50;
+
+    /**
+     * Version of the record format.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Size of the file header.
+     */
+    private static final int HEADER_SIZE = 36;
+
+    /**
+     * Largest size of the windows the records are mapped through.
+     */
+    private static final int MAP_SIZE = 1 << 30;
+
+    /**
+     * Size of the buffer the records are written through.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The students, in list order.
+     */
+    private final List<Student> students;
+
+    /**
+     * The sequence number of the last journal change included.
+     */
+    private final long sequence;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param students the students, in list order
+     * @param sequence the sequence number of the last journal change included,
+     *                 or 0 if there is none
+     */
+    StudentSnapshot(List<Student> students, long sequence) {
+        this.students = students;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Gets the students, in list order.
+     *
+     * @return the students
+     */
+    List<Student> getStudents() {
+        return students;
+    }
+
+    /**
+     * Gets the sequence number of the last journal change included.
+     *
+     * @return the sequence number, or 0 if there is none
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Writes the snapshot to a file, replacing it once it is whole and forced
+     * to disk.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32C checksum = new CRC32C();
+        long length = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            channel.position(HEADER_SIZE);
+            for (Student student : students) {
+                int size = StudentCodec.encodedSize(student);
+                if (buffer.remaining() < size) {
+                    length += drain(buffer, channel, checksum);
+                    if (buffer.capacity() < size) {
+                        buffer = ByteBuffer.allocateDirect(size);
+                    }
+                }
+                StudentCodec.encode(student, buffer);
+            }
+            length += drain(buffer, channel, checksum);
+
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(sequence).putInt(students.size()).putLong(length)
+                    .putInt((int) checksum.getValue()).putInt(0).flip();
+            for (long position = 0; buffer.hasRemaining();) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot back from a file.
+     *
+     * @param file the file to read
+     * @return the snapshot
+     * @throws IOException           if the file cannot be read
+     * @throws IllegalStateException if the file is not a whole snapshot
+     */
+    static StudentSnapshot read(Path file) throws IOException {
+        return read(file, MAP_SIZE);
+    }
+
+    /**
+     * Reads a snapshot back from a file through mappings of a given size.
+     *
+     * @param file    the file to read
+     * @param mapSize the largest size of each mapping
+     * @return the snapshot
+     * @throws IOException           if the file cannot be read
+     * @throws IllegalStateException if the file is not a whole snapshot
+     */
+    static StudentSnapshot read(Path file, int mapSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IllegalStateException("The file is not a student snapshot.");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IllegalStateException("The file is not a student snapshot of this version.");
+            }
+            long sequence = header.getLong();
+            int count = header.getInt();
+            long length = header.getLong();
+            int expected = header.getInt();
+            long end = channel.size();
+            if (length != end - HEADER_SIZE || count < 0) {
+                throw new IllegalStateException("The student snapshot is incomplete.");
+            }
+
+            CRC32C checksum = new CRC32C();
+            for (long offset = HEADER_SIZE; offset < end; offset += mapSize) {
+                checksum.update(map(channel, offset, end, mapSize));
+            }
+            if ((int) checksum.getValue() != expected) {
+                throw new IllegalStateException("The student snapshot is corrupt.");
+            }
+            List<Student> students = new ArrayList<>(count);
+            StudentCodec codec = new StudentCodec();
+            long offset = HEADER_SIZE;
+            MappedByteBuffer records = map(channel, offset, end, mapSize);
+            for (int i = 0; i < count; i++) {
+                int size = StudentCodec.recordSize(records);
+                if ((size < 0 || size > records.remaining()) && offset + records.limit() < end) {
+                    offset += records.position();
+                    records = map(channel, offset, end, Math.max(mapSize, size));
+                }
+                students.add(codec.decode(records));
+            }
+            return new StudentSnapshot(students, sequence);
+        }
+    }
+
+    /**
+     * Maps a window of the records read-only.
+     *
+     * @param channel the file
+     * @param offset  the offset of the window in the file
+     * @param end     the size of the file
+     * @param mapSize the largest size of the window
+     * @return the mapping
+     * @throws IOException if the file cannot be mapped
+     */
+    private static MappedByteBuffer map(FileChannel channel, long offset, long end, int mapSize)
+            throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(mapSize, end - offset));
+    }
+
+    /**
+     * Writes the filled part of the buffer to the channel and clears it.
+     *
+     * @param buffer   the buffer
+     * @param channel  the channel, positioned where the bytes go
+     * @param checksum the checksum to update with the bytes
+     * @return the number of bytes written
+     * @throws IOException if the channel cannot be written
+     */
+    private static int drain(ByteBuffer buffer, FileChannel channel, CRC32C checksum) throws IOException {
+        buffer.flip();
+        int written = buffer.remaining();
+        checksum.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return written;
+    }
+}
@@ -0,0 +1,74 @@
+package controller;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.EGender;
+
+/**
+ * Counts of the students of a {@link StudentHandler} in total, by career and
+ * by gender, all taken at the same moment.
+ */
+public final class StudentStatistics {
+
+    /**
+     * The number of students.
+     */
+    private final int total;
+
+    /**
+     * The number of students of each career, by career name.
+     */
+    private final Map<String, Integer> byCareer;
+
+    /**
+     * The number of students of each gender.
+     */
+    private final Map<EGender, Integer> byGender;
+
+    /**
+     * Creates the statistics from counts taken under the same lock.
+     *
+     * @param total    the number of students
+     * @param byCareer the number of students of each career
+     * @param byGender the number of students of each gender that has any
+     */
+    StudentStatistics(int total, TreeMap<String, Integer> byCareer, EnumMap<EGender, Integer> byGender) {
+        for (EGender gender : EGender.values()) {
+            byGender.putIfAbsent(gender, 0);
+        }
+        this.total = total;
+        this.byCareer = Collections.unmodifiableMap(byCareer);
+        this.byGender = Collections.unmodifiableMap(byGender);
+    }
+
+    /**
+     * Gets the number of students.
+     *
+     * @return the number of students
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of students of each career with at least one student.
+     *
+     * @return a read-only map from career to count, in career order
+     */
+    public Map<String, Integer> getCountsByCareer() {
+        return byCareer;
+    }
+
+    /**
+     * Gets the number of students of each gender, including the genders
+     * without students.
+     *
+     * @return a read-only map from gender to count
+     */
+    public Map<EGender, Integer> getCountsByGender() {
+        return byGender;
+    }
+}
@@ -0,0 +1,126 @@
+package controller;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Operations of a store of students that do not depend on where a student
+ * stands in the store, as offered by {@link StudentHandler} and by the
+ * partitioned {@link PartitionedStudentHandler}, which keeps the students in
+ * code order. Stores that let callers place students and reach them by
+ * position implement {@link OrderedStudentStore}.
+ */
+public interface StudentStore {
+
+    /**
+     * Adds a student to the list in a sorted order.
+     *
+     * @param id       the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @param email    the student's email
+     * @param gender   the student's gender
+     * @param career   the student's career
+     * @return true if the student was added successfully
+     * @throws IllegalArgumentException if required fields are null, or if a
+     *                                  student with the same ID already exists
+     */
+    boolean addStudent(String id, String name, String lastname, String email, EGender gender, String career);
+
+    /**
+     * Finds a student by their code.
+     *
+     * @param code the student's code
+     * @return the student with the given code, or null if not found
+     * @throws IllegalArgumentException if the code is null or empty
+     */
+    Student findStudentByCode(String code);
+
+    /**
+     * Updates a student's information.
+     *
+     * @param code     the code of the student to update
+     * @param name     the updated student's name
+     * @param lastname the updated student's last name
+     * @param email    the updated student's email
+     * @param gender   the updated student's gender
+     * @param career   the updated student's career
+     * @return true if the student was successfully updated
+     * @throws IllegalArgumentException if the code is null, empty, or any of the
+     *                                  updated fields are null
+     * @throws IllegalStateException    if a student with the given code is not
+     *                                  found
+     */
+    boolean updateStudent(String code, String name, String lastname, String email, EGender gender, String career);
+
+    /**
+     * Deletes a student by their code.
+     *
+     * @param code the student's code
+     * @return true if the student was successfully deleted
+     * @throws IllegalArgumentException if the code is null or empty
+     * @throws IllegalStateException    if a student with the given code is not
+     *                                  found
+     */
+    boolean deleteStudent(String code);
+
+    /**
+     * Lists all students in either ascending or descending order.
+     *
+     * @param ascending whether to list in ascending order
+     * @return a list of all students
+     */
+    List<Student> listAllStudents(boolean ascending);
+
+    /**
+     * Hands every student to an action, in either ascending or descending
+     * order, as {@link #listAllStudents} lists them. Stores that would have to
+     * build that list for the occasion hand the students over one at a time
+     * instead, so that an export does not hold the whole roster at once.
+     *
+     * @param ascending whether to go in ascending order
+     * @param action    the action to run on each student
+     */
+    default void forEachStudent(boolean ascending, Consumer<? super Student> action) {
+        listAllStudents(ascending).forEach(action);
+    }
+
+    /**
+     * Checks if the list of students is empty.
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Gets the total number of students.
+     *
+     * @return the number of students
+     */
+    int getNumberOfStudents();
+
+    /**
+     * Retrieves the first student in the order of the store.
+     *
+     * @return the first student, or null if the store is empty
+     */
+    Student getFirstStudent();
+
+    /**
+     * Retrieves the last student in the order of the store.
+     *
+     * @return the last student, or null if the store is empty
+     */
+    Student getLastStudent();
+
+    /**
+     * Checks if a student exists based on their code.
+     *
+     * @param code the student's code
+     * @return true if the student exists, false otherwise
+     */
+    boolean studentExists(String code);
+}
@@ -0,0 +1,778 @@
+package controller;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import model.Entity;
+import model.Node;
+
+/**
+ * Trigram inverted index over text fields of the elements of a list, for fuzzy
+ * searches that tolerate typos, accents and reordered words.
+ * <p>
+ * The fields are normalized (accents dropped, lower case, anything but letters
+ * and digits turned into spaces) and split into words, and each word, padded
+ * with a boundary mark, is cut into its runs of three characters. Every node
+ * gets a compact int handle, and each trigram keeps a posting list of the
+ * handles whose text holds it. A search counts the trigrams each handle shares
+ * with the query, keeps the candidates with the best Jaccard overlap and ranks
+ * that short list by the edit distance from each query word to the closest
+ * word of the candidate. Trigrams held by a large share of the handles are
+ * not counted by walking their postings when the query has rarer ones: the
+ * candidates are first shortlisted on the rarer trigrams, and the common ones
+ * are then looked up by binary search for the shortlist only, as handles are
+ * added to the postings in increasing order.
+ * <p>
+ * The postings are found in an open-addressing table keyed by the packed
+ * trigram, and the handle of a node in one that holds only handles, so
+ * neither boxes its keys. A search counts the shared trigrams in an array
+ * that its thread reuses, cleared only where it was counted, rather than in
+ * one allocated for the whole index each time.
+ * <p>
+ * Removing a node only retires its handle; the stale handles are skipped by
+ * searches. Once they make up half of the postings, {@link #needsCompaction}
+ * tells the owner to purge them by a compaction, which copies the live nodes
+ * to fresh postings a chunk at a time while the index is only read, and then
+ * applies the changes made meanwhile and swaps the postings in. As with
+ * {@link SecondaryIndex}, a node must be removed before its information is
+ * replaced and added back after.
+ *
+ * @param <T> the type of elements held by the nodes
+ */
+final class TrigramIndex<T extends Entity> {
+
+    /**
+     * Number of candidates ranked by edit distance for each result asked for.
+     */
+    private static final int CANDIDATES_PER_RESULT = 5;
+
+    /**
+     * Least number of candidates ranked by edit distance.
+     */
+    private static final int MIN_CANDIDATES = 50;
+
+    /**
+     * Share of the handles above which a trigram is too common to be counted,
+     * as long as the query has rarer ones.
+     */
+    private static final double COMMON_SHARE = 0.05;
+
+    /**
+     * Pattern of the combining marks left by decomposing accented letters.
+     */
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Pattern of the runs of characters that separate words.
+     */
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    /**
+     * Character that marks the start and end of a word.
+     */
+    private static final char BOUNDARY = '$';
+
+    /**
+     * Number of buckets the handle table starts with.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * A growable list of handles.
+     */
+    private static final class Posting {
+
+        /**
+         * Handles; only the first {@code count} are in use.
+         */
+        private int[] handles = new int[4];
+
+        /**
+         * Number of handles in use.
+         */
+        private int count;
+
+        /**
+         * Appends a handle.
+         *
+         * @param handle the handle to append
+         */
+        void add(int handle) {
+            if (count == handles.length) {
+                handles = Arrays.copyOf(handles, count * 2);
+            }
+            handles[count++] = handle;
+        }
+    }
+
+    /**
+     * Number of times a search found each handle in the postings it walked,
+     * in an array by handle that each searching thread keeps from one search
+     * to the next and clears after each one.
+     */
+    private static final class Counts {
+
+        /**
+         * Count of each handle, 0 outside a search.
+         */
+        private int[] values = new int[0];
+
+        /**
+         * Handles counted so far, in the order they were first found.
+         */
+        private int[] found = new int[1024];
+
+        /**
+         * Number of handles counted so far.
+         */
+        private int size;
+
+        /**
+         * Makes room for the handles given out so far.
+         *
+         * @param handles the number of handles given out
+         */
+        void reserve(int handles) {
+            if (values.length < handles) {
+                values = new int[Math.max(handles, values.length * 2)];
+            }
+        }
+
+        /**
+         * Counts a handle once more.
+         *
+         * @param handle the handle
+         */
+        void increment(int handle) {
+            if (values[handle]++ == 0) {
+                if (size == found.length) {
+                    found = Arrays.copyOf(found, size * 2);
+                }
+                found[size++] = handle;
+            }
+        }
+
+        /**
+         * Retrieves the count of a handle.
+         *
+         * @param handle the handle
+         * @return the number of times it was counted
+         */
+        int get(int handle) {
+            return values[handle];
+        }
+
+        /**
+         * Sets the counts back to 0 for the next search, in time proportional
+         * to the handles counted.
+         */
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                values[found[i]] = 0;
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * A compaction under way: the index it fills with the live nodes, and the
+     * nodes changed since it started.
+     *
+     * @param <T> the type of elements held by the nodes
+     */
+    private static final class Compaction<T extends Entity> {
+
+        /**
+         * Index that takes the place of the compacted one.
+         */
+        private final TrigramIndex<T> fresh;
+
+        /**
+         * Next handle of the compacted index to copy.
+         */
+        private int cursor;
+
+        /**
+         * Nodes added or removed since the compaction started, in order.
+         */
+        private final List<Node<T>> changed = new ArrayList<>();
+
+        /**
+         * Creates a compaction into an empty index.
+         *
+         * @param fresh the index to fill
+         */
+        Compaction(TrigramIndex<T> fresh) {
+            this.fresh = fresh;
+        }
+    }
+
+    /**
+     * Functions that read the indexed fields of an element.
+     */
+    private final List<Function<T, String>> fields;
+
+    /**
+     * Trigrams of the posting table, each packed in a long, 0 for an empty
+     * bucket; a trigram is never 0 as it holds the boundary mark or letters.
+     */
+    private long[] grams;
+
+    /**
+     * Posting list of the trigram in each bucket.
+     */
+    private Posting[] postings;
+
+    /**
+     * Number of trigrams in the posting table.
+     */
+    private int gramCount;
+
+    /**
+     * Buckets of the handle table, each holding a handle plus one, so that 0
+     * marks an empty bucket; the node of a handle is its key.
+     */
+    private int[] handles;
+
+    /**
+     * Number of handles in the handle table.
+     */
+    private int handleCount;
+
+    /**
+     * Node of each handle, or null for a retired handle.
+     */
+    private Node<T>[] nodes;
+
+    /**
+     * Number of distinct trigrams of each handle.
+     */
+    private int[] sizes;
+
+    /**
+     * Number of handles given out since the last rebuild.
+     */
+    private int next;
+
+    /**
+     * Number of entries in all posting lists.
+     */
+    private long entries;
+
+    /**
+     * Number of posting entries that belong to retired handles.
+     */
+    private long stale;
+
+    /**
+     * Compaction under way, or null.
+     */
+    private Compaction<T> compaction;
+
+    /**
+     * Counts of the searches of each thread, as searches run side by side.
+     */
+    private final ThreadLocal<Counts> counts = ThreadLocal.withInitial(Counts::new);
+
+    /**
+     * Creates an empty index.
+     *
+     * @param fields the functions that read the indexed fields of an element
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    TrigramIndex(List<Function<T, String>> fields) {
+        this.fields = fields;
+        this.grams = new long[INITIAL_CAPACITY];
+        this.postings = new Posting[INITIAL_CAPACITY];
+        this.handles = new int[INITIAL_CAPACITY];
+        this.nodes = new Node[INITIAL_CAPACITY];
+        this.sizes = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a node under the trigrams of its fields, unless it is already
+     * indexed.
+     *
+     * @param node the node to add
+     */
+    void add(Node<T> node) {
+        if (handles[handleBucket(node)] != 0) {
+            return;
+        }
+        if (next == nodes.length) {
+            nodes = Arrays.copyOf(nodes, next * 2);
+            sizes = Arrays.copyOf(sizes, next * 2);
+        }
+        int handle = next++;
+        long[] nodeGrams = trigrams(words(text(node.getInfo())));
+        for (long gram : nodeGrams) {
+            posting(gram).add(handle);
+        }
+        nodes[handle] = node;
+        sizes[handle] = nodeGrams.length;
+        putHandle(handle);
+        entries += nodeGrams.length;
+        if (compaction != null) {
+            compaction.changed.add(node);
+        }
+    }
+
+    /**
+     * Removes a node, retiring its handle.
+     *
+     * @param node the node to remove
+     */
+    void remove(Node<T> node) {
+        int bucket = handleBucket(node);
+        if (handles[bucket] == 0) {
+            return;
+        }
+        int handle = handles[bucket] - 1;
+        removeHandle(bucket);
+        nodes[handle] = null;
+        stale += sizes[handle];
+        if (compaction != null) {
+            compaction.changed.add(node);
+        }
+    }
+
+    /**
+     * Tells whether retired handles make up half of the postings and no
+     * compaction is under way, so that one should be started.
+     *
+     * @return true if the index should be compacted
+     */
+    boolean needsCompaction() {
+        return compaction == null && stale * 2 > entries;
+    }
+
+    /**
+     * Starts a compaction; from now on the index records the nodes it adds
+     * and removes, until {@link #finishCompaction}. The caller must hold the
+     * write lock.
+     */
+    void startCompaction() {
+        compaction = new Compaction<>(new TrigramIndex<>(fields));
+    }
+
+    /**
+     * Copies the next chunk of live nodes of a compaction to its fresh
+     * postings. The compacted index is only read, so the caller needs only
+     * the read lock, and only one caller may go on with a compaction.
+     *
+     * @param chunk the number of handles to go through
+     * @return true once every handle given out so far was copied, or if no
+     *         compaction is under way
+     */
+    boolean compactStep(int chunk) {
+        Compaction<T> current = compaction;
+        if (current == null) {
+            return true;
+        }
+        int end = next - current.cursor <= chunk ? next : current.cursor + chunk;
+        for (; current.cursor < end; current.cursor++) {
+            if (nodes[current.cursor] != null) {
+                current.fresh.add(nodes[current.cursor]);
+            }
+        }
+        return current.cursor == next;
+    }
+
+    /**
+     * Ends a compaction: copies the live nodes left, applies to the fresh
+     * postings the nodes added and removed since the compaction started, and
+     * takes them over. The caller must hold the write lock.
+     */
+    void finishCompaction() {
+        if (compaction == null) {
+            return;
+        }
+        while (!compactStep(Integer.MAX_VALUE)) {
+            // copies the handles given out since the last step
+        }
+        TrigramIndex<T> fresh = compaction.fresh;
+        for (Node<T> node : compaction.changed) {
+            fresh.remove(node);
+            if (handles[handleBucket(node)] != 0) {
+                fresh.add(node);
+            }
+        }
+        compaction = null;
+        grams = fresh.grams;
+        postings = fresh.postings;
+        gramCount = fresh.gramCount;
+        handles = fresh.handles;
+        handleCount = fresh.handleCount;
+        nodes = fresh.nodes;
+        sizes = fresh.sizes;
+        next = fresh.next;
+        entries = fresh.entries;
+        stale = fresh.stale;
+    }
+
+    /**
+     * Finds the elements that best match a query.
+     *
+     * @param query the text to search for
+     * @param limit the maximum number of elements to return
+     * @return the matching elements, best first
+     */
+    List<T> search(String query, int limit) {
+        String[] queryWords = words(query);
+        long[] queryGrams = trigrams(queryWords);
+        if (queryGrams.length == 0) {
+            return new ArrayList<>();
+        }
+
+        Posting[] queryPostings = new Posting[queryGrams.length];
+        int common = (int) (next * COMMON_SHARE);
+        boolean selective = false;
+        for (int g = 0; g < queryGrams.length; g++) {
+            int bucket = gramBucket(queryGrams[g]);
+            queryPostings[g] = grams[bucket] == 0 ? null : postings[bucket];
+            selective |= queryPostings[g] != null && queryPostings[g].count <= common;
+        }
+
+        Counts shared = counts.get();
+        shared.reserve(next);
+        try {
+            return search(queryWords, queryGrams, queryPostings, common, selective, shared, limit);
+        } finally {
+            shared.clear();
+        }
+    }
+
+    /**
+     * Counts the trigrams the handles share with a query, and ranks the best
+     * candidates.
+     *
+     * @param queryWords    the words of the query
+     * @param queryGrams    the trigrams of the query
+     * @param queryPostings the posting list of each trigram, or null
+     * @param common        the number of handles above which a trigram is
+     *                      too common to be counted
+     * @param selective     whether the query has trigrams that are not common
+     * @param shared        the counts to fill, empty
+     * @param limit         the maximum number of elements to return
+     * @return the matching elements, best first
+     */
+    private List<T> search(String[] queryWords, long[] queryGrams, Posting[] queryPostings, int common,
+            boolean selective, Counts shared, int limit) {
+        for (Posting posting : queryPostings) {
+            if (posting == null || selective && posting.count > common) {
+                continue;
+            }
+            for (int i = 0; i < posting.count; i++) {
+                shared.increment(posting.handles[i]);
+            }
+        }
+        int[] candidates = new int[shared.size];
+        int candidateCount = 0;
+        for (int i = 0; i < shared.size; i++) {
+            if (nodes[shared.found[i]] != null) {
+                candidates[candidateCount++] = shared.found[i];
+            }
+        }
+
+        int capacity = Math.max(MIN_CANDIDATES, limit * CANDIDATES_PER_RESULT);
+        candidates = Arrays.copyOf(candidates, candidateCount);
+        if (selective) {
+            candidates = best(candidates, shared, queryGrams.length, capacity * CANDIDATES_PER_RESULT);
+            for (Posting posting : queryPostings) {
+                if (posting != null && posting.count > common) {
+                    for (int handle : candidates) {
+                        if (Arrays.binarySearch(posting.handles, 0, posting.count, handle) >= 0) {
+                            shared.increment(handle);
+                        }
+                    }
+                }
+            }
+        }
+        candidates = best(candidates, shared, queryGrams.length, capacity);
+
+        List<double[]> ranked = new ArrayList<>(candidates.length);
+        for (int handle : candidates) {
+            String[] words = words(text(nodes[handle].getInfo()));
+            ranked.add(new double[] { handle, jaccard(shared.get(handle), queryGrams.length, sizes[handle]),
+                    distance(queryWords, words) });
+        }
+        ranked.sort(Comparator.<double[]>comparingDouble(c -> c[2]).thenComparingDouble(c -> -c[1]));
+        List<T> matches = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            matches.add(nodes[(int) ranked.get(i)[0]].getInfo());
+        }
+        return matches;
+    }
+
+    /**
+     * Selects the handles with the best Jaccard overlap with a query.
+     *
+     * @param candidates the handles to select from
+     * @param shared     the number of trigrams each handle shares with the query
+     * @param queryGrams the number of trigrams of the query
+     * @param count      the maximum number of handles to select
+     * @return the selected handles
+     */
+    private int[] best(int[] candidates, Counts shared, int queryGrams, int count) {
+        if (candidates.length <= count) {
+            return candidates;
+        }
+        PriorityQueue<double[]> best = new PriorityQueue<>(count + 1, Comparator.comparingDouble(c -> c[1]));
+        for (int handle : candidates) {
+            double jaccard = jaccard(shared.get(handle), queryGrams, sizes[handle]);
+            if (best.size() < count) {
+                best.add(new double[] { handle, jaccard });
+            } else if (jaccard > best.peek()[1]) {
+                best.poll();
+                best.add(new double[] { handle, jaccard });
+            }
+        }
+        int[] selected = new int[best.size()];
+        int i = 0;
+        for (double[] candidate : best) {
+            selected[i++] = (int) candidate[0];
+        }
+        return selected;
+    }
+
+    /**
+     * Computes the Jaccard overlap of two sets of trigrams.
+     *
+     * @param shared the number of trigrams in both sets
+     * @param first  the size of the first set
+     * @param second the size of the second set
+     * @return the size of the intersection over the size of the union
+     */
+    private static double jaccard(int shared, int first, int second) {
+        return shared / (double) (first + second - shared);
+    }
+
+    /**
+     * Finds the posting list of a trigram, adding an empty one if there is
+     * none.
+     *
+     * @param gram the trigram, packed in a long
+     * @return the posting list
+     */
+    private Posting posting(long gram) {
+        int bucket = gramBucket(gram);
+        if (grams[bucket] == 0) {
+            if ((gramCount + 1) * 2 > grams.length) {
+                resizeGrams(grams.length * 2);
+                bucket = gramBucket(gram);
+            }
+            grams[bucket] = gram;
+            postings[bucket] = new Posting();
+            gramCount++;
+        }
+        return postings[bucket];
+    }
+
+    /**
+     * Finds the bucket of a trigram, or the empty bucket where it would go.
+     *
+     * @param gram the trigram, packed in a long
+     * @return the bucket
+     */
+    private int gramBucket(long gram) {
+        int mask = grams.length - 1;
+        int bucket = NodeIndex.spread(Long.hashCode(gram)) & mask;
+        while (grams[bucket] != 0 && grams[bucket] != gram) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    /**
+     * Moves every trigram to a posting table with a new number of buckets.
+     *
+     * @param capacity the new number of buckets, a power of two
+     */
+    private void resizeGrams(int capacity) {
+        long[] oldGrams = grams;
+        Posting[] oldPostings = postings;
+        grams = new long[capacity];
+        postings = new Posting[capacity];
+        for (int i = 0; i < oldGrams.length; i++) {
+            if (oldGrams[i] != 0) {
+                int bucket = gramBucket(oldGrams[i]);
+                grams[bucket] = oldGrams[i];
+                postings[bucket] = oldPostings[i];
+            }
+        }
+    }
+
+    /**
+     * Finds the bucket of the handle of a node, or the empty bucket where it
+     * would go.
+     *
+     * @param node the node
+     * @return the bucket
+     */
+    private int handleBucket(Node<T> node) {
+        int mask = handles.length - 1;
+        int bucket = NodeIndex.spread(System.identityHashCode(node)) & mask;
+        while (handles[bucket] != 0 && nodes[handles[bucket] - 1] != node) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    /**
+     * Adds a handle to the handle table, under the node it was given to.
+     *
+     * @param handle the handle
+     */
+    private void putHandle(int handle) {
+        if ((handleCount + 1) * 2 > handles.length) {
+            int[] old = handles;
+            handles = new int[old.length * 2];
+            for (int entry : old) {
+                if (entry != 0) {
+                    handles[handleBucket(nodes[entry - 1])] = entry;
+                }
+            }
+        }
+        handles[handleBucket(nodes[handle])] = handle + 1;
+        handleCount++;
+    }
+
+    /**
+     * Removes a handle from the handle table, shifting back the handles that
+     * probed past it; the node of the handle must still be set.
+     *
+     * @param hole the bucket of the handle
+     */
+    private void removeHandle(int hole) {
+        int mask = handles.length - 1;
+        for (int probe = (hole + 1) & mask; handles[probe] != 0; probe = (probe + 1) & mask) {
+            int home = NodeIndex.spread(System.identityHashCode(nodes[handles[probe] - 1])) & mask;
+            if (((probe - home) & mask) >= ((probe - hole) & mask)) {
+                handles[hole] = handles[probe];
+                hole = probe;
+            }
+        }
+        handles[hole] = 0;
+        handleCount--;
+    }
+
+    /**
+     * Joins the indexed fields of an element.
+     *
+     * @param element the element
+     * @return the text of its fields, separated by spaces
+     */
+    private String text(T element) {
+        StringBuilder text = new StringBuilder();
+        for (Function<T, String> field : fields) {
+            text.append(field.apply(element)).append(' ');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Normalizes a text and splits it into words.
+     *
+     * @param text the text
+     * @return the words, without accents and in lower case
+     */
+    private static String[] words(String text) {
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String spaced = SEPARATORS.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return spaced.isEmpty() ? new String[0] : spaced.split(" ");
+    }
+
+    /**
+     * Cuts words into their distinct trigrams, each word padded with a
+     * boundary mark at both ends.
+     *
+     * @param words the words
+     * @return the distinct trigrams, packed in longs
+     */
+    private static long[] trigrams(String[] words) {
+        long[] grams = new long[16];
+        int count = 0;
+        for (String word : words) {
+            String padded = BOUNDARY + word + BOUNDARY;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                if (count == grams.length) {
+                    grams = Arrays.copyOf(grams, count * 2);
+                }
+                grams[count++] = (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16
+                        | padded.charAt(i + 2);
+            }
+        }
+        long[] sorted = Arrays.copyOf(grams, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    /**
+     * Adds up, for each query word, the edit distance to the closest word of a
+     * candidate, so that reordered words cost nothing.
+     *
+     * @param query     the words of the query
+     * @param candidate the words of the candidate
+     * @return the total distance
+     */
+    private static int distance(String[] query, String[] candidate) {
+        int total = 0;
+        for (String word : query) {
+            int closest = word.length();
+            for (String other : candidate) {
+                closest = Math.min(closest, levenshtein(word, other, closest));
+            }
+            total += closest;
+        }
+        return total;
+    }
+
+    /**
+     * Computes the edit distance between two words, giving up once it is
+     * known to reach a bound.
+     *
+     * @param a     the first word
+     * @param b     the second word
+     * @param bound the distance from which the exact value does not matter
+     * @return the edit distance, or the bound if it is not smaller
+     */
+    private static int levenshtein(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) >= bound) {
+            return bound;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum >= bound) {
+                return bound;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], bound);
+    }
+}
@@ -0,0 +1,530 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import model.Entity;
+
+/**
+ * An unrolled doubly linked list: each link holds a chunk of up to a fixed
+ * number of elements in an array, so walking the list touches a few contiguous
+ * arrays instead of one node per element.
+ * <p>
+ * It offers the same operations as {@link DoubleLinkedList}. As there are no
+ * nodes per element, the operations that take a reference position receive the
+ * reference element instead, which is located through an id index to its
+ * chunk. Full chunks are split in half on insertion, and chunks that fall below
+ * half their capacity are merged with the next one on deletion.
+ *
+ * @param <T> the type of elements in this list
+ */
+public class UnrolledDoubleLinkedList<T extends Entity> implements Iterable<T> {
+
+    /**
+     * Default number of elements per chunk.
+     */
+    public static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+    /**
+     * A link of the list holding a chunk of elements.
+     */
+    private static final class Chunk {
+
+        /**
+         * Elements of the chunk; only the first {@code count} are in use.
+         */
+        private final Entity[] items;
+
+        /**
+         * Number of elements in the chunk.
+         */
+        private int count;
+
+        /**
+         * Next chunk in the list.
+         */
+        private Chunk next;
+
+        /**
+         * Previous chunk in the list.
+         */
+        private Chunk previous;
+
+        /**
+         * Creates an empty chunk.
+         *
+         * @param capacity the maximum number of elements of the chunk
+         */
+        Chunk(int capacity) {
+            this.items = new Entity[capacity];
+        }
+    }
+
+    /* Attribute that makes reference to the first chunk of the list */
+    private Chunk head;
+    /* Attribute that makes reference to the last chunk of the list */
+    private Chunk last;
+    /* Attribute that maps the id of every element to the chunk that holds it */
+    private final Map<String, Chunk> index;
+    /* Attribute that holds the maximum number of elements per chunk */
+    private final int chunkCapacity;
+    /* Attribute that holds the number of elements in the list */
+    private int size;
+    /* Attribute that counts the adjacent pairs of elements that are out of order */
+    private int descents;
+    /* Attribute that counts the structural changes, to detect them while iterating */
+    private int modCount;
+
+    /**
+     * Initializes an empty list with the default chunk capacity.
+     */
+    public UnrolledDoubleLinkedList() {
+        this(DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Initializes an empty list.
+     *
+     * @param chunkCapacity the maximum number of elements per chunk
+     * @throws IllegalArgumentException if the capacity is less than 4
+     */
+    public UnrolledDoubleLinkedList(int chunkCapacity) {
+        if (chunkCapacity < 4) {
+            throw new IllegalArgumentException("The chunk capacity must be at least 4.");
+        }
+        this.chunkCapacity = chunkCapacity;
+        this.index = new HashMap<>();
+        this.head = null;
+        this.last = null;
+        this.size = 0;
+        this.descents = 0;
+        this.modCount = 0;
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return true if the list has no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds an element at the beginning of the list.
+     *
+     * @param value the value to be added
+     */
+    public void addNodeFirst(T value) {
+        if (head == null) {
+            appendChunk();
+        }
+        insertAt(head, 0, value);
+    }
+
+    /**
+     * Adds an element at the end of the list.
+     *
+     * @param value the value to be added
+     */
+    public void addNodeLast(T value) {
+        if (last == null) {
+            appendChunk();
+        }
+        insertAt(last, last.count, value);
+    }
+
+    /**
+     * Adds an element after the specified element.
+     *
+     * @param element the element after which to add the new one
+     * @param value   the value to be added
+     */
+    public void addNodeAfterTo(T element, T value) {
+        Chunk chunk = element == null ? null : index.get(element.getId());
+        if (chunk == null)
+            return; // Validate input
+        insertAt(chunk, positionInChunk(chunk, element) + 1, value);
+    }
+
+    /**
+     * Adds an element before the specified element.
+     *
+     * @param element the element before which to add the new one
+     * @param value   the value to be added
+     */
+    public void addNodeBeforeTo(T element, T value) {
+        Chunk chunk = element == null ? null : index.get(element.getId());
+        if (chunk == null)
+            return;
+        insertAt(chunk, positionInChunk(chunk, element), value);
+    }
+
+    /**
+     * Adds an element in sorted order, before the first element greater than
+     * it. While the list is sorted, whole chunks are skipped by looking at
+     * their last element only.
+     *
+     * @param value the value to be added
+     */
+    public void addNodeSorted(T value) {
+        if (isEmpty()) {
+            addNodeFirst(value);
+            return;
+        }
+        if (descents == 0) {
+            Chunk chunk = head;
+            while (chunk != null && chunk.items[chunk.count - 1].compareTo(value) <= 0) {
+                chunk = chunk.next;
+            }
+            if (chunk == null) {
+                addNodeLast(value);
+                return;
+            }
+            int low = 0;
+            int high = chunk.count - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (chunk.items[middle].compareTo(value) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            insertAt(chunk, low, value);
+            return;
+        }
+        for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+            for (int i = 0; i < chunk.count; i++) {
+                if (value.compareTo(chunk.items[i]) < 0) {
+                    insertAt(chunk, i, value);
+                    return;
+                }
+            }
+        }
+        addNodeLast(value);
+    }
+
+    /**
+     * Finds the element with the specified code.
+     *
+     * @param code the code to search for
+     * @return the element with that code, or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public T find(String code) {
+        Chunk chunk = index.get(code);
+        if (chunk == null) {
+            return null;
+        }
+        for (int i = 0; i < chunk.count; i++) {
+            if (chunk.items[i].getId().equals(code)) {
+                return (T) chunk.items[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the elements of the list in a specified order.
+     *
+     * @param asc true to get elements in ascending order, false for descending
+     *            order
+     * @return a list of elements in the specified order
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getLinkedList(boolean asc) {
+        List<T> elements = new ArrayList<>(size);
+        if (asc) {
+            for (Chunk chunk = head; chunk != null; chunk = chunk.next) {
+                for (int i = 0; i < chunk.count; i++) {
+                    elements.add((T) chunk.items[i]);
+                }
+            }
+        } else {
+            for (Chunk chunk = last; chunk != null; chunk = chunk.previous) {
+                for (int i = chunk.count - 1; i >= 0; i--) {
+                    elements.add((T) chunk.items[i]);
+                }
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Deletes the specified element from the list.
+     *
+     * @param element the element to be deleted
+     * @return the deleted element, or null if it is not in the list
+     */
+    @SuppressWarnings("unchecked")
+    public T deleteNode(T element) {
+        Chunk chunk = element == null ? null : index.get(element.getId());
+        if (chunk == null) {
+            return null;
+        }
+        int position = positionInChunk(chunk, element);
+        T removed = (T) chunk.items[position];
+        Entity before = elementBefore(chunk, position);
+        Entity after = elementAfter(chunk, position);
+        descents += descent(before, after) - descent(before, removed) - descent(removed, after);
+
+        System.arraycopy(chunk.items, position + 1, chunk.items, position, chunk.count - position - 1);
+        chunk.items[--chunk.count] = null;
+        index.remove(removed.getId(), chunk);
+        size--;
+        modCount++;
+
+        if (chunk.count == 0) {
+            unlinkChunk(chunk);
+        } else if (chunk.count < chunkCapacity / 2 && chunk.next != null
+                && chunk.count + chunk.next.count <= chunkCapacity) {
+            Chunk next = chunk.next;
+            for (int i = 0; i < next.count; i++) {
+                chunk.items[chunk.count++] = next.items[i];
+                index.put(next.items[i].getId(), chunk);
+            }
+            unlinkChunk(next);
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the size of the list.
+     *
+     * @return the number of elements in the list
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Retrieves the object at the specified position, skipping whole chunks.
+     *
+     * @param pos the position to retrieve
+     * @return the object at the specified position, or null if out of bounds
+     */
+    @SuppressWarnings("unchecked")
+    public T getObject(int pos) {
+        if (pos < 0 || pos >= size) {
+            return null;
+        }
+        Chunk chunk = head;
+        while (pos >= chunk.count) {
+            pos -= chunk.count;
+            chunk = chunk.next;
+        }
+        return (T) chunk.items[pos];
+    }
+
+    /**
+     * Retrieves the first element in the list.
+     *
+     * @return the first element, or null if the list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T getFirst() {
+        return head != null ? (T) head.items[0] : null;
+    }
+
+    /**
+     * Retrieves the last element in the list.
+     *
+     * @return the last element, or null if the list is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T getLast() {
+        return last != null ? (T) last.items[last.count - 1] : null;
+    }
+
+    /**
+     * Returns an iterator over the elements in ascending order. The iterator
+     * fails fast if the list is structurally modified while it is in use.
+     *
+     * @return an iterator over the elements of the list
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private Chunk chunk = head;
+            private int position = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return chunk != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (chunk == null) {
+                    throw new NoSuchElementException();
+                }
+                T info = (T) chunk.items[position++];
+                if (position == chunk.count) {
+                    chunk = chunk.next;
+                    position = 0;
+                }
+                return info;
+            }
+        };
+    }
+
+    /**
+     * Inserts an element at a position of a chunk, splitting the chunk first if
+     * it is full.
+     *
+     * @param chunk    the chunk that receives the element
+     * @param position the position inside the chunk, up to its count
+     * @param value    the element to insert
+     */
+    private void insertAt(Chunk chunk, int position, T value) {
+        Entity before = elementBefore(chunk, position);
+        Entity after = elementAfter(chunk, position - 1);
+        descents += descent(before, value) + descent(value, after) - descent(before, after);
+
+        if (chunk.count == chunkCapacity) {
+            Chunk upper = splitChunk(chunk);
+            if (position > chunk.count) {
+                position -= chunk.count;
+                chunk = upper;
+            }
+        }
+        System.arraycopy(chunk.items, position, chunk.items, position + 1, chunk.count - position);
+        chunk.items[position] = value;
+        chunk.count++;
+        index.put(value.getId(), chunk);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Moves the upper half of a full chunk into a new chunk linked after it.
+     *
+     * @param chunk the chunk to split
+     * @return the new chunk
+     */
+    private Chunk splitChunk(Chunk chunk) {
+        Chunk upper = new Chunk(chunkCapacity);
+        int half = chunk.count / 2;
+        upper.count = chunk.count - half;
+        System.arraycopy(chunk.items, half, upper.items, 0, upper.count);
+        for (int i = half; i < chunk.count; i++) {
+            index.put(chunk.items[i].getId(), upper);
+            chunk.items[i] = null;
+        }
+        chunk.count = half;
+
+        upper.previous = chunk;
+        upper.next = chunk.next;
+        if (chunk.next != null) {
+            chunk.next.previous = upper;
+        } else {
+            last = upper;
+        }
+        chunk.next = upper;
+        return upper;
+    }
+
+    /**
+     * Links a new empty chunk at the end of the list.
+     */
+    private void appendChunk() {
+        Chunk chunk = new Chunk(chunkCapacity);
+        chunk.previous = last;
+        if (last != null) {
+            last.next = chunk;
+        } else {
+            head = chunk;
+        }
+        last = chunk;
+    }
+
+    /**
+     * Unlinks a chunk from the list.
+     *
+     * @param chunk the chunk to unlink
+     */
+    private void unlinkChunk(Chunk chunk) {
+        if (chunk.previous != null) {
+            chunk.previous.next = chunk.next;
+        } else {
+            head = chunk.next;
+        }
+        if (chunk.next != null) {
+            chunk.next.previous = chunk.previous;
+        } else {
+            last = chunk.previous;
+        }
+    }
+
+    /**
+     * Finds the position of an element inside its chunk.
+     *
+     * @param chunk   the chunk holding the element
+     * @param element the element to locate
+     * @return the position of the element inside the chunk
+     */
+    private static int positionInChunk(Chunk chunk, Entity element) {
+        for (int i = 0; i < chunk.count; i++) {
+            if (chunk.items[i].getId().equals(element.getId())) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Element not found in its chunk.");
+    }
+
+    /**
+     * Gets the element right before a position of a chunk.
+     *
+     * @param chunk    the chunk
+     * @param position the position inside the chunk
+     * @return the previous element in the list, or null if there is none
+     */
+    private static Entity elementBefore(Chunk chunk, int position) {
+        if (position > 0) {
+            return chunk.items[position - 1];
+        }
+        Chunk previous = chunk.previous;
+        return previous != null ? previous.items[previous.count - 1] : null;
+    }
+
+    /**
+     * Gets the element right after a position of a chunk.
+     *
+     * @param chunk    the chunk
+     * @param position the position inside the chunk
+     * @return the next element in the list, or null if there is none
+     */
+    private static Entity elementAfter(Chunk chunk, int position) {
+        if (position + 1 < chunk.count) {
+            return chunk.items[position + 1];
+        }
+        Chunk next = chunk.next;
+        return next != null ? next.items[0] : null;
+    }
+
+    /**
+     * Checks whether two adjacent elements are out of order.
+     *
+     * @param first  the first element, may be null
+     * @param second the element that follows it, may be null
+     * @return 1 if both elements exist and the first is greater than the
+     *         second, 0 otherwise
+     */
+    private static int descent(Entity first, Entity second) {
+        if (first == null || second == null) {
+            return 0;
+        }
+        return first.compareTo(second) > 0 ? 1 : 0;
+    }
+}
@@ -5,6 +5,7 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JTextField;
+import controller.OrderedStudentStore;
 import controller.StudentHandler;
 import model.ActionType;
 import model.EGender;
@@ -111,9 +112,9 @@ public class AddStudentScreen extends JFrame {
     private JButton buttonCancel;
 
     /**
-     * Instance of the StudentHandler to manage student-related actions.
+     * Store of the application to manage student-related actions.
      */
-    private StudentHandler sh = StudentHandler.getInstance(); // Get the instance of the handler
+    private OrderedStudentStore sh = StudentHandler.getStore(); // Get the store of the application
 
     /**
      * Reference to the main screen of the application.
@@ -375,7 +376,7 @@ public class AddStudentScreen extends JFrame {
                     JOptionPane.showMessageDialog(null, "Student added successfully!");
 
                     // Mostrar la lista de estudiantes
-                    StudentHandler sh = StudentHandler.getInstance();
+                    OrderedStudentStore sh = StudentHandler.getStore();
                     List<Student> studentsAscending = sh.listAllStudents(true);
                     List<Student> studentsDescending = sh.listAllStudents(false);
 
@@ -2,6 +2,7 @@ package gui;
 
 import javax.swing.*;
 
+import controller.OrderedStudentStore;
 import controller.StudentHandler;
 
 import java.awt.*;
@@ -118,7 +119,7 @@ public class DeleteStudentScreen extends JFrame implements ActionListener {
         String id = idField.getText();
         if (id != null && !id.isEmpty()) {
             try {
-                StudentHandler sh = StudentHandler.getInstance();
+                OrderedStudentStore sh = StudentHandler.getStore();
                 sh.deleteStudent(id);
                 principalScreen.setVisible(true);
                 dispose();
@@ -14,6 +14,7 @@ import java.awt.Image;
 import java.awt.Insets;
 import javax.swing.ImageIcon;
 
+import controller.OrderedStudentStore;
 import controller.StudentHandler;
 import model.Student;
 
@@ -68,9 +69,9 @@ public class FindStudentScreen extends JFrame {
     private JButton buttonCancel;
 
     /**
-     * Instance of the StudentHandler to manage student-related actions.
+     * Store of the application to manage student-related actions.
      */
-    private StudentHandler sh = StudentHandler.getInstance();
+    private OrderedStudentStore sh = StudentHandler.getStore();
 
     /**
      * Reference to the main application screen.
@@ -13,6 +13,7 @@ import javax.swing.JTable;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 
+import controller.OrderedStudentStore;
 import controller.StudentHandler;
 import model.Student;
 
@@ -32,8 +33,8 @@ public class ShowAllStudentsScreen extends JFrame {
     /** Table model to manage the data shown in the JTable. */
     private DefaultTableModel model;
 
-    /** Instance of StudentHandler to manage student-related operations. */
-    private StudentHandler sh = StudentHandler.getInstance();
+    /** Store of the application to manage student-related operations. */
+    private OrderedStudentStore sh = StudentHandler.getStore();
 
     /**
      * Constructs a new ShowAllStudentsScreen.
@@ -202,10 +203,8 @@ public class ShowAllStudentsScreen extends JFrame {
      */
     private void loadStudents(boolean ascending) {
         model.setRowCount(0);
-        if(!sh.listAllStudents(ascending).isEmpty() ) {
-            for (Student student : sh.listAllStudents(ascending)) {
-                model.addRow(new Object[]{student.getId(), student.getName(), student.getCareer()});
-            }
+        for (Student student : sh.listAllStudents(ascending)) {
+            model.addRow(new Object[]{student.getId(), student.getName(), student.getCareer()});
         }
     }
 
@@ -1,6 +1,7 @@
 package gui;
 
 import javax.swing.*;
+import controller.OrderedStudentStore;
 import controller.StudentHandler;
 import model.EGender;
 import java.awt.*;
@@ -155,7 +156,7 @@ public class UpdateStudentScreen extends JFrame {
                 EGender gender = (EGender) genderComboBox.getSelectedItem();
 
                 if (!id.isEmpty() && !name.isEmpty() && !lastName.isEmpty() && !email.isEmpty() && !career.isEmpty()) {
-                    StudentHandler sh = StudentHandler.getInstance();
+                    OrderedStudentStore sh = StudentHandler.getStore();
 
                     if (sh.studentExists(id)) {
                         sh.updateStudent(id, name, lastName, email, gender, career);
@@ -1,8 +1,8 @@
 package model;
 
 /**
- * Enum representing the action types that can be performed when adding a
- * student.
+ * Enum representing the action types that can be performed on the students,
+ * as chosen in the add screen and recorded in the journal of changes.
  */
 public enum ActionType {
 
@@ -25,5 +25,13 @@ public enum ActionType {
     /**
      * Makes reference to add node after another
      */
-    ADD_AFTER
+    ADD_AFTER,
+    /**
+     * Makes reference to update the information of a node
+     */
+    UPDATE,
+    /**
+     * Makes reference to delete a node
+     */
+    DELETE
 }
@@ -1,10 +1,14 @@
 package view;
 
+import controller.OffHeapStudentStore;
+import controller.StudentHandler;
 import gui.PrincipalScreen;
 
 /**
  * Main application class to launch the student management application.
- * It initializes the PrincipalScreen and sets its visibility.
+ * It initializes the PrincipalScreen and sets its visibility. Started with
+ * the system property {@code students.store=offheap}, the screens keep the
+ * students in an {@link OffHeapStudentStore} instead of the handler.
  */
 public class App {
 
@@ -14,6 +18,9 @@ public class App {
      * @param args Command line arguments (not used).
      */
     public static void main(String[] args) {
+        if ("offheap".equals(System.getProperty("students.store"))) {
+            StudentHandler.setStore(new OffHeapStudentStore());
+        }
         PrincipalScreen ps = new PrincipalScreen();
         ps.setVisible(Boolean.TRUE);
         ps.getSs().setVisible(false);
@@ -0,0 +1,84 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Micro benchmark for the heap footprint of the ArrayDoubleLinkedList class
+ * against the node-based DoubleLinkedList.
+ * <p>
+ * It is not part of the test suite; run its main method to print the heap
+ * retained per element by each list, not counting the students themselves,
+ * which are created once and shared by every list.
+ */
+public class ArrayDoubleLinkedListBenchmark {
+
+    /**
+     * Number of elements stored in each list.
+     */
+    private static final int SIZE = 1_000_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        List<Student> students = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            students.add(new Student(String.format("%08d", i), "Name", "Lastname", "mail", EGender.OTHER, "systems"));
+        }
+
+        report("node-based", () -> {
+            DoubleLinkedList<Student> list = new DoubleLinkedList<>();
+            students.forEach(list::addNodeLast);
+            return list;
+        });
+        report("node-based + skip list", () -> {
+            DoubleLinkedList<Student> list = new DoubleLinkedList<>(true);
+            students.forEach(list::addNodeLast);
+            return list;
+        });
+        report("array-backed", () -> {
+            ArrayDoubleLinkedList<Student> list = new ArrayDoubleLinkedList<>(SIZE);
+            students.forEach(list::addNodeLast);
+            return list;
+        });
+        if (students.isEmpty()) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Builds a list and prints the heap it retains per element.
+     *
+     * @param name    the name of the list in the report
+     * @param builder the code that builds the list
+     */
+    private static void report(String name, Supplier<Object> builder) {
+        long before = usedHeap();
+        Object list = builder.get();
+        long after = usedHeap();
+        System.out.printf("%-24s %8.1f bytes/element%n", name, (after - before) / (double) SIZE);
+        if (list.hashCode() == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Measures the heap in use after collecting garbage.
+     *
+     * @return the used heap in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
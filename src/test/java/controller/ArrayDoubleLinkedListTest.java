@@ -0,0 +1,96 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ArrayDoubleLinkedList class, checked against the
+ * DoubleLinkedList it mirrors.
+ */
+public class ArrayDoubleLinkedListTest {
+
+    /**
+     * Creates a student with the given code and fixed remaining fields.
+     *
+     * @param code the student's code
+     * @return the new student
+     */
+    private static Student student(String code) {
+        return new Student(code, "Name" + code, "Lastname" + code, code + "@mail", EGender.OTHER, "systems");
+    }
+
+    /**
+     * Tests that a random mix of operations leaves both lists with the same
+     * elements in the same order and that handles keep finding their elements.
+     */
+    @Test
+    public void testMatchesDoubleLinkedList() {
+        ArrayDoubleLinkedList<Student> slots = new ArrayDoubleLinkedList<>();
+        DoubleLinkedList<Student> reference = new DoubleLinkedList<>();
+        Random random = new Random(9);
+        List<Student> live = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Student student = student(String.format("%05d", random.nextInt(100_000)));
+            if (reference.findNode(student.getId()) != null) {
+                continue;
+            }
+            int operation = random.nextInt(6);
+            if (operation == 0 && !live.isEmpty()) {
+                Student removed = live.remove(random.nextInt(live.size()));
+                assertSame(removed, slots.deleteNode(slots.findNode(removed.getId())));
+                reference.deleteNode(reference.findNode(removed.getId()));
+                continue;
+            } else if (operation == 1) {
+                slots.addNodeFirst(student);
+                reference.addNodeFirst(student);
+            } else if (operation == 2) {
+                slots.addNodeLast(student);
+                reference.addNodeLast(student);
+            } else if (operation == 3 && !live.isEmpty()) {
+                String target = live.get(random.nextInt(live.size())).getId();
+                slots.addNodeAfterTo(slots.findNode(target), student);
+                reference.addNodeAfterTo(reference.findNode(target), student);
+            } else if (operation == 4 && !live.isEmpty()) {
+                String target = live.get(random.nextInt(live.size())).getId();
+                slots.addNodeBeforeTo(slots.findNode(target), student);
+                reference.addNodeBeforeTo(reference.findNode(target), student);
+            } else {
+                slots.addNodeSorted(student);
+                reference.addNodeSorted(student);
+            }
+            live.add(student);
+        }
+
+        assertEquals(reference.getLinkedList(true), slots.getLinkedList(true));
+        assertEquals(reference.getLinkedList(false), slots.getLinkedList(false));
+        assertEquals(reference.getSize(), slots.getSize());
+        for (Student student : live) {
+            assertSame(student, slots.getInfo(slots.findNode(student.getId())));
+        }
+        assertEquals(ArrayDoubleLinkedList.NO_NODE, slots.findNode("missing"));
+    }
+
+    /**
+     * Tests that deleted slots are reused and that stale handles are rejected.
+     */
+    @Test
+    public void testFreeListReusesSlots() {
+        ArrayDoubleLinkedList<Student> slots = new ArrayDoubleLinkedList<>(4);
+        int first = slots.addNodeLast(student("001"));
+        int second = slots.addNodeLast(student("002"));
+        slots.deleteNode(first);
+
+        assertEquals(ArrayDoubleLinkedList.NO_NODE, slots.addNodeAfterTo(first, student("003")));
+        assertThrows(IllegalArgumentException.class, () -> slots.deleteNode(first));
+        assertEquals(first, slots.addNodeBeforeTo(second, student("000")));
+        assertEquals("000", slots.getFirst().getId());
+        assertEquals(second, slots.getNext(slots.getHead()));
+    }
+}
@@ -0,0 +1,54 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Micro benchmark for loading a roster into the StudentHandler class.
+ * <p>
+ * It is not part of the test suite; run its main method to print, for growing
+ * roster sizes up to one million students in random code order, the time taken
+ * by one {@code addStudent} call per student next to a single
+ * {@code addStudents} call.
+ */
+public class BulkLoadBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        System.out.printf("%10s %18s %18s%n", "students", "addStudent ms", "addStudents ms");
+        for (int size = 125_000; size <= 1_000_000; size *= 2) {
+            List<Student> roster = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                roster.add(new Student(String.format("%08d", i), "Name", "Lastname", "mail", EGender.OTHER,
+                        "systems"));
+            }
+            Collections.shuffle(roster, new Random(42));
+
+            StudentHandler handler = StudentHandler.getInstance();
+            long start = System.nanoTime();
+            for (Student student : roster) {
+                handler.addStudent(student.getId(), student.getName(), student.getLastName(), student.getEmail(),
+                        student.getGender(), student.getCareer());
+            }
+            double single = (System.nanoTime() - start) / 1e6;
+            handler.restartInstance();
+
+            handler = StudentHandler.getInstance();
+            start = System.nanoTime();
+            handler.addStudents(roster);
+            double bulk = (System.nanoTime() - start) / 1e6;
+            handler.restartInstance();
+
+            System.out.printf("%10d %18.0f %18.0f%n", size, single, bulk);
+        }
+    }
+}
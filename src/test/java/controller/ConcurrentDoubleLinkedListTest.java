@@ -0,0 +1,141 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ConcurrentDoubleLinkedList class.
+ */
+public class ConcurrentDoubleLinkedListTest {
+
+    /**
+     * Creates a student with the given code and fixed remaining fields.
+     *
+     * @param code the student's code
+     * @return the new student
+     */
+    private static Student student(String code) {
+        return new Student(code, "Name" + code, "Lastname" + code, code + "@mail", EGender.OTHER, "systems");
+    }
+
+    /**
+     * Tests adding and deleting at both ends and in the middle from a single
+     * thread.
+     */
+    @Test
+    public void testSingleThreadOperations() {
+        ConcurrentDoubleLinkedList<Student> list = new ConcurrentDoubleLinkedList<>();
+        assertTrue(list.isEmpty());
+        assertNull(list.deleteFirst());
+        assertNull(list.deleteLast());
+
+        Student middle = student("002");
+        list.addNodeLast(middle);
+        list.addNodeFirst(student("001"));
+        list.addNodeLast(student("003"));
+
+        assertEquals(3, list.getSize());
+        assertEquals("001", list.getFirst().getId());
+        assertEquals("003", list.getLast().getId());
+        assertSame(middle, list.find("002"));
+        assertSame(middle, list.deleteNode(middle));
+        assertNull(list.deleteNode(middle));
+        assertNull(list.find("002"));
+        assertEquals(List.of("001", "003"), list.getLinkedList(true).stream().map(Student::getId).toList());
+        assertEquals(List.of("003", "001"), list.getLinkedList(false).stream().map(Student::getId).toList());
+        assertEquals("001", list.deleteFirst().getId());
+        assertEquals("003", list.deleteLast().getId());
+        assertTrue(list.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> list.addNodeFirst(null));
+    }
+
+    /**
+     * Tests that millions of operations from many threads at both ends leave a
+     * list whose forward and backward traversals agree, holding exactly the
+     * elements that were added and not deleted.
+     */
+    @Test
+    public void testConcurrentStress() throws InterruptedException {
+        ConcurrentDoubleLinkedList<Student> list = new ConcurrentDoubleLinkedList<>();
+        int threads = 8;
+        int operations = 250_000;
+        Set<String> deleted = ConcurrentHashMap.newKeySet();
+        LongAdder added = new LongAdder();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers.add(new Thread(() -> {
+                try {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    List<Student> own = new ArrayList<>();
+                    for (int i = 0; i < operations; i++) {
+                        int operation = random.nextInt(5);
+                        Student removed = null;
+                        if (operation == 0) {
+                            Student student = student(thread + "-" + i);
+                            own.add(student);
+                            list.addNodeFirst(student);
+                            added.increment();
+                        } else if (operation == 1) {
+                            Student student = student(thread + "-" + i);
+                            own.add(student);
+                            list.addNodeLast(student);
+                            added.increment();
+                        } else if (operation == 2) {
+                            removed = list.deleteFirst();
+                        } else if (operation == 3) {
+                            removed = list.deleteLast();
+                        } else if (!own.isEmpty()) {
+                            removed = list.deleteNode(own.remove(random.nextInt(own.size())));
+                        }
+                        if (removed != null && !deleted.add(removed.getId())) {
+                            throw new AssertionError("Deleted twice: " + removed.getId());
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get());
+
+        List<Student> forward = list.getLinkedList(true);
+        List<Student> backward = list.getLinkedList(false);
+        Collections.reverse(backward);
+        assertEquals(forward, backward);
+        assertEquals(forward.size(), list.getSize());
+
+        Set<String> remaining = new HashSet<>();
+        for (Student student : forward) {
+            assertTrue(remaining.add(student.getId()), "Listed twice: " + student.getId());
+            assertFalse(deleted.contains(student.getId()), "Deleted but listed: " + student.getId());
+        }
+        assertEquals(added.sum(), deleted.size() + remaining.size());
+
+        int drained = 0;
+        while (list.deleteLast() != null) {
+            drained++;
+        }
+        assertEquals(remaining.size(), drained);
+        assertTrue(list.isEmpty());
+        assertTrue(list.getLinkedList(false).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package controller;
+
+import java.util.Random;
+
+import model.EGender;
+import model.Node;
+import model.Student;
+
+/**
+ * Micro benchmark for the code lookups of the DoubleLinkedList class.
+ * <p>
+ * It is not part of the test suite; run its main method to print, for growing
+ * list sizes, the average latency of {@code findNode} (the duplicate check done
+ * by every StudentHandler operation) next to the linear walk it replaced.
+ */
+public class DoubleLinkedListBenchmark {
+
+    /**
+     * Number of lookups timed for each list size.
+     */
+    private static final int LOOKUPS = 20_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        System.out.printf("%10s %18s %18s%n", "size", "findNode ns/op", "linear ns/op");
+        for (int size = 1_000; size <= 256_000; size *= 4) {
+            DoubleLinkedList<Student> list = new DoubleLinkedList<>();
+            for (int i = 0; i < size; i++) {
+                list.addNodeLast(new Student(code(i), "Name", "Lastname", "mail", EGender.OTHER, "systems"));
+            }
+            String[] keys = new String[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) {
+                keys[i] = code(random.nextInt(size));
+            }
+
+            long sink = 0;
+            long start = System.nanoTime();
+            for (String key : keys) {
+                sink += list.findNode(key).getInfo().getId().length();
+            }
+            double indexed = (System.nanoTime() - start) / (double) LOOKUPS;
+
+            int linearLookups = Math.max(1, LOOKUPS * 1_000 / size);
+            start = System.nanoTime();
+            for (int i = 0; i < linearLookups; i++) {
+                sink += linearFind(list, keys[i]).getId().length();
+            }
+            double linear = (System.nanoTime() - start) / (double) linearLookups;
+
+            System.out.printf("%10d %18.1f %18.1f%n", size, indexed, linear);
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+
+    /**
+     * Finds an element by walking the list from the head, as findNode did
+     * before the id index existed.
+     *
+     * @param list the list to search
+     * @param code the code to search for
+     * @return the element with the given code, or null if not found
+     */
+    private static Student linearFind(DoubleLinkedList<Student> list, String code) {
+        Node<Student> current = list.findNode(list.getFirst().getId());
+        while (current != null) {
+            if (current.getInfo().getId().equals(code)) {
+                return current.getInfo();
+            }
+            current = current.getNext();
+        }
+        return null;
+    }
+
+    /**
+     * Builds a zero padded student code.
+     *
+     * @param i the sequence number of the student
+     * @return the code for that number
+     */
+    private static String code(int i) {
+        return String.format("%08d", i);
+    }
+}
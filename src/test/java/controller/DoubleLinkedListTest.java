@@ -0,0 +1,503 @@
+package controller;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import com.sun.management.ThreadMXBean;
+import model.EGender;
+import model.Node;
+import model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Test class for the index structures kept by the DoubleLinkedList class.
+ */
+public class DoubleLinkedListTest {
+    private DoubleLinkedList<Student> list;
+
+    /**
+     * Creates an empty list before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        list = new DoubleLinkedList<>();
+    }
+
+    /**
+     * Creates a student with the given code and fixed remaining fields.
+     *
+     * @param code the student's code
+     * @return the new student
+     */
+    private static Student student(String code) {
+        return new Student(code, "Name" + code, "Lastname" + code, code + "@mail", EGender.OTHER, "systems");
+    }
+
+    /**
+     * Tests that the id index finds nodes added through every insertion path
+     * and forgets them once they are deleted.
+     */
+    @Test
+    public void testFindNodeFollowsAddAndDelete() {
+        list.addNodeSorted(student("002"));
+        list.addNodeFirst(student("001"));
+        list.addNodeLast(student("005"));
+        list.addNodeBeforeTo(list.findNode("005"), student("004"));
+        list.addNodeAfterTo(list.findNode("002"), student("003"));
+
+        for (String code : new String[] { "001", "002", "003", "004", "005" }) {
+            Node<Student> node = list.findNode(code);
+            assertNotNull(node, "Node " + code + " should be indexed");
+            assertEquals(code, node.getInfo().getId());
+        }
+
+        list.deleteNode(list.findNode("003"));
+        assertNull(list.findNode("003"));
+        assertEquals("004", list.findNode("002").getNext().getInfo().getId());
+    }
+
+    /**
+     * Tests that replacing the information of a node keeps the index in step,
+     * including when the id changes.
+     */
+    @Test
+    public void testSetNodeInfoUpdatesIndex() {
+        list.addNodeSorted(student("001"));
+        Node<Student> node = list.findNode("001");
+
+        list.setNodeInfo(node, student("009"));
+        assertNull(list.findNode("001"));
+        assertSame(node, list.findNode("009"));
+    }
+
+    /**
+     * Tests that sorted insertion through the skip-list overlay keeps the list
+     * in code order for a shuffled batch, including after deletions.
+     */
+    @Test
+    public void testSkipListSortedInsertion() {
+        DoubleLinkedList<Student> indexed = new DoubleLinkedList<>(true);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            codes.add(String.format("%05d", i));
+        }
+        Collections.shuffle(codes, new Random(7));
+        for (String code : codes) {
+            indexed.addNodeSorted(student(code));
+        }
+        for (int i = 0; i < 2000; i += 3) {
+            indexed.deleteNode(indexed.findNode(String.format("%05d", i)));
+        }
+        indexed.addNodeSorted(student("00000"));
+
+        List<Student> elements = indexed.getLinkedList(true);
+        for (int i = 1; i < elements.size(); i++) {
+            assertTrue(elements.get(i - 1).compareTo(elements.get(i)) < 0, "List should stay sorted");
+        }
+        assertTrue(indexed.isSorted());
+        assertEquals("00000", indexed.getFirst().getId());
+    }
+
+    /**
+     * Tests floor and ceiling searches with and without the overlay, on sorted
+     * and unsorted lists.
+     */
+    @Test
+    public void testFloorAndCeiling() {
+        DoubleLinkedList<Student> indexed = new DoubleLinkedList<>(true);
+        for (DoubleLinkedList<Student> target : List.of(list, indexed)) {
+            target.addNodeSorted(student("010"));
+            target.addNodeSorted(student("030"));
+            target.addNodeSorted(student("020"));
+
+            assertEquals("020", target.floorNode(student("025")).getInfo().getId());
+            assertEquals("020", target.floorNode(student("020")).getInfo().getId());
+            assertEquals("030", target.ceilingNode(student("025")).getInfo().getId());
+            assertEquals("010", target.ceilingNode(student("001")).getInfo().getId());
+            assertNull(target.floorNode(student("005")));
+            assertNull(target.ceilingNode(student("031")));
+
+            target.addNodeFirst(student("050"));
+            assertFalse(target.isSorted());
+            assertEquals("030", target.floorNode(student("049")).getInfo().getId());
+            assertEquals("050", target.ceilingNode(student("031")).getInfo().getId());
+
+            target.deleteNode(target.findNode("050"));
+            assertTrue(target.isSorted());
+            target.addNodeSorted(student("015"));
+            assertEquals("015", target.getObject(1).getId());
+        }
+    }
+
+    /**
+     * Tests that positional access, positions and size stay exact after a mix
+     * of every insertion path and deletions.
+     */
+    @Test
+    public void testPositionalAccessAfterMixedOperations() {
+        DoubleLinkedList<Student> indexed = new DoubleLinkedList<>(true);
+        Random random = new Random(11);
+        List<String> live = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String code = String.format("%05d", i);
+            int operation = random.nextInt(6);
+            if (operation == 0 && !live.isEmpty()) {
+                String removed = live.remove(random.nextInt(live.size()));
+                indexed.deleteNode(indexed.findNode(removed));
+            } else if (operation == 1) {
+                indexed.addNodeFirst(student(code));
+                live.add(code);
+            } else if (operation == 2) {
+                indexed.addNodeLast(student(code));
+                live.add(code);
+            } else if (operation == 3 && !live.isEmpty()) {
+                indexed.addNodeAfterTo(indexed.findNode(live.get(random.nextInt(live.size()))), student(code));
+                live.add(code);
+            } else if (operation == 4 && !live.isEmpty()) {
+                indexed.addNodeBeforeTo(indexed.findNode(live.get(random.nextInt(live.size()))), student(code));
+                live.add(code);
+            } else {
+                indexed.addNodeSorted(student(code));
+                live.add(code);
+            }
+        }
+
+        List<Student> elements = indexed.getLinkedList(true);
+        assertEquals(live.size(), indexed.getSize());
+        assertEquals(elements.size(), indexed.getSize());
+        for (int i = 0; i < elements.size(); i++) {
+            assertSame(elements.get(i), indexed.getObject(i));
+            assertEquals(i, indexed.getPosition(indexed.findNode(elements.get(i).getId())));
+        }
+        assertNull(indexed.getObject(elements.size()));
+        assertNull(indexed.getObject(-1));
+    }
+
+    /**
+     * Tests that a bulk load merges like one sorted insertion per element,
+     * leaves an overlay that keeps working, and adds nothing when a code is
+     * repeated.
+     */
+    @Test
+    public void testAddAllSortedMergesIntoChain() {
+        DoubleLinkedList<Student> bulk = new DoubleLinkedList<>(true);
+        DoubleLinkedList<Student> reference = new DoubleLinkedList<>();
+        Random random = new Random(13);
+        List<Student> batch = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            Student student = student(String.format("%06d", i * 7));
+            if (i % 3 == 0) {
+                bulk.addNodeSorted(student);
+                reference.addNodeSorted(student);
+            } else {
+                batch.add(student);
+            }
+        }
+        Collections.shuffle(batch, random);
+        bulk.addAllSorted(batch);
+        batch.forEach(reference::addNodeSorted);
+
+        List<Student> elements = bulk.getLinkedList(true);
+        assertEquals(reference.getLinkedList(true), elements);
+        assertTrue(bulk.isSorted());
+        assertEquals(4000, bulk.getSize());
+        for (int i = 0; i < elements.size(); i++) {
+            assertSame(elements.get(i), bulk.getObject(i));
+            assertEquals(i, bulk.getPosition(bulk.findNode(elements.get(i).getId())));
+        }
+        bulk.addNodeSorted(student("000001"));
+        assertEquals("000001", bulk.getObject(1).getId());
+        assertSame(elements.get(elements.size() - 1), bulk.getLast());
+
+        List<Student> repeated = List.of(student("999999"), student("000007"));
+        assertThrows(IllegalArgumentException.class, () -> bulk.addAllSorted(repeated));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulk.addAllSorted(List.of(student("999998"), student("999998"))));
+        assertEquals(4001, bulk.getSize());
+        assertNull(bulk.findNode("999999"));
+    }
+
+    /**
+     * Tests that appending a batch keeps its order, tracks whether the list is
+     * sorted, and adds nothing when an id is repeated.
+     */
+    @Test
+    public void testAddAllLastKeepsBatchOrder() {
+        DoubleLinkedList<Student> indexed = new DoubleLinkedList<>(true);
+        List<Student> sorted = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            sorted.add(student(String.format("%04d", i)));
+        }
+        indexed.addAllLast(sorted);
+        assertEquals(sorted, indexed.getLinkedList(true));
+        assertTrue(indexed.isSorted());
+        assertEquals("0500", indexed.ceilingNode(student("0499x")).getInfo().getId());
+        assertEquals(700, indexed.getPosition(indexed.findNode("0700")));
+
+        list.addAllLast(List.of(student("b"), student("a"), student("c")));
+        assertFalse(list.isSorted());
+        assertEquals(List.of("b", "a", "c"), list.getLinkedList(true).stream().map(Student::getId).toList());
+        assertThrows(IllegalArgumentException.class, () -> list.addAllLast(List.of(student("d"), student("a"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> list.addAllLast(List.of(student("f"), student("e"), student("f"))));
+        assertEquals(3, list.getSize());
+    }
+
+    /**
+     * Tests that a range walk matches a filter of the whole list, sorted or
+     * not and with or without the overlay, and fails fast on changes.
+     */
+    @Test
+    public void testRangeIteratorMatchesFilter() {
+        DoubleLinkedList<Student> indexed = new DoubleLinkedList<>(true);
+        Random random = new Random(17);
+        for (int i = 0; i < 2000; i++) {
+            Student student = student(String.format("%05d", random.nextInt(100000)));
+            if (list.findNode(student.getId()) == null) {
+                list.addNodeSorted(student);
+                indexed.addNodeSorted(student);
+            }
+        }
+        for (DoubleLinkedList<Student> walked : List.of(list, indexed)) {
+            for (int round = 0; round < 50; round++) {
+                String from = String.format("%05d", random.nextInt(100000));
+                String to = String.format("%05d", random.nextInt(100000));
+                if (from.compareTo(to) > 0) {
+                    String swap = from;
+                    from = to;
+                    to = swap;
+                }
+                for (boolean ascending : new boolean[] { true, false }) {
+                    assertEquals(range(walked.getLinkedList(ascending), from, to),
+                            collect(walked.rangeIterator(from, to, ascending)));
+                }
+            }
+        }
+
+        indexed.addNodeFirst(student("99999"));
+        indexed.addNodeLast(student("00000"));
+        assertFalse(indexed.isSorted());
+        assertEquals(range(indexed.getLinkedList(false), "00000", "50000"),
+                collect(indexed.rangeIterator("00000", "50000", false)));
+        assertEquals(List.of("99999"),
+                collect(indexed.rangeIterator("99999", "99999", true)).stream().map(Student::getId).toList());
+
+        Iterator<Student> iterator = indexed.rangeIterator("00000", "99999", true);
+        indexed.deleteNode(indexed.findNode("99999"));
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    /**
+     * Keeps the elements of a list whose ids fall between two bounds.
+     *
+     * @param elements the elements to filter
+     * @param from     the lowest id
+     * @param to       the highest id
+     * @return the elements in the range, in the same order
+     */
+    private static List<Student> range(List<Student> elements, String from, String to) {
+        return elements.stream()
+                .filter(s -> s.getId().compareTo(from) >= 0 && s.getId().compareTo(to) <= 0)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Drains an iterator into a list.
+     *
+     * @param iterator the iterator to drain
+     * @return the elements it returned
+     */
+    private static List<Student> collect(Iterator<Student> iterator) {
+        List<Student> elements = new ArrayList<>();
+        iterator.forEachRemaining(elements::add);
+        return elements;
+    }
+
+    /**
+     * Tests that the spliterator splits the list into balanced halves and that
+     * a parallel stream sees every element in order.
+     */
+    @Test
+    public void testSpliteratorSplitsInHalves() {
+        DoubleLinkedList<Student> indexed = new DoubleLinkedList<>(true);
+        for (int i = 0; i < 1001; i++) {
+            indexed.addNodeLast(student(String.format("%05d", i)));
+        }
+
+        Spliterator<Student> suffix = indexed.spliterator();
+        Spliterator<Student> prefix = suffix.trySplit();
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(501, suffix.estimateSize());
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.ORDERED));
+        assertTrue(suffix.tryAdvance(first -> assertEquals("00500", first.getId())));
+
+        List<String> codes = StreamSupport.stream(indexed.spliterator(), true)
+                .map(Student::getId)
+                .collect(Collectors.toList());
+        List<String> expected = new ArrayList<>();
+        for (Student element : indexed) {
+            expected.add(element.getId());
+        }
+        assertEquals(1001, codes.size());
+        assertEquals(expected, codes);
+    }
+
+    /**
+     * Tests that deleted nodes are cleared and reused by later insertions.
+     */
+    @Test
+    public void testPoolReusesClearedNodes() {
+        DoubleLinkedList<Student> pooled = new DoubleLinkedList<>(false, 4);
+        pooled.addNodeLast(student("001"));
+        pooled.addNodeLast(student("002"));
+        Node<Student> deleted = pooled.findNode("001");
+        pooled.deleteNode(deleted);
+
+        assertNull(deleted.getInfo());
+        assertNull(deleted.getNext());
+        assertNull(deleted.getPrevious());
+
+        pooled.addNodeLast(student("003"));
+        assertSame(deleted, pooled.findNode("003"));
+        assertEquals("002", pooled.findNode("003").getPrevious().getInfo().getId());
+        assertEquals(2, pooled.getSize());
+    }
+
+    /**
+     * Tests that both views follow the list as it changes, in any access
+     * order, with or without the overlay.
+     */
+    @Test
+    public void testListViewsFollowTheList() {
+        DoubleLinkedList<Student> indexed = new DoubleLinkedList<>(true);
+        Random random = new Random(19);
+        for (DoubleLinkedList<Student> viewed : List.of(list, indexed)) {
+            List<Student> ascending = viewed.asList(true);
+            List<Student> descending = viewed.asList(false);
+            for (int i = 0; i < 500; i++) {
+                viewed.addNodeSorted(student(String.format("%05d", random.nextInt(100000))));
+                if (i % 7 == 0) {
+                    viewed.deleteNode(viewed.getNode(random.nextInt(viewed.getSize())));
+                }
+            }
+            List<Student> expected = viewed.getLinkedList(true);
+            List<Student> reversed = viewed.getLinkedList(false);
+            assertEquals(expected, ascending);
+            assertEquals(reversed, descending);
+            for (int i = expected.size() - 1; i >= 0; i--) {
+                assertSame(expected.get(i), ascending.get(i));
+            }
+            for (int round = 0; round < 1000; round++) {
+                int index = random.nextInt(expected.size());
+                assertSame(expected.get(index), ascending.get(index));
+                assertSame(reversed.get(index), descending.get(index));
+            }
+            assertThrows(UnsupportedOperationException.class, () -> ascending.add(student("x")));
+            assertThrows(IndexOutOfBoundsException.class, () -> descending.get(expected.size()));
+
+            Iterator<Student> iterator = descending.iterator();
+            viewed.addNodeFirst(student("99999x"));
+            assertThrows(ConcurrentModificationException.class, iterator::next);
+            assertEquals("99999x", ascending.get(0).getId());
+            assertEquals("99999x", descending.get(descending.size() - 1).getId());
+        }
+    }
+
+    /**
+     * Checks that walking a view, forwards or by position, allocates nothing
+     * proportional to the size of the list.
+     */
+    @Test
+    public void testListViewAllocatesNoCopy() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        for (int i = 0; i < 100_000; i++) {
+            list.addNodeLast(student(String.format("%06d", i)));
+        }
+        List<Student> descending = list.asList(false);
+        int checksum = 0;
+        for (int i = 0; i < descending.size(); i++) {
+            checksum += descending.get(i).getId().length();
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < descending.size(); i++) {
+            checksum += descending.get(i).getId().length();
+        }
+        for (Student student : list.asList(false)) {
+            checksum += student.getId().length();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertEquals(6 * 300_000, checksum);
+        assertTrue(allocated < 10_000, "Walking the view allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Measures the bytes allocated per add/delete cycle with and without a node
+     * pool, and checks that pooled churn allocates nothing in steady state.
+     */
+    @Test
+    public void testPooledChurnAllocationRate() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        Student[] students = new Student[1000];
+        for (int i = 0; i < students.length; i++) {
+            students[i] = student(String.format("%04d", i));
+        }
+        double pooledRate = churnAllocationRate(threads, new DoubleLinkedList<>(false, 64), students);
+        double plainRate = churnAllocationRate(threads, new DoubleLinkedList<>(), students);
+
+        assertTrue(pooledRate < 1, "Pooled churn allocated " + pooledRate + " bytes/op");
+        assertTrue(plainRate >= 16, "Unpooled churn should allocate a node per insertion, got " + plainRate);
+    }
+
+    /**
+     * Fills a list and then repeatedly deletes and re-adds its elements,
+     * measuring the bytes allocated by the current thread after a warm-up.
+     *
+     * @param threads  the bean that reports allocated bytes
+     * @param target   the empty list to churn
+     * @param students the students to cycle through the list
+     * @return the bytes allocated per delete and add cycle
+     */
+    private static double churnAllocationRate(ThreadMXBean threads, DoubleLinkedList<Student> target,
+            Student[] students) {
+        for (Student student : students) {
+            target.addNodeLast(student);
+        }
+        int operations = 200_000;
+        churn(target, students, operations);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        churn(target, students, operations);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        return allocated / (double) operations;
+    }
+
+    /**
+     * Deletes and re-adds elements of a list.
+     *
+     * @param target     the list to churn
+     * @param students   the students in the list
+     * @param operations the number of delete and add cycles
+     */
+    private static void churn(DoubleLinkedList<Student> target, Student[] students, int operations) {
+        for (int i = 0; i < operations; i++) {
+            Student student = students[i % students.length];
+            target.deleteNode(target.findNode(student.getId()));
+            target.addNodeLast(student);
+        }
+    }
+}
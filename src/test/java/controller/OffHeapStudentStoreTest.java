@@ -0,0 +1,228 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CRUD operations in the OffHeapStudentStore class.
+ */
+public class OffHeapStudentStoreTest {
+    private OffHeapStudentStore store;
+
+    /**
+     * Creates a store with small segments before each test, so that records
+     * spread over several of them.
+     */
+    @BeforeEach
+    public void setUp() {
+        store = new OffHeapStudentStore(4096);
+    }
+
+    /**
+     * Tests adding students in sorted order and reading them back.
+     */
+    @Test
+    public void testAddStudentSortedOrder() {
+        store.addStudent("003", "Brenda", "Garcia", "brenda.garcia", EGender.FEMALE, "systems");
+        store.addStudent("001", "Ana", "Martinez", "ana.martinez", EGender.FEMALE, "systems");
+        store.addStudent("002", "Carlos", "Alvarez", "carlos.alvarez", EGender.MALE, "industrial");
+
+        List<Student> ascending = store.listAllStudents(true);
+        assertEquals("Martinez", ascending.get(0).getLastName());
+        assertEquals("Alvarez", ascending.get(1).getLastName());
+        assertEquals(EGender.MALE, ascending.get(1).getGender());
+        assertEquals("industrial", ascending.get(1).getCareer());
+        assertEquals("Garcia", store.listAllStudents(false).get(0).getLastName());
+        assertEquals("002", store.getStudentByPosition(1).getId());
+        assertThrows(IllegalArgumentException.class,
+                () -> store.addStudent("002", "Other", "Other", "other", EGender.OTHER, "systems"));
+    }
+
+    /**
+     * Tests updates that fit in the record and updates that move the student
+     * to a larger record.
+     */
+    @Test
+    public void testUpdateStudent() {
+        store.addStudent("001", "Maria", "Perez", "maria.perez", EGender.FEMALE, "systems");
+        store.addStudent("002", "Luis", "Mendoza", "luis.mendoza", EGender.MALE, "systems");
+        store.addStudent("003", "Sofia", "Jimenez", "sofia.jimenez", EGender.FEMALE, "systems");
+
+        assertTrue(store.updateStudent("002", "Lu", "M", "l.m", EGender.OTHER, "law"));
+        assertEquals("Lu", store.findStudentByCode("002").getName());
+
+        String longName = "Luis Fernando Alejandro Santiago de la Trinidad";
+        assertTrue(store.updateStudent("002", longName, "Mendoza", "luis.mendoza", EGender.MALE, "systems"));
+        assertEquals(longName, store.findStudentByCode("002").getName());
+        assertEquals("002", store.getStudentByPosition(1).getId());
+        assertEquals(3, store.getNumberOfStudents());
+        assertThrows(IllegalStateException.class,
+                () -> store.updateStudent("009", "A", "B", "c", EGender.OTHER, "systems"));
+    }
+
+    /**
+     * Tests positional insertions and deletions against a DoubleLinkedList,
+     * with enough students to grow the code index and reuse freed records.
+     */
+    @Test
+    public void testMatchesDoubleLinkedList() {
+        DoubleLinkedList<Student> reference = new DoubleLinkedList<>();
+        Random random = new Random(13);
+        List<String> live = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            String code = String.format("%05d", random.nextInt(50_000));
+            if (reference.findNode(code) != null) {
+                continue;
+            }
+            Student student = new Student(code, "Name" + i, "Last" + code, code + "@mail", EGender.OTHER, "c" + i);
+            int operation = random.nextInt(5);
+            if (operation == 0 && !live.isEmpty()) {
+                String removed = live.remove(random.nextInt(live.size()));
+                assertTrue(store.deleteStudent(removed));
+                reference.deleteNode(reference.findNode(removed));
+                continue;
+            } else if (operation == 1) {
+                store.addStudentFirst(code, student.getName(), student.getLastName(), student.getEmail(),
+                        student.getGender(), student.getCareer());
+                reference.addNodeFirst(student);
+            } else if (operation == 2 && !live.isEmpty()) {
+                String target = live.get(random.nextInt(live.size()));
+                store.addStudentAfter(target, code, student.getName(), student.getLastName(), student.getEmail(),
+                        student.getGender(), student.getCareer());
+                reference.addNodeAfterTo(reference.findNode(target), student);
+            } else if (operation == 3 && !live.isEmpty()) {
+                String target = live.get(random.nextInt(live.size()));
+                store.addStudentBefore(target, code, student.getName(), student.getLastName(), student.getEmail(),
+                        student.getGender(), student.getCareer());
+                reference.addNodeBeforeTo(reference.findNode(target), student);
+            } else {
+                store.addStudentLast(code, student.getName(), student.getLastName(), student.getEmail(),
+                        student.getGender(), student.getCareer());
+                reference.addNodeLast(student);
+            }
+            live.add(code);
+        }
+
+        List<Student> expected = reference.getLinkedList(true);
+        List<Student> actual = store.listAllStudents(true);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+        }
+        for (String code : live) {
+            assertTrue(store.studentExists(code));
+        }
+        assertNull(store.findStudentByCode("missing"));
+    }
+
+    /**
+     * Tests sorted insertions through the express lanes, while a positional
+     * insertion has broken the code order and after its deletion restores it,
+     * with updates that move students to larger records along the way.
+     */
+    @Test
+    public void testSortedInsertionsAroundBrokenOrder() {
+        Random random = new Random(17);
+        TreeSet<String> sorted = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) {
+            String code = String.format("%06d", random.nextInt(1_000_000));
+            if (sorted.add(code)) {
+                store.addStudent(code, "Name", "Last", "mail", EGender.OTHER, "systems");
+            }
+            if (i % 7 == 0) {
+                String moved = sorted.first();
+                store.updateStudent(moved, "A much longer name than before", "Last", "mail", EGender.MALE, "law");
+            }
+            if (i % 11 == 0) {
+                String removed = sorted.pollLast();
+                assertTrue(store.deleteStudent(removed));
+            }
+        }
+        assertEquals(new ArrayList<>(sorted), store.listAllStudents(true).stream().map(Student::getId).toList());
+
+        store.addStudentFirst("999999x", "Name", "Last", "mail", EGender.OTHER, "systems");
+        store.addStudent("000000", "Name", "Last", "mail", EGender.OTHER, "systems");
+        List<String> broken = store.listAllStudents(true).stream().map(Student::getId).toList();
+        assertEquals(List.of("000000", "999999x"), broken.subList(0, 2));
+
+        assertTrue(store.deleteStudent("999999x"));
+        sorted.add("000000");
+        for (int i = 0; i < 500; i++) {
+            String code = String.format("%06d", random.nextInt(1_000_000));
+            if (sorted.add(code)) {
+                store.addStudent(code, "Name", "Last", "mail", EGender.OTHER, "systems");
+            }
+        }
+        assertEquals(new ArrayList<>(sorted), store.listAllStudents(true).stream().map(Student::getId).toList());
+        assertEquals(sorted.first(), store.getFirstStudent().getId());
+        assertEquals(sorted.last(), store.getLastStudent().getId());
+    }
+
+    /**
+     * Tests that writers on many threads lose no students.
+     */
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    String code = String.format("%04d-%d", i, thread);
+                    store.addStudent(code, "Name", "Last", "mail", EGender.OTHER, "systems");
+                    if (i % 2 == 0) {
+                        store.deleteStudent(code);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<String> codes = store.listAllStudents(true).stream().map(Student::getId).toList();
+        assertEquals(2000, store.getNumberOfStudents());
+        assertEquals(codes.stream().sorted().toList(), codes);
+    }
+
+    /**
+     * Tests that reading position after position keeps matching the list
+     * while students are added and deleted between the reads, and that the
+     * students are handed over one at a time in both orders.
+     */
+    @Test
+    public void testWalkByPositionAcrossChanges() {
+        for (int i = 0; i < 200; i += 2) {
+            store.addStudent(String.format("%03d", i), "Name", "Lastname", "mail" + i, EGender.OTHER, "systems");
+        }
+        for (int position = 0; position < store.getNumberOfStudents(); position++) {
+            if (position == 30) {
+                store.addStudent("001", "Name", "Lastname", "mail1", EGender.OTHER, "systems");
+                store.deleteStudent("150");
+            }
+            assertEquals(store.listAllStudents(true).get(position).getId(),
+                    store.getStudentByPosition(position).getId());
+        }
+        assertEquals("198", store.getStudentByPosition(store.getNumberOfStudents() - 1).getId());
+        assertEquals("000", store.getStudentByPosition(0).getId());
+
+        List<String> ascending = new ArrayList<>();
+        store.forEachStudent(true, student -> ascending.add(student.getId()));
+        assertEquals(store.listAllStudents(true).stream().map(Student::getId).toList(), ascending);
+        List<String> descending = new ArrayList<>();
+        store.forEachStudent(false, student -> descending.add(student.getId()));
+        assertEquals(store.listAllStudents(false).stream().map(Student::getId).toList(), descending);
+    }
+}
@@ -0,0 +1,73 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import model.EGender;
+
+/**
+ * Micro benchmark for the write throughput of the PartitionedStudentHandler
+ * class against its number of stripes.
+ * <p>
+ * It is not part of the test suite; run its main method to print, for 1 to 32
+ * stripes, the number of students added per millisecond by a fixed number of
+ * writer threads, each adding its own students in random code order. One
+ * stripe behaves like the single list of StudentHandler.
+ */
+public class PartitionedStudentHandlerBenchmark {
+
+    /**
+     * Number of writer threads.
+     */
+    private static final int WRITERS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Number of students added by each writer.
+     */
+    private static final int PER_WRITER = 50_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     * @throws InterruptedException if interrupted while waiting for the writers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String[][] codes = new String[WRITERS][PER_WRITER];
+        for (int w = 0; w < WRITERS; w++) {
+            for (int i = 0; i < PER_WRITER; i++) {
+                codes[w][i] = String.format("%09d", (i * 2_654_435_761L) % 10_000_000L * WRITERS + w);
+            }
+        }
+
+        System.out.printf("%d writers%n%8s %14s%n", WRITERS, "stripes", "adds/ms");
+        for (int stripes = 1; stripes <= 32; stripes *= 2) {
+            StudentStore store = StudentHandler.partitioned(stripes);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                String[] own = codes[w];
+                threads.add(new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (String code : own) {
+                        store.addStudent(code, "Name", "Lastname", "mail", EGender.OTHER, "systems");
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            double elapsedMs = (System.nanoTime() - begin) / 1e6;
+            System.out.printf("%8d %14.0f%n", stripes, store.getNumberOfStudents() / elapsedMs);
+        }
+    }
+}
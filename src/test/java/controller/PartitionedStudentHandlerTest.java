@@ -0,0 +1,95 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the PartitionedStudentHandler class.
+ */
+public class PartitionedStudentHandlerTest {
+
+    /**
+     * Tests that the merged listing keeps the global code order, in both
+     * directions, after adds, updates and deletes spread over the stripes.
+     */
+    @Test
+    public void testMergedCodeOrder() {
+        StudentStore store = StudentHandler.partitioned(5);
+        TreeMap<String, String> expected = new TreeMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 3000; i++) {
+            String code = String.format("%05d", random.nextInt(20_000));
+            if (expected.containsKey(code)) {
+                if (random.nextBoolean()) {
+                    assertTrue(store.deleteStudent(code));
+                    expected.remove(code);
+                } else {
+                    assertTrue(store.updateStudent(code, "Updated", "Lastname", "mail", EGender.OTHER, "systems"));
+                    expected.put(code, "Updated");
+                }
+            } else {
+                assertTrue(store.addStudent(code, "Name", "Lastname", "mail", EGender.OTHER, "systems"));
+                expected.put(code, "Name");
+            }
+        }
+
+        List<Student> ascending = store.listAllStudents(true);
+        assertEquals(new ArrayList<>(expected.keySet()), ascending.stream().map(Student::getId).toList());
+        assertEquals(new ArrayList<>(expected.descendingKeySet()),
+                store.listAllStudents(false).stream().map(Student::getId).toList());
+        for (Student student : ascending) {
+            assertEquals(expected.get(student.getId()), student.getName());
+        }
+        assertEquals(expected.size(), store.getNumberOfStudents());
+        assertEquals(expected.firstKey(), store.getFirstStudent().getId());
+        assertEquals(expected.lastKey(), store.getLastStudent().getId());
+        assertThrows(IllegalArgumentException.class,
+                () -> store.addStudent(expected.firstKey(), "Name", "Lastname", "mail", EGender.OTHER, "systems"));
+        assertThrows(IllegalStateException.class, () -> store.deleteStudent("99999"));
+        assertFalse(store instanceof OrderedStudentStore);
+    }
+
+    /**
+     * Tests that writers on many threads lose no students.
+     */
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        StudentStore store = StudentHandler.partitioned(4);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 2000; i++) {
+                        String code = thread + "-" + i;
+                        store.addStudent(code, "Name", "Lastname", "mail", EGender.OTHER, "systems");
+                        if (i % 2 == 0) {
+                            store.deleteStudent(code);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(8 * 1000, store.getNumberOfStudents());
+        assertTrue(store.studentExists("7-1999"));
+        assertFalse(store.studentExists("7-1998"));
+    }
+}
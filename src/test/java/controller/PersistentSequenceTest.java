@@ -0,0 +1,104 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the PersistentSequence class.
+ */
+public class PersistentSequenceTest {
+
+    /**
+     * Tests that random inserts, replacements and removals match an array list,
+     * and that every earlier version keeps its own elements.
+     */
+    @Test
+    public void testMatchesArrayListAndKeepsVersions() {
+        Random random = new Random(3);
+        PersistentSequence<Integer> sequence = PersistentSequence.empty();
+        List<Integer> expected = new ArrayList<>();
+        List<PersistentSequence<Integer>> versions = new ArrayList<>();
+        List<List<Integer>> versionContents = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 0 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                sequence = sequence.remove(index);
+                expected.remove(index);
+            } else if (operation == 1 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                sequence = sequence.set(index, -i);
+                expected.set(index, -i);
+            } else {
+                int index = random.nextInt(expected.size() + 1);
+                sequence = sequence.insert(index, i);
+                expected.add(index, i);
+            }
+            if (i % 2000 == 0) {
+                versions.add(sequence);
+                versionContents.add(new ArrayList<>(expected));
+            }
+        }
+
+        assertEquals(expected, sequence.asList(true));
+        List<Integer> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        assertEquals(reversed, sequence.asList(false));
+        assertEquals(expected.get(expected.size() / 2), sequence.get(expected.size() / 2));
+        for (int v = 0; v < versions.size(); v++) {
+            assertEquals(versionContents.get(v), versions.get(v).asList(true));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> PersistentSequence.empty().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> PersistentSequence.<Integer>empty().asList(true).add(1));
+    }
+
+    /**
+     * Tests that sequential and parallel streams over a view see every element
+     * in the order of the view.
+     */
+    @Test
+    public void testStreamsFollowViewOrder() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            values.add(i);
+        }
+        PersistentSequence<Integer> sequence = PersistentSequence.of(values);
+        sequence = sequence.insert(5000, -1).remove(0);
+        List<Integer> expected = new ArrayList<>(values.subList(1, values.size()));
+        expected.add(4999, -1);
+
+        assertEquals(expected, sequence.asList(true).stream().toList());
+        assertEquals(expected, sequence.asList(true).parallelStream().toList());
+        Collections.reverse(expected);
+        assertEquals(expected, sequence.asList(false).parallelStream().toList());
+        assertEquals(expected.subList(0, 10), sequence.asList(false).stream().limit(10).toList());
+    }
+
+    /**
+     * Tests that an iterator from a position walks the rest of the view in
+     * either order.
+     */
+    @Test
+    public void testIteratorFromPosition() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        PersistentSequence<Integer> sequence = PersistentSequence.of(values);
+        for (int from : List.of(0, 1, 500, 999, 1000)) {
+            List<Integer> ascending = new ArrayList<>();
+            sequence.iterator(from, true).forEachRemaining(ascending::add);
+            assertEquals(values.subList(from, 1000), ascending);
+            List<Integer> descending = new ArrayList<>();
+            sequence.iterator(from, false).forEachRemaining(descending::add);
+            assertEquals(sequence.asList(false).subList(from, 1000), descending);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.iterator(1001, true));
+    }
+}
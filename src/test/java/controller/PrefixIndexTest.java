@@ -0,0 +1,63 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import model.EGender;
+import model.Node;
+import model.Student;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the PrefixIndex class, checked against a sorted map scan.
+ */
+public class PrefixIndexTest {
+
+    /**
+     * Tests that prefix searches after random adds and removes return the same
+     * students, in the same order, as scanning all keys.
+     */
+    @Test
+    public void testMatchesSortedScan() {
+        PrefixIndex<Student> index = new PrefixIndex<>(List.of(Student::getLastName));
+        Random random = new Random(17);
+        String[] stems = { "gar", "garc", "garcia", "go", "gonzalez", "gomez", "r", "ramirez", "rivera", "" };
+        List<Node<Student>> live = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            if (random.nextInt(3) == 0 && !live.isEmpty()) {
+                index.remove(live.remove(random.nextInt(live.size())));
+            } else {
+                String lastname = stems[random.nextInt(stems.length)] + (char) ('a' + random.nextInt(3));
+                if (random.nextBoolean()) {
+                    lastname = lastname.toUpperCase();
+                }
+                Node<Student> node = new Node<>(
+                        new Student(String.format("%05d", i), "Name", lastname, "mail", EGender.OTHER, "systems"));
+                index.add(node);
+                live.add(node);
+            }
+        }
+
+        for (String prefix : new String[] { "", "g", "GA", "garc", "garciab", "gom", "r", "ri", "x", "gonzalezc" }) {
+            TreeMap<String, List<Student>> byKey = new TreeMap<>();
+            for (Node<Student> node : live) {
+                String key = node.getInfo().getLastName().toLowerCase();
+                if (key.startsWith(prefix.toLowerCase())) {
+                    byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(node.getInfo());
+                }
+            }
+            List<Student> expected = new ArrayList<>();
+            byKey.values().forEach(expected::addAll);
+            List<Student> found = index.find(prefix, 25);
+            assertEquals(expected.subList(0, Math.min(25, expected.size())).stream().map(Student::getId).sorted()
+                    .toList(), found.stream().map(Student::getId).sorted().toList(), prefix);
+            for (int i = 1; i < found.size(); i++) {
+                assertTrue(found.get(i - 1).getLastName().compareToIgnoreCase(found.get(i).getLastName()) <= 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package controller;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Micro benchmark for the recovery of the StudentHandler class from a
+ * snapshot and the tail of its journal.
+ * <p>
+ * It is not part of the test suite; run its main method to print how long it
+ * takes to read a snapshot of 1,000,000 students, to rebuild the handler from
+ * it and 10,000 later journal changes, to have the statistics and then the
+ * text search ready while the indexes are built in the background, and to
+ * rebuild the handler from the whole journal instead.
+ */
+public class RecoveryBenchmark {
+
+    /**
+     * Number of students in the snapshot.
+     */
+    private static final int SIZE = 1_000_000;
+
+    /**
+     * Number of journal changes made after the snapshot.
+     */
+    private static final int TAIL = 10_000;
+
+    /**
+     * Number of timed recoveries of each kind.
+     */
+    private static final int ROUNDS = 3;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional directory for the files, on the disk to measure
+     * @throws Exception if a file cannot be read or written
+     */
+    public static void main(String[] args) throws Exception {
+        Path directory = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("recovery");
+        Path snapshotFile = directory.resolve("students.snapshot");
+        Path journalFile = directory.resolve("students.journal");
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(journalFile);
+
+        StudentHandler handler = StudentHandler.getInstance();
+        handler.openJournal(journalFile, 0);
+        List<Student> students = new ArrayList<>(SIZE);
+        String[] careers = { "systems", "industrial", "civil", "electronics" };
+        for (int i = 0; i < SIZE; i++) {
+            students.add(new Student(String.format("%09d", (long) i * 7), "Name" + i, "Lastname" + (i % 5000),
+                    "student" + i + "@example.com", EGender.values()[i % 3], careers[i % 4]));
+        }
+        handler.addStudents(students);
+        handler.saveSnapshot(snapshotFile);
+        for (int i = 0; i < TAIL; i++) {
+            handler.updateStudent(String.format("%09d", (long) i * 7), "Renamed" + i, "Lastname", "renamed@example.com",
+                    EGender.OTHER, "systems");
+        }
+        handler.closeJournal();
+        handler.restartInstance();
+        System.out.printf("snapshot %d MB, journal %d MB%n", Files.size(snapshotFile) >> 20,
+                Files.size(journalFile) >> 20);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            int read = StudentSnapshot.read(snapshotFile).getStudents().size();
+            long readTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            StudentHandler recovered = StudentHandler.getInstance();
+            long replayed = recovered.recover(snapshotFile, journalFile, 0);
+            long recoverTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            recovered.getStatistics();
+            long statisticsTime = System.nanoTime() - start;
+            recovered.searchStudents("renamed", 10);
+            long searchTime = System.nanoTime() - start;
+            recovered.closeJournal();
+            recovered.restartInstance();
+
+            System.out.printf("read %d students: %d ms, snapshot + %d changes: %d ms, statistics after %d ms, "
+                    + "search after %d ms%n", read, readTime / 1_000_000, replayed, recoverTime / 1_000_000,
+                    statisticsTime / 1_000_000, searchTime / 1_000_000);
+        }
+
+        long start = System.nanoTime();
+        StudentHandler replaying = StudentHandler.getInstance();
+        long all = replaying.openJournal(journalFile, 0);
+        System.out.printf("whole journal, %d changes: %d ms%n", all, (System.nanoTime() - start) / 1_000_000);
+        replaying.closeJournal();
+    }
+}
@@ -0,0 +1,93 @@
+package controller;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Micro benchmark for the StudentCodec class.
+ * <p>
+ * It is not part of the test suite; run its main method to print, for heap
+ * and direct buffers, the number of students encoded and decoded per second
+ * and the average size of a record, next to the size of the same fields as
+ * length-prefixed UTF-8 strings.
+ */
+public class StudentCodecBenchmark {
+
+    /**
+     * Number of distinct students encoded in each pass.
+     */
+    private static final int STUDENTS = 100_000;
+
+    /**
+     * Number of measured passes, after as many warm-up passes.
+     */
+    private static final int PASSES = 10;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        Student[] students = new Student[STUDENTS];
+        long recordBytes = 0;
+        long utf8Bytes = 0;
+        for (int i = 0; i < STUDENTS; i++) {
+            String name = i % 10 == 0 ? "Łucja" : "José María";
+            students[i] = new Student(String.format("%08d", i), name, "Rodríguez", "student" + i + "@mail.com",
+                    EGender.values()[i % 3], "Systems Engineering");
+            recordBytes += StudentCodec.encodedSize(students[i]);
+            utf8Bytes += utf8Size(students[i]);
+        }
+        System.out.printf("bytes/record: codec %.1f, int-prefixed UTF-8 %.1f%n",
+                (double) recordBytes / STUDENTS, (double) utf8Bytes / STUDENTS);
+
+        ByteBuffer[] buffers = { ByteBuffer.allocate((int) recordBytes), ByteBuffer.allocateDirect((int) recordBytes) };
+        for (ByteBuffer buffer : buffers) {
+            StudentCodec codec = new StudentCodec();
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            long checksum = 0;
+            for (int pass = 0; pass < 2 * PASSES; pass++) {
+                buffer.clear();
+                long start = System.nanoTime();
+                for (Student student : students) {
+                    StudentCodec.encode(student, buffer);
+                }
+                long encoded = System.nanoTime();
+                buffer.flip();
+                for (int i = 0; i < STUDENTS; i++) {
+                    checksum += codec.decode(buffer).getName().length();
+                }
+                long decoded = System.nanoTime();
+                if (pass >= PASSES) {
+                    encodeNanos += encoded - start;
+                    decodeNanos += decoded - encoded;
+                }
+            }
+            double records = (double) STUDENTS * PASSES;
+            System.out.printf("%-6s buffer: encode %,.0f records/s, decode %,.0f records/s (%d)%n",
+                    buffer.isDirect() ? "direct" : "heap", records * 1e9 / encodeNanos,
+                    records * 1e9 / decodeNanos, checksum);
+        }
+    }
+
+    /**
+     * Computes the size of a student with its strings written as an int
+     * length and their UTF-8 bytes, and its gender as one byte.
+     *
+     * @param student the student
+     * @return the number of bytes
+     */
+    private static int utf8Size(Student student) {
+        int size = 1;
+        for (String value : new String[] { student.getId(), student.getName(), student.getLastName(),
+                student.getEmail(), student.getCareer() }) {
+            size += Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size;
+    }
+}
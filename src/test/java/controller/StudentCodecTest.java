@@ -0,0 +1,111 @@
+package controller;
+
+import java.nio.ByteBuffer;
+
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the StudentCodec class.
+ */
+public class StudentCodecTest {
+
+    /**
+     * Tests that students with ISO-8859-1, other UTF-8 and supplementary
+     * characters are read back equal from heap and direct buffers, taking
+     * exactly the computed size.
+     */
+    @Test
+    public void testRoundTrip() {
+        Student[] students = {
+            new Student("001", "José", "Muñoz", "jose@mail.com", EGender.MALE, "Systems"),
+            new Student("002", "Łucja", "Wrześniewska", "lucja@mail.com", EGender.FEMALE, "Physics"),
+            new Student("003", "Kai 🚀", "Ōta", "", EGender.OTHER, "数学"),
+        };
+        StudentCodec codec = new StudentCodec();
+        for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(512), ByteBuffer.allocateDirect(512) }) {
+            int size = 0;
+            for (Student student : students) {
+                int written = StudentCodec.encode(student, buffer);
+                assertEquals(StudentCodec.encodedSize(student), written);
+                size += written;
+            }
+            assertEquals(size, buffer.position());
+            buffer.flip();
+            for (Student student : students) {
+                assertStudentEquals(student, codec.decode(buffer));
+            }
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    /**
+     * Tests that ISO-8859-1 strings take one byte per character.
+     */
+    @Test
+    public void testLatin1IsOneBytePerCharacter() {
+        assertEquals(1 + 5, StudentCodec.stringSize("Peña!"));
+        assertEquals(1 + 6, StudentCodec.stringSize("Łucja"));
+    }
+
+    /**
+     * Tests that fields appended by a later schema version are skipped, leaving
+     * the buffer at the next record.
+     */
+    @Test
+    public void testSkipsFieldsOfLaterVersions() {
+        Student student = new Student("001", "Ana", "Ruiz", "ana@mail.com", EGender.FEMALE, "Law");
+        ByteBuffer encoded = ByteBuffer.allocate(128);
+        StudentCodec.encode(student, encoded);
+        encoded.flip();
+
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        buffer.put((byte) (StudentCodec.VERSION + 1));
+        int body = encoded.remaining() - 2;
+        buffer.put((byte) (body + 3));
+        buffer.put(encoded.position(2)).put(new byte[] { 7, 7, 7 });
+        StudentCodec.encode(student, buffer);
+        buffer.flip();
+
+        StudentCodec codec = new StudentCodec();
+        assertStudentEquals(student, codec.decode(buffer));
+        assertStudentEquals(student, codec.decode(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Tests that truncated and malformed records are reported as damaged.
+     */
+    @Test
+    public void testDamagedRecord() {
+        Student student = new Student("001", "Ana", "Ruiz", "ana@mail.com", EGender.FEMALE, "Law");
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        int size = StudentCodec.encode(student, buffer);
+        StudentCodec codec = new StudentCodec();
+
+        assertThrows(IllegalStateException.class, () -> codec.decode(buffer.duplicate().flip().limit(size - 1)));
+        ByteBuffer unknownVersion = buffer.duplicate().flip().put(0, (byte) 0);
+        assertThrows(IllegalStateException.class, () -> codec.decode(unknownVersion));
+        ByteBuffer badGender = buffer.duplicate().flip();
+        badGender.put(size - 5, (byte) 9);
+        assertThrows(IllegalStateException.class, () -> codec.decode(badGender));
+    }
+
+    /**
+     * Asserts that two students have the same fields.
+     *
+     * @param expected the expected student
+     * @param actual   the student read back
+     */
+    private static void assertStudentEquals(Student expected, Student actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getLastName(), actual.getLastName());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getGender(), actual.getGender());
+        assertEquals(expected.getCareer(), actual.getCareer());
+    }
+}
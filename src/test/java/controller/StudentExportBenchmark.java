@@ -0,0 +1,67 @@
+package controller;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Micro benchmark for the StudentExporter class.
+ * <p>
+ * It is not part of the test suite; run its main method to print, for each
+ * format and order, the students per second and megabytes per second of
+ * exporting one million students to a file, and the bytes allocated by the
+ * exporting thread, which stay the same whatever the roster size.
+ */
+public class StudentExportBenchmark {
+
+    /**
+     * Number of students exported.
+     */
+    private static final int STUDENTS = 1_000_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional directory for the export files
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("export");
+        List<Student> students = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(new Student(String.format("%08d", i), "José", "Rodríguez " + i % 997,
+                    "student" + i + "@mail.com", EGender.values()[i % 3], "Systems Engineering"));
+        }
+        StudentHandler handler = StudentHandler.getInstance();
+        handler.addStudents(students);
+        students = null;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        for (int round = 0; round < 2; round++) {
+            for (StudentExporter.Format format : StudentExporter.Format.values()) {
+                StudentExporter exporter = new StudentExporter(handler, format);
+                for (boolean ascending : new boolean[] { true, false }) {
+                    Path file = directory.resolve("students." + format.name().toLowerCase());
+                    long allocated = threads.getThreadAllocatedBytes(thread);
+                    long start = System.nanoTime();
+                    int count = exporter.export(file, ascending);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+                    System.out.printf("%-4s %-10s %,12.0f students/s %7.1f MB/s, %,d bytes allocated%n", format,
+                            ascending ? "ascending" : "descending", count / seconds,
+                            Files.size(file) / seconds / (1 << 20), allocated);
+                    Files.delete(file);
+                }
+            }
+        }
+        handler.restartInstance();
+    }
+}
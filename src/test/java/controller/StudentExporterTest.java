@@ -0,0 +1,150 @@
+package controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import model.EGender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the StudentExporter class.
+ */
+public class StudentExporterTest {
+
+    /**
+     * Directory for the files of each test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * The handler the students are exported from.
+     */
+    private StudentHandler handler;
+
+    /**
+     * Initializes the StudentHandler instance before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        handler = StudentHandler.getInstance();
+    }
+
+    /**
+     * Resets the StudentHandler instance after each test.
+     */
+    @AfterEach
+    public void down() {
+        handler.restartInstance();
+    }
+
+    /**
+     * Tests that a CSV export quotes the fields that need it and is imported
+     * back unchanged.
+     */
+    @Test
+    public void testCsvRoundTrip() throws IOException {
+        handler.addStudent("002", "Ana", "Ruiz, \"Anita\"", "ana@mail.com", EGender.FEMALE, "Law");
+        handler.addStudent("001", "José", "Muñoz", "jose@mail.com", EGender.MALE, "数学 🚀");
+        Path file = directory.resolve("roster.csv");
+        assertEquals(2, new StudentExporter(handler, StudentExporter.Format.CSV).export(file, false));
+        assertEquals(List.of("code,name,lastname,email,gender,career",
+                "002,Ana,\"Ruiz, \"\"Anita\"\"\",ana@mail.com,FEMALE,Law",
+                "001,José,Muñoz,jose@mail.com,MALE,数学 🚀"), Files.readAllLines(file, StandardCharsets.UTF_8));
+
+        handler.restartInstance();
+        handler = StudentHandler.getInstance();
+        StudentImporter.Result result = new StudentImporter(handler, 2).importFile(file);
+        assertFalse(result.hasErrors());
+        assertEquals("Ruiz, \"Anita\"", handler.findStudentByCode("002").getLastName());
+        assertEquals("数学 🚀", handler.findStudentByCode("001").getCareer());
+    }
+
+    /**
+     * Tests that a JSON export escapes quotes, backslashes and control
+     * characters, and that an empty handler gives an empty array.
+     */
+    @Test
+    public void testJson() throws IOException {
+        StudentExporter exporter = new StudentExporter(handler, StudentExporter.Format.JSON);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(0, exporter.export(output, true));
+        assertEquals("[]\n", output.toString(StandardCharsets.UTF_8));
+
+        handler.addStudent("001", "Ana \"A\"", "C:\\dir", "a\tb\n", EGender.OTHER, "Física");
+        handler.addStudent("002", "Eva", "Diaz", "eva@mail.com", EGender.FEMALE, "Law");
+        output.reset();
+        assertEquals(2, exporter.export(output, true));
+        assertEquals("[\n{\"code\":\"001\",\"name\":\"Ana \\\"A\\\"\",\"lastname\":\"C:\\\\dir\","
+                + "\"email\":\"a\\u0009b\\n\",\"gender\":\"OTHER\",\"career\":\"Física\"},\n"
+                + "{\"code\":\"002\",\"name\":\"Eva\",\"lastname\":\"Diaz\",\"email\":\"eva@mail.com\","
+                + "\"gender\":\"FEMALE\",\"career\":\"Law\"}\n]\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests that an export larger than the buffer shows the students as they
+     * were when it started, while they are changed halfway through it.
+     */
+    @Test
+    public void testExportIsConsistentUnderWrites() throws IOException {
+        for (int i = 0; i < 5000; i++) {
+            handler.addStudent(String.format("%05d", i), "Name", "Lastname", "student" + i + "@mail.com",
+                    EGender.OTHER, "Systems");
+        }
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                if (copy.size() == 0) {
+                    handler.deleteStudent("04999");
+                    handler.addStudent("99999", "Late", "Student", "late@mail.com", EGender.MALE, "Law");
+                }
+                copy.write(bytes, offset, length);
+            }
+        };
+
+        assertEquals(5000, new StudentExporter(handler, StudentExporter.Format.CSV).export(output, true));
+        String csv = copy.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.endsWith("04999,Name,Lastname,student4999@mail.com,OTHER,Systems\n"));
+        assertFalse(csv.contains("99999"));
+        assertFalse(handler.studentExists("04999"));
+    }
+
+    /**
+     * Tests that an off-heap store exports the same lines as the handler
+     * holding the same students.
+     */
+    @Test
+    public void testExportFromOffHeapStore() throws IOException {
+        OffHeapStudentStore store = new OffHeapStudentStore();
+        for (int i = 0; i < 3000; i++) {
+            String code = String.format("%04d", (i * 7) % 3000);
+            handler.addStudent(code, "Name " + i, "Ruiz, \"" + i + "\"", "student" + i + "@mail.com",
+                    EGender.OTHER, "Systems");
+            store.addStudent(code, "Name " + i, "Ruiz, \"" + i + "\"", "student" + i + "@mail.com",
+                    EGender.OTHER, "Systems");
+        }
+        for (StudentExporter.Format format : StudentExporter.Format.values()) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            assertEquals(3000, new StudentExporter(handler, format).export(expected, false));
+            assertEquals(3000, new StudentExporter(store, format).export(actual, false));
+            assertEquals(expected.toString(StandardCharsets.UTF_8), actual.toString(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.EGender;
+
+/**
+ * Micro benchmark for the lookups of the StudentHandler class under
+ * contention.
+ * <p>
+ * It is not part of the test suite; run its main method to print, for 1 to 32
+ * reader threads calling {@code findStudentByCode} and 0 to 32 writer threads
+ * calling {@code updateStudent} at the same time, the number of lookups done
+ * per millisecond by all readers together.
+ */
+public class StudentHandlerContentionBenchmark {
+
+    /**
+     * Number of students in the handler.
+     */
+    private static final int SIZE = 10_000;
+
+    /**
+     * Duration of each measurement, in milliseconds.
+     */
+    private static final int DURATION_MS = 500;
+
+    /**
+     * Numbers of writer threads measured for each number of readers.
+     */
+    private static final int[] WRITERS = { 0, 1, 4, 32 };
+
+    /**
+     * Codes of the students in the handler.
+     */
+    private static final String[] CODES = new String[SIZE];
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        StudentHandler handler = StudentHandler.getInstance();
+        for (int i = 0; i < SIZE; i++) {
+            CODES[i] = String.format("%08d", i);
+            handler.addStudentLast(CODES[i], "Name", "Lastname", "mail", EGender.OTHER, "systems");
+        }
+
+        System.out.printf("%8s", "readers");
+        for (int writers : WRITERS) {
+            System.out.printf(" %16s", writers + " writers ops/ms");
+        }
+        System.out.println();
+        for (int readers = 1; readers <= 32; readers *= 2) {
+            System.out.printf("%8d", readers);
+            for (int writers : WRITERS) {
+                System.out.printf(" %16.0f", measure(handler, readers, writers));
+            }
+            System.out.println();
+        }
+        handler.restartInstance();
+    }
+
+    /**
+     * Runs readers and writers against the handler for a while.
+     *
+     * @param handler the handler to use
+     * @param readers the number of reader threads
+     * @param writers the number of writer threads
+     * @return the number of lookups per millisecond done by all readers
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static double measure(StudentHandler handler, int readers, int writers) throws InterruptedException {
+        LongAdder reads = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (System.nanoTime() < deadline[0]) {
+                    for (int j = 0; j < 64; j++) {
+                        if (handler.findStudentByCode(CODES[random.nextInt(SIZE)]) != null) {
+                            count++;
+                        }
+                    }
+                }
+                reads.add(count);
+            }));
+        }
+        for (int i = 0; i < writers; i++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline[0]) {
+                    handler.updateStudent(CODES[random.nextInt(SIZE)], "Name", "Lastname", "mail", EGender.OTHER,
+                            "systems");
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        deadline[0] = System.nanoTime() + DURATION_MS * 1_000_000L;
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return reads.sum() / (double) DURATION_MS;
+    }
+
+    /**
+     * Waits until the measurement starts.
+     *
+     * @param start the latch released at the start
+     */
+    private static void await(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,9 +1,21 @@
 package controller;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
 import model.EGender;
 import model.Student;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -160,4 +172,622 @@ public class StudentHandlerTest {
 
         assertEquals("Ortiz", handler.getStudentByPosition(1).getLastName(), "Camila Ortiz should be at position 1");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests retrieving the position of a student by their code.
+     */
+    @Test
+    public void testGetStudentPosition() {
+        handler.addStudent("002", "Camila", "Ortiz", "camila.gonzalez", EGender.FEMALE, "systems");
+        handler.addStudent("001", "Andres", "Villanueva", "camila.gonzalez", EGender.FEMALE, "systems");
+        handler.addStudentFirst("003", "Laura", "Rivera", "camila.gonzalez", EGender.FEMALE, "systems");
+
+        assertEquals(0, handler.getStudentPosition("003"));
+        assertEquals(2, handler.getStudentPosition("002"));
+        assertThrows(IllegalStateException.class, () -> handler.getStudentPosition("009"));
+    }
+
+    /**
+     * Tests streaming the students sequentially and in parallel.
+     */
+    @Test
+    public void testStreamStudents() {
+        handler.addStudent("002", "Camila", "Ortiz", "camila.gonzalez", EGender.FEMALE, "systems");
+        handler.addStudent("001", "Andres", "Villanueva", "camila.gonzalez", EGender.MALE, "systems");
+        handler.addStudent("003", "Laura", "Rivera", "camila.gonzalez", EGender.FEMALE, "industrial");
+
+        assertEquals("001", handler.stream().findFirst().get().getId());
+        assertEquals(2, handler.parallelStream().filter(s -> s.getGender() == EGender.FEMALE).count());
+    }
+
+    /**
+     * Tests that a stream keeps showing the students as they were when it was
+     * created while they are added and deleted during its traversal.
+     */
+    @Test
+    public void testStreamIgnoresChangesDuringTraversal() {
+        for (int i = 0; i < 100; i++) {
+            handler.addStudent(String.format("%03d", i), "Name", "Lastname", "mail", EGender.OTHER, "systems");
+        }
+        List<String> codes = handler.stream().peek(student -> {
+            if (student.getId().equals("010")) {
+                handler.deleteStudent("050");
+                handler.addStudent("0505", "Late", "Lastname", "mail", EGender.OTHER, "systems");
+            }
+        }).map(Student::getId).toList();
+
+        assertEquals(100, codes.size());
+        assertTrue(codes.contains("050"));
+        assertFalse(codes.contains("0505"));
+        assertEquals(100, handler.parallelStream().count());
+    }
+
+    /**
+     * Tests that lookups running alongside writers from other threads always
+     * see consistent students and that no write is lost.
+     */
+    @Test
+    public void testConcurrentReadsAndWrites() throws InterruptedException {
+        int writers = 4;
+        int perWriter = 500;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(writers);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    String id = writer + "-" + i;
+                    handler.addStudent(id, "Name", "Lastname" + i, "mail", EGender.OTHER, "systems");
+                    handler.updateStudent(id, "Updated", "Lastname" + i, "mail", EGender.OTHER, "systems");
+                }
+                done.countDown();
+            }));
+        }
+        for (int r = 0; r < 4; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (done.getCount() > 0) {
+                        Student student = handler.findStudentByCode("0-" + (perWriter / 2));
+                        if (student != null) {
+                            assertEquals("0-" + (perWriter / 2), student.getId());
+                        }
+                        assertTrue(handler.getNumberOfStudents() >= 0);
+                        List<Student> all = handler.listAllStudents(true);
+                        assertFalse(all.contains(null));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(writers * perWriter, handler.getNumberOfStudents());
+        assertEquals(writers * perWriter, handler.listAllStudents(true).size());
+        assertEquals("Updated", handler.findStudentByCode("3-499").getName());
+    }
+
+    /**
+     * Tests that students handed in at both ends from many threads, while
+     * other threads drain the intake, all end up in the list once, in the
+     * order each thread handed them in, with forward and backward traversals
+     * that agree, and that a taken code is turned away.
+     */
+    @Test
+    public void testConcurrentIntake() throws InterruptedException {
+        handler.addStudent("taken", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        int producers = 4;
+        int perProducer = 5000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (i % 2 == 0) {
+                        handler.enqueueStudentFirst(producer + "-" + i, "Name", "Lastname", "mail", EGender.OTHER,
+                                "systems");
+                    } else {
+                        handler.enqueueStudentLast(producer + "-" + i, "Name", "Lastname", "mail", EGender.OTHER,
+                                "systems");
+                    }
+                }
+                done.countDown();
+            }));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                while (done.getCount() > 0) {
+                    assertTrue(handler.drainIntake().isEmpty());
+                    List<Student> backward = new ArrayList<>(handler.listAllStudents(false));
+                    Collections.reverse(backward);
+                    assertEquals(handler.listAllStudents(true), backward);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }));
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        handler.enqueueStudentLast("taken", "Eva", "Diaz", "eva.diaz", EGender.FEMALE, "systems");
+        List<Student> rejected = handler.drainIntake();
+
+        assertNull(failure.get());
+        assertEquals(List.of("Eva"), rejected.stream().map(Student::getName).toList());
+        List<Student> forward = handler.listAllStudents(true);
+        List<Student> backward = new ArrayList<>(handler.listAllStudents(false));
+        Collections.reverse(backward);
+        assertEquals(forward, backward);
+        assertEquals(producers * perProducer + 1, handler.getNumberOfStudents());
+        assertEquals(forward.size(), handler.getNumberOfStudents());
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < forward.size(); i++) {
+            positions.put(forward.get(i).getId(), i);
+        }
+        int taken = positions.get("taken");
+        for (int p = 0; p < producers; p++) {
+            int previousFirst = Integer.MAX_VALUE;
+            int previousLast = -1;
+            for (int i = 0; i < perProducer; i++) {
+                int position = positions.get(p + "-" + i);
+                if (i % 2 == 0) {
+                    assertTrue(position < previousFirst && position < taken);
+                    previousFirst = position;
+                } else {
+                    assertTrue(position > previousLast && position > taken);
+                    previousLast = position;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that a listing keeps showing the students as they were when it was
+     * taken while the handler keeps changing.
+     */
+    @Test
+    public void testListingIsSnapshot() {
+        handler.addStudent("002", "Camila", "Ortiz", "camila.gonzalez", EGender.FEMALE, "systems");
+        handler.addStudentFirst("001", "Andres", "Villanueva", "camila.gonzalez", EGender.MALE, "systems");
+        List<Student> before = handler.listAllStudents(true);
+
+        handler.addStudentAfter("001", "003", "Laura", "Rivera", "camila.gonzalez", EGender.FEMALE, "industrial");
+        handler.updateStudent("002", "Sara", "Ortiz", "camila.gonzalez", EGender.FEMALE, "systems");
+        handler.deleteStudent("001");
+
+        assertEquals(List.of("001", "002"), before.stream().map(Student::getId).toList());
+        assertEquals("Camila", before.get(1).getName());
+        assertEquals(List.of("003", "002"), handler.listAllStudents(true).stream().map(Student::getId).toList());
+        assertEquals("Sara", handler.listAllStudents(false).get(0).getName());
+        assertThrows(UnsupportedOperationException.class, () -> before.remove(0));
+    }
+
+    /**
+     * Tests that a batch of students is added in code order, both into an empty
+     * handler and next to students already present, and that a repeated code
+     * rejects the whole batch.
+     */
+    @Test
+    public void testAddStudents() {
+        handler.addStudent("005", "Camila", "Ortiz", "camila.gonzalez", EGender.FEMALE, "systems");
+        assertTrue(handler.addStudents(List.of(
+                new Student("007", "Laura", "Rivera", "camila.gonzalez", EGender.FEMALE, "industrial"),
+                new Student("001", "Andres", "Villanueva", "camila.gonzalez", EGender.MALE, "systems"))));
+
+        assertEquals(List.of("001", "005", "007"),
+                handler.listAllStudents(true).stream().map(Student::getId).toList());
+        assertEquals("Laura", handler.findStudentByCode("007").getName());
+        assertThrows(IllegalArgumentException.class, () -> handler.addStudents(List.of(
+                new Student("009", "Sara", "Diaz", "camila.gonzalez", EGender.FEMALE, "systems"),
+                new Student("005", "Sara", "Diaz", "camila.gonzalez", EGender.FEMALE, "systems"))));
+        assertEquals(3, handler.getNumberOfStudents());
+        assertFalse(handler.studentExists("009"));
+    }
+
+    /**
+     * Tests that the searches by career, gender, email and last name follow
+     * adds, updates and deletes.
+     */
+    @Test
+    public void testSecondaryIndexes() {
+        handler.addStudent("001", "Andres", "Villanueva", "andres@mail", EGender.MALE, "systems");
+        handler.addStudentFirst("002", "Camila", "Ortiz", "camila@mail", EGender.FEMALE, "systems");
+        handler.addStudentAfter("001", "003", "Laura", "Ortiz", "laura@mail", EGender.FEMALE, "industrial");
+
+        assertEquals(List.of("001", "002"),
+                handler.findByCareer("systems").stream().map(Student::getId).sorted().toList());
+        assertEquals(2, handler.findByGender(EGender.FEMALE).size());
+        assertEquals(2, handler.findByLastName("Ortiz").size());
+        assertEquals("003", handler.findByEmail("laura@mail").get(0).getId());
+
+        handler.updateStudent("002", "Camila", "Gonzalez", "camila.gonzalez@mail", EGender.FEMALE, "industrial");
+        assertEquals(List.of("001"), handler.findByCareer("systems").stream().map(Student::getId).toList());
+        assertEquals(2, handler.findByCareer("industrial").size());
+        assertTrue(handler.findByEmail("camila@mail").isEmpty());
+        assertEquals("Gonzalez", handler.findByEmail("camila.gonzalez@mail").get(0).getLastName());
+        assertEquals(1, handler.findByLastName("Ortiz").size());
+
+        handler.deleteStudent("003");
+        assertEquals(List.of("002"), handler.findByCareer("industrial").stream().map(Student::getId).toList());
+        assertEquals(1, handler.findByGender(EGender.FEMALE).size());
+        assertTrue(handler.findByLastName("Ortiz").isEmpty());
+        assertTrue(handler.findByGender(EGender.OTHER).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> handler.findByCareer(null));
+    }
+
+    /**
+     * Tests that the prefix search matches names and last names regardless of
+     * case, follows updates and deletes, and stops at the limit.
+     */
+    @Test
+    public void testFindByNamePrefix() {
+        handler.addStudent("001", "Andres", "Villanueva", "camila.gonzalez", EGender.MALE, "systems");
+        handler.addStudent("002", "Camila", "Ortiz", "camila.gonzalez", EGender.FEMALE, "systems");
+        handler.addStudent("003", "Laura", "Ortega", "camila.gonzalez", EGender.FEMALE, "industrial");
+        handler.addStudent("004", "Oscar", "Rivera", "camila.gonzalez", EGender.MALE, "industrial");
+
+        assertEquals(List.of("003", "002", "004"),
+                handler.findByNamePrefix("o", 10).stream().map(Student::getId).toList());
+        assertEquals(List.of("003"), handler.findByNamePrefix("ORTE", 10).stream().map(Student::getId).toList());
+        assertEquals(2, handler.findByNamePrefix("o", 2).size());
+
+        handler.updateStudent("003", "Laura", "Diaz", "camila.gonzalez", EGender.FEMALE, "industrial");
+        handler.deleteStudent("004");
+        assertEquals(List.of("002"), handler.findByNamePrefix("o", 10).stream().map(Student::getId).toList());
+        assertEquals(List.of("003"), handler.findByNamePrefix("di", 10).stream().map(Student::getId).toList());
+        assertThrows(IllegalArgumentException.class, () -> handler.findByNamePrefix("o", 0));
+    }
+
+    /**
+     * Tests that the fuzzy search finds students despite typos, accents and
+     * swapped words, and follows updates and deletes.
+     */
+    @Test
+    public void testSearchStudents() {
+        handler.addStudent("001", "José", "Hernández", "jose.hernandez", EGender.MALE, "systems");
+        handler.addStudent("002", "Camila", "Gonzalez", "camila.gonzalez", EGender.FEMALE, "industrial");
+        handler.addStudent("003", "Laura", "Rivera", "laura.rivera", EGender.FEMALE, "systems");
+
+        assertEquals("001", handler.searchStudents("hernandes jose", 1).get(0).getId());
+        assertEquals("002", handler.searchStudents("Gonzales Camilla", 1).get(0).getId());
+        assertEquals("003", handler.searchStudents("rivra", 3).get(0).getId());
+
+        handler.updateStudent("003", "Laura", "Rios", "laura.rios", EGender.FEMALE, "systems");
+        handler.deleteStudent("001");
+        assertEquals("003", handler.searchStudents("rios laura", 1).get(0).getId());
+        assertTrue(handler.searchStudents("hernandez", 3).stream().noneMatch(s -> s.getId().equals("001")));
+        assertTrue(handler.searchStudents("  ", 3).isEmpty());
+    }
+
+    /**
+     * Tests that a code range returns the students between both codes in
+     * either order, and rejects reversed bounds.
+     */
+    @Test
+    public void testFindByCodeRange() {
+        for (String code : List.of("2022999", "2023000", "2023500", "2023999", "2024000")) {
+            handler.addStudent(code, "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        }
+
+        List<String> ascending = new ArrayList<>();
+        handler.findByCodeRange("2023000", "2023999", true).forEachRemaining(s -> ascending.add(s.getId()));
+        assertEquals(List.of("2023000", "2023500", "2023999"), ascending);
+        List<String> descending = new ArrayList<>();
+        handler.findByCodeRange("2023", "2023999", false).forEachRemaining(s -> descending.add(s.getId()));
+        assertEquals(List.of("2023999", "2023500", "2023000"), descending);
+
+        assertFalse(handler.findByCodeRange("2025", "2026", true).hasNext());
+        assertThrows(IllegalArgumentException.class, () -> handler.findByCodeRange("2024", "2023", true));
+        assertThrows(IllegalArgumentException.class, () -> handler.findByCodeRange(null, "2023", true));
+    }
+
+    /**
+     * Tests that a code range keeps walking the students it found while
+     * students are added and deleted, in code order or not.
+     */
+    @Test
+    public void testFindByCodeRangeIgnoresLaterChanges() {
+        for (String code : List.of("2023000", "2023500", "2023999")) {
+            handler.addStudent(code, "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        }
+
+        Iterator<Student> range = handler.findByCodeRange("2023000", "2023999", true);
+        assertEquals("2023000", range.next().getId());
+        handler.deleteStudent("2023500");
+        handler.addStudent("2023700", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        assertEquals("2023500", range.next().getId());
+        assertEquals("2023999", range.next().getId());
+        assertFalse(range.hasNext());
+
+        handler.addStudentFirst("2023800", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        Iterator<Student> unsorted = handler.findByCodeRange("2023700", "2023900", false);
+        handler.deleteStudent("2023700");
+        List<String> codes = new ArrayList<>();
+        unsorted.forEachRemaining(s -> codes.add(s.getId()));
+        assertEquals(List.of("2023700", "2023800"), codes);
+    }
+
+    /**
+     * Tests that pages of a list that positional insertions left out of code
+     * order still follow code order and cover every student once, and that a
+     * cursor keeps working when its student is deleted or the list gets back
+     * into code order.
+     */
+    @Test
+    public void testListStudentsPageOfUnsortedList() {
+        handler.addStudentFirst("c", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        handler.addStudentFirst("b", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        handler.addStudentFirst("a", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        handler.addStudentAfter("c", "e", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        handler.addStudentAfter("e", "d", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+
+        List<String> ascending = new ArrayList<>();
+        StudentPage page = handler.listStudentsPage(null, 2, true);
+        ascending.addAll(page.getStudents().stream().map(Student::getId).toList());
+        while (page.hasNext()) {
+            page = handler.listStudentsPage(page.getNextCursor(), 2, true);
+            ascending.addAll(page.getStudents().stream().map(Student::getId).toList());
+        }
+        assertEquals(List.of("a", "b", "c", "d", "e"), ascending);
+
+        page = handler.listStudentsPage(null, 3, false);
+        assertEquals(List.of("e", "d", "c"), page.getStudents().stream().map(Student::getId).toList());
+        page = handler.listStudentsPage(page.getNextCursor(), 3, false);
+        assertEquals(List.of("b", "a"), page.getStudents().stream().map(Student::getId).toList());
+        assertFalse(page.hasNext());
+
+        StudentPage first = handler.listStudentsPage(null, 2, true);
+        handler.deleteStudent("b");
+        handler.addStudentFirst("bb", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        StudentPage second = handler.listStudentsPage(first.getNextCursor(), 2, true);
+        assertEquals(List.of("bb", "c"), second.getStudents().stream().map(Student::getId).toList());
+
+        handler.deleteStudent("bb");
+        handler.deleteStudent("e");
+        assertEquals(List.of("d"),
+                handler.listStudentsPage(second.getNextCursor(), 2, true).getStudents().stream()
+                        .map(Student::getId).toList());
+    }
+
+    /**
+     * Tests that pages resume from their cursor in either order and that the
+     * cursor stays valid when students are added and deleted in between.
+     */
+    @Test
+    public void testListStudentsPage() {
+        for (int i = 1; i <= 7; i++) {
+            handler.addStudent("00" + i, "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        }
+
+        StudentPage first = handler.listStudentsPage(null, 3, true);
+        assertEquals(List.of("001", "002", "003"), first.getStudents().stream().map(Student::getId).toList());
+        assertTrue(first.hasNext());
+
+        handler.deleteStudent("003");
+        handler.deleteStudent("004");
+        handler.addStudent("0035", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        StudentPage second = handler.listStudentsPage(first.getNextCursor(), 3, true);
+        assertEquals(List.of("0035", "005", "006"), second.getStudents().stream().map(Student::getId).toList());
+        StudentPage third = handler.listStudentsPage(second.getNextCursor(), 3, true);
+        assertEquals(List.of("007"), third.getStudents().stream().map(Student::getId).toList());
+        assertFalse(third.hasNext());
+
+        StudentPage descending = handler.listStudentsPage(null, 2, false);
+        assertEquals(List.of("007", "006"), descending.getStudents().stream().map(Student::getId).toList());
+        assertEquals(List.of("005", "0035"), handler.listStudentsPage(descending.getNextCursor(), 2, false)
+                .getStudents().stream().map(Student::getId).toList());
+
+        assertThrows(IllegalArgumentException.class, () -> handler.listStudentsPage(null, 0, true));
+        assertThrows(IllegalArgumentException.class, () -> handler.listStudentsPage("not a cursor", 3, true));
+    }
+
+    /**
+     * Tests that the statistics follow adds, updates and deletes.
+     */
+    @Test
+    public void testGetStatistics() {
+        assertEquals(0, handler.getStatistics().getTotal());
+        assertEquals(0, handler.getStatistics().getCountsByGender().get(EGender.OTHER));
+
+        handler.addStudent("001", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        handler.addStudent("002", "Luis", "Rios", "luis.rios", EGender.MALE, "systems");
+        handler.addStudentFirst("003", "Eva", "Diaz", "eva.diaz", EGender.FEMALE, "industrial");
+        handler.updateStudent("002", "Luis", "Rios", "luis.rios", EGender.OTHER, "industrial");
+        handler.deleteStudent("001");
+
+        StudentStatistics statistics = handler.getStatistics();
+        assertEquals(2, statistics.getTotal());
+        assertEquals(Map.of("industrial", 2), statistics.getCountsByCareer());
+        assertEquals(1, statistics.getCountsByGender().get(EGender.FEMALE));
+        assertEquals(0, statistics.getCountsByGender().get(EGender.MALE));
+        assertEquals(1, statistics.getCountsByGender().get(EGender.OTHER));
+    }
+
+    /**
+     * Tests that indexes built from a bulk load after it returns take in the
+     * changes made while they were still being built.
+     */
+    @Test
+    public void testIndexesBuiltAfterLoadFollowChanges() {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            students.add(new Student(String.format("%05d", i), "Ana", "Rios" + i, "ana.rios" + i,
+                    i % 2 == 0 ? EGender.FEMALE : EGender.MALE, "systems"));
+        }
+        handler.addStudents(students);
+        handler.deleteStudent("00000");
+        handler.deleteStudent("19999");
+        handler.updateStudent("15000", "Ana", "Rios15000", "ana.rios15000", EGender.OTHER, "industrial");
+        handler.addStudentFirst("a", "Eva", "Zuluaga", "eva.zuluaga", EGender.FEMALE, "industrial");
+
+        StudentStatistics statistics = handler.getStatistics();
+        assertEquals(19999, statistics.getTotal());
+        assertEquals(Map.of("systems", 19997, "industrial", 2), statistics.getCountsByCareer());
+        assertEquals(1, statistics.getCountsByGender().get(EGender.OTHER));
+        assertEquals(List.of("15000"), handler.findByLastName("Rios15000").stream().map(Student::getId).toList());
+        assertTrue(handler.findByEmail("ana.rios0").isEmpty());
+        assertEquals(List.of("a"), handler.findByNamePrefix("zulu", 5).stream().map(Student::getId).toList());
+        assertEquals("a", handler.searchStudents("eva zuluaga", 1).get(0).getId());
+        assertEquals(20000 - 2, handler.findByNamePrefix("ana", 30000).size());
+    }
+
+    /**
+     * Tests that statistics read while the list is emptied and loaded again
+     * never count a half-built index.
+     */
+    @Test
+    public void testStatisticsDuringReloadsCountEveryStudent() throws InterruptedException {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            students.add(new Student(String.format("%05d", i), "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems"));
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            try {
+                while (done.getCount() > 0) {
+                    StudentStatistics statistics = handler.getStatistics();
+                    assertEquals(statistics.getTotal(), statistics.getCountsByCareer().getOrDefault("systems", 0));
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        reader.start();
+        for (int round = 0; round < 5; round++) {
+            handler.addStudents(students);
+            for (Student student : students) {
+                handler.deleteStudent(student.getId());
+            }
+        }
+        done.countDown();
+        reader.join();
+
+        assertNull(failure.get());
+    }
+
+    /**
+     * Tests that a new handler opened on the journal of another one rebuilds
+     * the same students in the same order.
+     */
+    @Test
+    public void testJournalReplaysChanges(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("students.journal");
+        assertEquals(0, handler.openJournal(file, 0));
+        handler.addStudent("003", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        handler.addStudents(List.of(new Student("001", "Eva", "Diaz", "eva.diaz", EGender.FEMALE, "systems"),
+                new Student("005", "Luis", "Ortiz", "luis.ortiz", EGender.MALE, "industrial")));
+        handler.addStudentFirst("009", "Oscar", "Rivera", "oscar.rivera", EGender.MALE, "systems");
+        handler.addStudentAfter("001", "002", "Laura", "Ortega", "laura.ortega", EGender.FEMALE, "industrial");
+        handler.updateStudent("003", "Ana", "Rios", "ana.rios", EGender.OTHER, "industrial");
+        handler.deleteStudent("005");
+        List<Student> expected = handler.listAllStudents(true);
+        assertThrows(IllegalStateException.class, () -> handler.openJournal(file, 0));
+        handler.closeJournal();
+
+        handler.restartInstance();
+        StudentHandler restarted = StudentHandler.getInstance();
+        assertEquals(7, restarted.openJournal(file, 0));
+        try {
+            List<Student> replayed = restarted.listAllStudents(true);
+            assertEquals(expected.stream().map(Student::toString).toList(),
+                    replayed.stream().map(Student::toString).toList());
+            assertEquals(EGender.OTHER, restarted.findStudentByCode("003").getGender());
+            restarted.addStudent("004", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        } finally {
+            restarted.closeJournal();
+        }
+    }
+
+    /**
+     * Tests that changes rejected by a journal that was closed underneath the
+     * handler leave the students as they were.
+     */
+    @Test
+    public void testClosedJournalRejectsChangesBeforeApplyingThem(@TempDir Path directory) throws IOException {
+        handler.openJournal(directory.resolve("students.journal"), 0);
+        handler.addStudent("003", "Ana", "Rios", "ana.rios", EGender.FEMALE, "systems");
+        handler.getJournal().close();
+
+        assertThrows(IllegalStateException.class,
+                () -> handler.addStudent("001", "Eva", "Diaz", "eva.diaz", EGender.FEMALE, "systems"));
+        assertThrows(IllegalStateException.class, () -> handler.addStudents(
+                List.of(new Student("002", "Eva", "Diaz", "eva.diaz", EGender.FEMALE, "systems"))));
+        assertThrows(IllegalStateException.class,
+                () -> handler.addStudentAfter("003", "004", "Eva", "Diaz", "eva.diaz", EGender.FEMALE, "systems"));
+        assertThrows(IllegalStateException.class,
+                () -> handler.updateStudent("003", "Ana", "Rios", "ana.rios", EGender.OTHER, "industrial"));
+        assertThrows(IllegalStateException.class, () -> handler.deleteStudent("003"));
+
+        assertEquals(List.of("003"), handler.listAllStudents(true).stream().map(Student::getId).toList());
+        assertEquals(1, handler.getNumberOfStudents());
+        assertEquals(EGender.FEMALE, handler.findStudentByCode("003").getGender());
+        assertEquals(1, handler.findByCareer("systems").size());
+        assertTrue(handler.findByCareer("industrial").isEmpty());
+        assertTrue(handler.searchStudents("diaz", 10).isEmpty());
+        handler.closeJournal();
+    }
+
+    /**
+     * Tests that recovery loads the snapshot and replays only the changes of
+     * the journal made after it.
+     */
+    @Test
+    public void testRecoverFromSnapshotAndJournalTail(@TempDir Path directory) throws IOException {
+        Path snapshotFile = directory.resolve("students.snapshot");
+        Path journalFile = directory.resolve("students.journal");
+        assertEquals(0, handler.recover(snapshotFile, journalFile, 0));
+        handler.addStudent("002", "José", "Hernández", "jose.hernandez", EGender.MALE, "systems");
+        handler.addStudentFirst("009", "Ana", "Rios", "ana.rios", EGender.FEMALE, "industrial");
+        assertEquals(2, handler.saveSnapshot(snapshotFile));
+        handler.addStudentLast("001", "Eva", "Diaz", "eva.diaz", EGender.OTHER, "systems");
+        handler.deleteStudent("002");
+        List<Student> expected = handler.listAllStudents(true);
+        handler.closeJournal();
+
+        handler.restartInstance();
+        StudentHandler restarted = StudentHandler.getInstance();
+        try {
+            assertEquals(2, restarted.recover(snapshotFile, journalFile, 0));
+            assertEquals(expected.stream().map(Student::toString).toList(),
+                    restarted.listAllStudents(true).stream().map(Student::toString).toList());
+            assertEquals(List.of("009"), restarted.findByNamePrefix("ri", 5).stream().map(Student::getId).toList());
+            assertEquals(2, restarted.getStatistics().getTotal());
+        } finally {
+            restarted.closeJournal();
+        }
+    }
+
+    /**
+     * Tests that the store of the application is the handler unless another
+     * one is set, and that an off-heap store set in its place serves the
+     * ordered operations.
+     */
+    @Test
+    public void testStoreOfApplication() {
+        assertSame(handler, StudentHandler.getStore());
+        OffHeapStudentStore offHeap = new OffHeapStudentStore();
+        StudentHandler.setStore(offHeap);
+        try {
+            OrderedStudentStore store = StudentHandler.getStore();
+            assertSame(offHeap, store);
+            store.addStudentLast("002", "Eva", "Diaz", "eva@mail.com", EGender.FEMALE, "Law");
+            store.addStudentFirst("001", "Ana", "Rios", "ana@mail.com", EGender.FEMALE, "Law");
+            store.updateStudent("002", "Eva", "Diaz", "eva.diaz@mail.com", EGender.FEMALE, "Law");
+            assertEquals("eva.diaz@mail.com", store.getStudentByPosition(1).getEmail());
+            assertEquals(2, store.getNumberOfStudents());
+            assertTrue(handler.isEmpty());
+        } finally {
+            StudentHandler.setStore(null);
+        }
+        assertSame(handler, StudentHandler.getStore());
+    }
+}
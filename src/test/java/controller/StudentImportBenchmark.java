@@ -0,0 +1,71 @@
+package controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro benchmark for the StudentImporter class.
+ * <p>
+ * It is not part of the test suite; run its main method to print, for several
+ * numbers of parser threads, the rows per second of importing a roster of one
+ * million students in random code order into an empty handler, including the
+ * bulk load of the list.
+ */
+public class StudentImportBenchmark {
+
+    /**
+     * Number of rows of the roster.
+     */
+    private static final int ROWS = 1_000_000;
+
+    /**
+     * Numbers of parser threads measured.
+     */
+    private static final int[] THREADS = { 1, 2, 4, 8 };
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional directory for the roster file
+     * @throws IOException if the roster cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("import");
+        Path file = directory.resolve("roster.csv");
+        List<Integer> codes = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            codes.add(i);
+        }
+        Collections.shuffle(codes, new Random(42));
+        String[] careers = { "Systems Engineering", "Law", "Medicine", "Física", "Architecture" };
+        String[] genders = { "FEMALE", "MALE", "OTHER" };
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("code,name,lastname,email,gender,career\n");
+            for (int code : codes) {
+                writer.write(String.format("%08d,José,Rodríguez %d,student%d@mail.com,%s,%s%n", code, code % 997,
+                        code, genders[code % 3], careers[code % careers.length]));
+            }
+        }
+        System.out.printf("%d rows, %d MB%n", ROWS, Files.size(file) >> 20);
+
+        for (int round = 0; round < 2; round++) {
+            for (int threads : THREADS) {
+                StudentHandler handler = StudentHandler.getInstance();
+                long start = System.nanoTime();
+                StudentImporter.Result result = new StudentImporter(handler, threads).importFile(file);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                handler.restartInstance();
+                System.out.printf("%d threads: %,.0f rows/s (%d imported, %d errors)%n", threads,
+                        result.getImported() / seconds, result.getImported(), result.getErrors().size());
+            }
+        }
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,110 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedMap;
+
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the StudentImporter class.
+ */
+public class StudentImporterTest {
+
+    /**
+     * Directory for the files of each test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * The handler the students are imported into.
+     */
+    private StudentHandler handler;
+
+    /**
+     * Initializes the StudentHandler instance before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        handler = StudentHandler.getInstance();
+    }
+
+    /**
+     * Resets the StudentHandler instance after each test.
+     */
+    @AfterEach
+    public void down() {
+        handler.restartInstance();
+    }
+
+    /**
+     * Tests that valid rows are added in code order with quoted fields,
+     * non-ASCII text and CRLF line breaks, and that every invalid row is
+     * reported by its line number, whatever the number of threads.
+     */
+    @Test
+    public void testImportReportsErrorsPerLine() throws IOException {
+        Path file = directory.resolve("roster.csv");
+        Files.writeString(file, "﻿code,name,lastname,email,gender,career\r\n"
+                + "003,José,Muñoz,jose@mail.com,male,Systems\r\n"
+                + "001,Ana,\"Ruiz, \"\"Anita\"\"\",ana@mail.com,FEMALE,Systems\r\n"
+                + "\r\n"
+                + "002,Eva,Diaz,eva@mail.com,robot,Law\r\n"
+                + "004,Kai,Ota,kai@mail.com,Other\r\n"
+                + "001,Rosa,Gil,rosa@mail.com,FEMALE,Law\r\n"
+                + "005,Luz,\"Paz,luz@mail.com,FEMALE,Law\r\n"
+                + "006,Ivan,Petrov,ivan@mail.com,MALE,Law", StandardCharsets.UTF_8);
+
+        for (int threads : new int[] { 1, 3 }) {
+            StudentImporter.Result result = new StudentImporter(handler, threads).importFile(file);
+            assertEquals(3, result.getImported());
+            SortedMap<Long, String> errors = result.getErrors();
+            assertEquals(4, errors.size());
+            assertEquals("Invalid gender \"robot\".", errors.get(5L));
+            assertEquals("Expected 6 fields but found 5.", errors.get(6L));
+            assertEquals("The code is repeated from line 3.", errors.get(7L));
+            assertTrue(errors.containsKey(8L));
+
+            assertEquals("001", handler.getFirstStudent().getId());
+            assertEquals("006", handler.getLastStudent().getId());
+            Student ana = handler.findStudentByCode("001");
+            assertEquals("Ruiz, \"Anita\"", ana.getLastName());
+            assertEquals(EGender.FEMALE, ana.getGender());
+            assertEquals("Muñoz", handler.findStudentByCode("003").getLastName());
+            handler.restartInstance();
+            handler = StudentHandler.getInstance();
+        }
+    }
+
+    /**
+     * Tests that rows whose code is already in use are reported and the rest
+     * imported, across many small chunks.
+     */
+    @Test
+    public void testImportSkipsCodesInUse() throws IOException {
+        handler.addStudent("0050", "Eva", "Diaz", "eva@mail.com", EGender.FEMALE, "Law");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            csv.append(String.format("%04d,Name,Lastname,mail%d,OTHER,Law%n", i, i));
+        }
+        Path file = directory.resolve("roster.csv");
+        Files.writeString(file, csv);
+
+        StudentImporter.Result result = new StudentImporter(handler, 8).importFile(file);
+        assertEquals(99, result.getImported());
+        assertEquals("A student with the same code already exists.", result.getErrors().get(51L));
+        assertEquals(100, handler.getNumberOfStudents());
+        assertEquals(10, handler.getStudentPosition("0010"));
+        assertEquals("Diaz", handler.findStudentByCode("0050").getLastName());
+    }
+}
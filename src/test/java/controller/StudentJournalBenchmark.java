@@ -0,0 +1,104 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.ActionType;
+import model.EGender;
+import model.Student;
+
+/**
+ * Micro benchmark for the group commit of the StudentJournal class.
+ * <p>
+ * It is not part of the test suite; run its main method to print, for several
+ * batch windows and numbers of writer threads that each append a change and
+ * wait for it to be durable in a loop, the number of durable changes per
+ * second and the average number of changes shared by each force.
+ */
+public class StudentJournalBenchmark {
+
+    /**
+     * Duration of each measurement, in milliseconds.
+     */
+    private static final int DURATION_MS = 2000;
+
+    /**
+     * Batch windows measured, in microseconds.
+     */
+    private static final long[] WINDOWS_US = { 0, 50, 200, 1000, 5000 };
+
+    /**
+     * Numbers of writer threads measured for each window.
+     */
+    private static final int[] WRITERS = { 1, 4, 16, 64 };
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args an optional directory for the journal files, on the disk to
+     *             measure
+     * @throws Exception if a journal cannot be written or a thread is
+     *                   interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        Path directory = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("journal");
+        System.out.printf("%10s", "window us");
+        for (int writers : WRITERS) {
+            System.out.printf(" %22s", writers + " writers commits/s");
+        }
+        System.out.println();
+        for (long window : WINDOWS_US) {
+            System.out.printf("%10d", window);
+            for (int writers : WRITERS) {
+                Path file = directory.resolve("benchmark-" + window + "-" + writers + ".journal");
+                double[] result = measure(file, window * 1000, writers);
+                Files.deleteIfExists(file);
+                System.out.printf(" %13.0f (%5.1f/f)", result[0], result[1]);
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Runs writer threads against a new journal for a fixed duration.
+     *
+     * @param file        the journal file
+     * @param windowNanos the batch window
+     * @param writers     the number of writer threads
+     * @return the durable changes per second and the changes per force
+     * @throws IOException          if the journal cannot be written
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static double[] measure(Path file, long windowNanos, int writers)
+            throws IOException, InterruptedException {
+        LongAdder commits = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Student student = new Student("20230001", "Name", "Lastname", "name.lastname@example.com", EGender.OTHER,
+                "systems");
+        try (StudentJournal journal = new StudentJournal(file, windowNanos)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < writers; t++) {
+                Thread thread = new Thread(() -> {
+                    while (running.get()) {
+                        journal.awaitDurable(journal.append(ActionType.UPDATE, null, student));
+                        commits.increment();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            Thread.sleep(DURATION_MS);
+            running.set(false);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            double perSecond = commits.sum() * 1000.0 / DURATION_MS;
+            return new double[] { perSecond, commits.sum() / (double) Math.max(1, journal.getForceCount()) };
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import model.ActionType;
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the StudentJournal class.
+ */
+public class StudentJournalTest {
+
+    /**
+     * Directory for the journal files of each test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that every kind of change is read back as it was appended, after
+     * the journal is reopened.
+     */
+    @Test
+    public void testReplayAfterReopen() throws IOException {
+        Path file = directory.resolve("students.journal");
+        try (StudentJournal journal = new StudentJournal(file, 0)) {
+            journal.append(ActionType.ADD, null, student("001", "José"));
+            journal.append(ActionType.ADD_BEFORE, "001", student("002", "Ana"));
+            journal.append(ActionType.UPDATE, null, student("002", "Eva"));
+            journal.awaitDurable(journal.append(ActionType.DELETE, "001", null));
+        }
+
+        try (StudentJournal journal = new StudentJournal(file, 0)) {
+            assertEquals(4, journal.getLastSequence());
+            List<StudentJournal.Entry> entries = new ArrayList<>();
+            assertEquals(2, journal.replay(2, entries::add));
+            assertEquals(ActionType.UPDATE, entries.get(0).getAction());
+            assertEquals("002", entries.get(0).getCode());
+            assertEquals("Eva", entries.get(0).getStudent().getName());
+            assertEquals(ActionType.DELETE, entries.get(1).getAction());
+            assertEquals("001", entries.get(1).getCode());
+            assertNull(entries.get(1).getStudent());
+
+            entries.clear();
+            journal.replay(0, entries::add);
+            assertEquals("José", entries.get(0).getStudent().getName());
+            assertEquals(EGender.FEMALE, entries.get(1).getStudent().getGender());
+            assertEquals("001", entries.get(1).getCode());
+            assertEquals(5, journal.append(ActionType.ADD, null, student("003", "Luis")));
+        }
+    }
+
+    /**
+     * Tests that a run of insertions with a student that cannot be encoded,
+     * or on a closed journal, appends none of its records.
+     */
+    @Test
+    public void testAppendAllIsAllOrNothing() throws IOException {
+        Path file = directory.resolve("students.journal");
+        StudentJournal journal = new StudentJournal(file, 0);
+        journal.append(ActionType.ADD, null, student("001", "Ana"));
+        Student broken = new Student("003", null, "Rios", "rios@example.com", EGender.FEMALE, "systems");
+        assertThrows(RuntimeException.class,
+                () -> journal.appendAll(ActionType.ADD, List.of(student("002", "Eva"), broken)));
+        assertEquals(1, journal.getLastSequence());
+        assertEquals(3, journal.appendAll(ActionType.ADD, List.of(student("002", "Eva"), student("003", "Luis"))));
+        journal.awaitDurable(3);
+        journal.close();
+        assertThrows(IllegalStateException.class,
+                () -> journal.appendAll(ActionType.ADD, List.of(student("004", "Oscar"))));
+
+        try (StudentJournal reopened = new StudentJournal(file, 0)) {
+            List<String> codes = new ArrayList<>();
+            assertEquals(3, reopened.replay(0, entry -> codes.add(entry.getStudent().getId())));
+            assertEquals(List.of("001", "002", "003"), codes);
+        }
+    }
+
+    /**
+     * Tests that a record cut short at the end of the file is dropped and
+     * overwritten by the next change.
+     */
+    @Test
+    public void testTornTailIsTruncated() throws IOException {
+        Path file = directory.resolve("students.journal");
+        try (StudentJournal journal = new StudentJournal(file, 0)) {
+            journal.append(ActionType.ADD, null, student("001", "Ana"));
+            journal.awaitDurable(journal.append(ActionType.ADD, null, student("002", "Eva")));
+        }
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (StudentJournal journal = new StudentJournal(file, 0)) {
+            assertEquals(1, journal.getLastSequence());
+            journal.awaitDurable(journal.append(ActionType.ADD, null, student("003", "Luis")));
+        }
+        try (StudentJournal journal = new StudentJournal(file, 0)) {
+            List<String> codes = new ArrayList<>();
+            journal.replay(0, entry -> codes.add(entry.getStudent().getId()));
+            assertEquals(List.of("001", "003"), codes);
+        }
+        Path other = Files.writeString(directory.resolve("other.txt"), "not a journal");
+        assertThrows(IllegalStateException.class, () -> new StudentJournal(other, 0));
+        assertThrows(IllegalArgumentException.class, () -> new StudentJournal(file, -1));
+    }
+
+    /**
+     * Tests that concurrent writers share forces and that every acknowledged
+     * change is in the file.
+     */
+    @Test
+    public void testConcurrentChangesShareForces() throws Exception {
+        Path file = directory.resolve("students.journal");
+        int threads = 8;
+        int perThread = 200;
+        ConcurrentLinkedQueue<Long> acknowledged = new ConcurrentLinkedQueue<>();
+        long forces;
+        try (StudentJournal journal = new StudentJournal(file, 200_000)) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                Thread worker = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        long sequence = journal.append(ActionType.ADD, null, student(thread + "-" + i, "Ana"));
+                        journal.awaitDurable(sequence);
+                        acknowledged.add(sequence);
+                    }
+                });
+                worker.start();
+                workers.add(worker);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            forces = journal.getForceCount();
+        }
+        assertEquals(threads * perThread, acknowledged.size());
+        assertTrue(forces < threads * perThread, "Every change was forced on its own");
+        try (StudentJournal journal = new StudentJournal(file, 0)) {
+            assertEquals(threads * perThread, journal.replay(0, entry -> { }));
+        }
+    }
+
+    /**
+     * Creates a student with fixed information besides its code and name.
+     *
+     * @param id   the code of the student
+     * @param name the name of the student
+     * @return the student
+     */
+    private static Student student(String id, String name) {
+        return new Student(id, name, "Rios", "rios@example.com", EGender.FEMALE, "systems");
+    }
+}
@@ -0,0 +1,87 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the StudentSnapshot class.
+ */
+public class StudentSnapshotTest {
+
+    /**
+     * Directory for the snapshot files of each test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that a snapshot is read back with its students in the same order
+     * and its sequence number, and replaces an older one.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path file = directory.resolve("students.snapshot");
+        new StudentSnapshot(List.of(new Student("1", "Old", "Rios", "old", EGender.MALE, "systems")), 1).write(file);
+        List<Student> students = List.of(
+                new Student("002", "José", "Hernández", "jose.hernandez", EGender.MALE, "systems"),
+                new Student("001", "Zoë", "Ørsted", "zoe.orsted", EGender.OTHER, "x".repeat(1000)));
+        new StudentSnapshot(students, 42).write(file);
+
+        StudentSnapshot read = StudentSnapshot.read(file);
+        assertEquals(42, read.getSequence());
+        assertEquals(students.stream().map(Student::toString).toList(),
+                read.getStudents().stream().map(Student::toString).toList());
+        assertFalse(Files.exists(directory.resolve("students.snapshot.tmp")));
+    }
+
+    /**
+     * Tests that a snapshot is read back whole through mappings smaller than
+     * the file, with records that straddle two of them.
+     */
+    @Test
+    public void testReadThroughSmallMappings() throws IOException {
+        Path file = directory.resolve("students.snapshot");
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            students.add(new Student(String.format("%03d", i), "Name " + i, "Lastname", "mail" + i, EGender.FEMALE,
+                    i % 7 == 0 ? "x".repeat(150) : "systems"));
+        }
+        new StudentSnapshot(students, 7).write(file);
+
+        StudentSnapshot read = StudentSnapshot.read(file, 97);
+        assertEquals(7, read.getSequence());
+        assertEquals(students.stream().map(Student::toString).toList(),
+                read.getStudents().stream().map(Student::toString).toList());
+    }
+
+    /**
+     * Tests that a damaged or cut snapshot is rejected.
+     */
+    @Test
+    public void testDamagedSnapshotIsRejected() throws IOException {
+        Path file = directory.resolve("students.snapshot");
+        new StudentSnapshot(List.of(new Student("001", "Ana", "Rios", "ana", EGender.FEMALE, "systems")), 3)
+                .write(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 'X' }), channel.size() - 2);
+        }
+        assertThrows(IllegalStateException.class, () -> StudentSnapshot.read(file));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThrows(IllegalStateException.class, () -> StudentSnapshot.read(file));
+    }
+}
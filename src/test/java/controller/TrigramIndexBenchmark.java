@@ -0,0 +1,104 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.EGender;
+import model.Node;
+import model.Student;
+
+/**
+ * Micro benchmark for the fuzzy searches of the TrigramIndex class.
+ * <p>
+ * It is not part of the test suite; run its main method (with a heap of a few
+ * gigabytes) to index one million generated students and print the build time
+ * and the average latency of searches with a typo and swapped words, along
+ * with how often the student searched for is among the first ten results.
+ */
+public class TrigramIndexBenchmark {
+
+    /**
+     * Number of students indexed.
+     */
+    private static final int SIZE = 1_000_000;
+
+    /**
+     * Number of timed searches.
+     */
+    private static final int SEARCHES = 200;
+
+    /**
+     * Syllables that generated names are made of.
+     */
+    private static final String[] SYLLABLES = { "ca", "mi", "la", "ro", "dri", "guez", "her", "nan", "dez", "ma",
+            "ri", "a", "jo", "se", "lu", "cia", "to", "res", "vi", "lla", "nue", "va", "or", "tiz", "ga", "cia" };
+
+    /**
+     * Careers of the generated students.
+     */
+    private static final String[] CAREERS = { "systems", "industrial", "civil", "electronics", "medicine", "law" };
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        List<Node<Student>> nodes = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            String name = word(random);
+            String lastname = word(random);
+            nodes.add(new Node<>(new Student(String.format("%08d", i), name, lastname, name + "." + lastname,
+                    EGender.OTHER, CAREERS[random.nextInt(CAREERS.length)])));
+        }
+
+        TrigramIndex<Student> index = new TrigramIndex<>(
+                List.of(Student::getName, Student::getLastName, Student::getEmail, Student::getCareer));
+        long start = System.nanoTime();
+        nodes.forEach(index::add);
+        System.out.printf("indexed %d students in %.0f ms%n", SIZE, (System.nanoTime() - start) / 1e6);
+
+        for (int round = 0; round < 2; round++) {
+            int found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < SEARCHES; i++) {
+                Student target = nodes.get(random.nextInt(SIZE)).getInfo();
+                String query = typo(target.getLastName(), random) + " " + target.getName();
+                if (index.search(query, 10).contains(target)) {
+                    found++;
+                }
+            }
+            System.out.printf("search: %.2f ms/op, target in top 10: %d%%%n",
+                    (System.nanoTime() - start) / 1e6 / SEARCHES, found * 100 / SEARCHES);
+        }
+    }
+
+    /**
+     * Builds a name from random syllables.
+     *
+     * @param random the source of randomness
+     * @return the name
+     */
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 2 + random.nextInt(3); i > 0; i--) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    /**
+     * Replaces one letter of a word.
+     *
+     * @param word   the word
+     * @param random the source of randomness
+     * @return the word with a typo
+     */
+    private static String typo(String word, Random random) {
+        char[] letters = word.toCharArray();
+        letters[random.nextInt(letters.length)] = (char) ('a' + random.nextInt(26));
+        return new String(letters);
+    }
+}
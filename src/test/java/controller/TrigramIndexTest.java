@@ -0,0 +1,87 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.EGender;
+import model.Node;
+import model.Student;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the TrigramIndex class.
+ */
+public class TrigramIndexTest {
+
+    /**
+     * Tests that searches tolerate typos and reordered words and skip removed
+     * nodes.
+     */
+    @Test
+    public void testSearchSkipsRemovedNodes() {
+        TrigramIndex<Student> index = new TrigramIndex<>(List.of(Student::getName, Student::getLastName));
+        Node<Student> ana = node("1", "Ana", "Rios");
+        Node<Student> laura = node("2", "Laura", "Ortega");
+        index.add(ana);
+        index.add(laura);
+        index.add(ana);
+
+        assertEquals(List.of(ana.getInfo()), index.search("rois ana", 1));
+        index.remove(laura);
+        assertTrue(index.search("laura ortega", 5).stream().noneMatch(s -> s.getId().equals("2")));
+        assertTrue(index.search("  ", 5).isEmpty());
+    }
+
+    /**
+     * Tests that a compaction keeps the nodes added, updated and removed while
+     * it copied the others, and purges the retired handles.
+     */
+    @Test
+    public void testCompactionKeepsChangesMadeMeanwhile() {
+        TrigramIndex<Student> index = new TrigramIndex<>(List.of(Student::getName, Student::getLastName));
+        List<Node<Student>> nodes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Node<Student> node = node(String.valueOf(i), "Name" + i, "Lastname" + i);
+            nodes.add(node);
+            index.add(node);
+        }
+        for (int i = 0; i < 60; i++) {
+            index.remove(nodes.get(i));
+        }
+        assertTrue(index.needsCompaction());
+
+        index.startCompaction();
+        assertFalse(index.needsCompaction());
+        assertFalse(index.compactStep(70));
+        index.remove(nodes.get(99));
+        index.remove(nodes.get(60));
+        nodes.get(60).setInfo(new Student("60", "Eva", "Zuluaga", "mail", EGender.OTHER, "systems"));
+        index.add(nodes.get(60));
+        Node<Student> added = node("100", "Oscar", "Rivera");
+        index.add(added);
+        assertTrue(index.compactStep(70));
+        index.finishCompaction();
+
+        assertFalse(index.needsCompaction());
+        assertEquals("60", index.search("eva zuluaga", 1).get(0).getId());
+        assertEquals("100", index.search("oscar rivera", 1).get(0).getId());
+        assertEquals("98", index.search("name98 lastname98", 1).get(0).getId());
+        assertTrue(index.search("name99 lastname99", 5).stream().noneMatch(s -> s.getId().equals("99")));
+        assertTrue(index.search("name60 lastname60", 5).stream().noneMatch(s -> s.getId().equals("60")));
+        assertTrue(index.search("name10 lastname10", 5).stream().noneMatch(s -> s.getId().equals("10")));
+    }
+
+    /**
+     * Creates a node of a student.
+     *
+     * @param code     the student's code
+     * @param name     the student's name
+     * @param lastname the student's last name
+     * @return the node
+     */
+    private static Node<Student> node(String code, String name, String lastname) {
+        return new Node<>(new Student(code, name, lastname, "mail", EGender.OTHER, "systems"));
+    }
+}
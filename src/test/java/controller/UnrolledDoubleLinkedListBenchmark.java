@@ -0,0 +1,129 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import model.EGender;
+import model.Student;
+
+/**
+ * Micro benchmark comparing the UnrolledDoubleLinkedList class with the
+ * node-based DoubleLinkedList, with and without its skip-list overlay.
+ * <p>
+ * It is not part of the test suite; run its main method to print the full scan
+ * throughput and the throughput of sorted insertion in random order.
+ */
+public class UnrolledDoubleLinkedListBenchmark {
+
+    /**
+     * Number of elements scanned in each scan measurement.
+     */
+    private static final int SCAN_SIZE = 1_000_000;
+
+    /**
+     * Number of full scans timed per list.
+     */
+    private static final int SCANS = 20;
+
+    /**
+     * Number of elements inserted in sorted order per list.
+     */
+    private static final int INSERT_SIZE = 50_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     */
+    public static void main(String[] args) {
+        List<Student> ordered = students(SCAN_SIZE);
+        List<Student> shuffled = new ArrayList<>(students(INSERT_SIZE));
+        Collections.shuffle(shuffled, new Random(42));
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d%n", round + 1);
+
+            DoubleLinkedList<Student> nodes = new DoubleLinkedList<>();
+            UnrolledDoubleLinkedList<Student> unrolled = new UnrolledDoubleLinkedList<>();
+            for (Student student : ordered) {
+                nodes.addNodeLast(student);
+                unrolled.addNodeLast(student);
+            }
+            System.out.printf("  scan    node-based %8.1f M elements/s%n", scan(nodes));
+            System.out.printf("  scan    unrolled   %8.1f M elements/s%n", scan(unrolled));
+
+            System.out.printf("  sorted  node-based %8.1f k inserts/s%n",
+                    insertSorted(new DoubleLinkedList<>(), shuffled));
+            System.out.printf("  sorted  skip list  %8.1f k inserts/s%n",
+                    insertSorted(new DoubleLinkedList<>(true), shuffled));
+            System.out.printf("  sorted  unrolled   %8.1f k inserts/s%n", insertSorted(shuffled));
+        }
+    }
+
+    /**
+     * Times full scans of a list.
+     *
+     * @param list the list to scan
+     * @return the throughput in millions of elements per second
+     */
+    private static double scan(Iterable<Student> list) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < SCANS; i++) {
+            for (Student student : list) {
+                sink += student.getId().length();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return SCANS * (double) SCAN_SIZE / elapsed * 1_000;
+    }
+
+    /**
+     * Times sorted insertion into a node-based list.
+     *
+     * @param list     the empty list to fill
+     * @param students the students to insert
+     * @return the throughput in thousands of insertions per second
+     */
+    private static double insertSorted(DoubleLinkedList<Student> list, List<Student> students) {
+        long start = System.nanoTime();
+        for (Student student : students) {
+            list.addNodeSorted(student);
+        }
+        return students.size() / ((System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Times sorted insertion into an unrolled list.
+     *
+     * @param students the students to insert
+     * @return the throughput in thousands of insertions per second
+     */
+    private static double insertSorted(List<Student> students) {
+        UnrolledDoubleLinkedList<Student> list = new UnrolledDoubleLinkedList<>();
+        long start = System.nanoTime();
+        for (Student student : students) {
+            list.addNodeSorted(student);
+        }
+        return students.size() / ((System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Creates students with increasing codes.
+     *
+     * @param count the number of students
+     * @return the students in code order
+     */
+    private static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(new Student(String.format("%08d", i), "Name", "Lastname", "mail", EGender.OTHER, "systems"));
+        }
+        return students;
+    }
+}
@@ -0,0 +1,107 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import model.EGender;
+import model.Student;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the UnrolledDoubleLinkedList class, checked against the
+ * DoubleLinkedList it mirrors.
+ */
+public class UnrolledDoubleLinkedListTest {
+
+    /**
+     * Creates a student with the given code and fixed remaining fields.
+     *
+     * @param code the student's code
+     * @return the new student
+     */
+    private static Student student(String code) {
+        return new Student(code, "Name" + code, "Lastname" + code, code + "@mail", EGender.OTHER, "systems");
+    }
+
+    /**
+     * Tests that a random mix of operations leaves both lists with the same
+     * elements in the same order, across chunk splits and merges.
+     */
+    @Test
+    public void testMatchesDoubleLinkedList() {
+        UnrolledDoubleLinkedList<Student> unrolled = new UnrolledDoubleLinkedList<>(8);
+        DoubleLinkedList<Student> reference = new DoubleLinkedList<>();
+        Random random = new Random(5);
+        List<Student> live = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Student student = student(String.format("%05d", random.nextInt(100_000)));
+            if (reference.findNode(student.getId()) != null) {
+                continue;
+            }
+            int operation = random.nextInt(6);
+            if (operation == 0 && !live.isEmpty()) {
+                Student removed = live.remove(random.nextInt(live.size()));
+                assertSame(removed, unrolled.deleteNode(removed));
+                reference.deleteNode(reference.findNode(removed.getId()));
+                continue;
+            } else if (operation == 1) {
+                unrolled.addNodeFirst(student);
+                reference.addNodeFirst(student);
+            } else if (operation == 2) {
+                unrolled.addNodeLast(student);
+                reference.addNodeLast(student);
+            } else if (operation == 3 && !live.isEmpty()) {
+                Student target = live.get(random.nextInt(live.size()));
+                unrolled.addNodeAfterTo(target, student);
+                reference.addNodeAfterTo(reference.findNode(target.getId()), student);
+            } else if (operation == 4 && !live.isEmpty()) {
+                Student target = live.get(random.nextInt(live.size()));
+                unrolled.addNodeBeforeTo(target, student);
+                reference.addNodeBeforeTo(reference.findNode(target.getId()), student);
+            } else {
+                unrolled.addNodeSorted(student);
+                reference.addNodeSorted(student);
+            }
+            live.add(student);
+        }
+
+        assertEquals(reference.getLinkedList(true), unrolled.getLinkedList(true));
+        assertEquals(reference.getLinkedList(false), unrolled.getLinkedList(false));
+        assertEquals(reference.getSize(), unrolled.getSize());
+        assertSame(reference.getObject(reference.getSize() / 2), unrolled.getObject(unrolled.getSize() / 2));
+        assertSame(reference.getFirst(), unrolled.getFirst());
+        assertSame(reference.getLast(), unrolled.getLast());
+        for (Student student : live) {
+            assertSame(student, unrolled.find(student.getId()));
+        }
+    }
+
+    /**
+     * Tests sorted insertion of a shuffled batch and draining the list.
+     */
+    @Test
+    public void testSortedInsertionAndDrain() {
+        UnrolledDoubleLinkedList<Student> unrolled = new UnrolledDoubleLinkedList<>();
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            students.add(student(String.format("%04d", i)));
+        }
+        List<Student> shuffled = new ArrayList<>(students);
+        Collections.shuffle(shuffled, new Random(3));
+        for (Student student : shuffled) {
+            unrolled.addNodeSorted(student);
+        }
+        assertEquals(students, unrolled.getLinkedList(true));
+
+        for (Student student : shuffled) {
+            unrolled.deleteNode(student);
+        }
+        assertTrue(unrolled.isEmpty());
+        assertNull(unrolled.getFirst());
+        assertNull(unrolled.find("0001"));
+    }
+}